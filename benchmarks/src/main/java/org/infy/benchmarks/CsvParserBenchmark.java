@@ -0,0 +1,125 @@
+package org.infy.benchmarks;
+
+import org.infy.model.ColumnarParseResult;
+import org.infy.model.ParseResult;
+import org.infy.model.Person;
+import org.infy.parser.impl.CsvParser;
+import org.infy.parser.impl.CsvPersonMapper;
+import org.infy.util.FileParserUtil;
+import org.infy.validation.CsvSchema;
+import org.infy.validation.ValidationReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CsvParserBenchmark {
+    private CsvParser parser;
+    private CsvSchema schema;
+
+    @Setup
+    public void setUp(DatasetState data) {
+        parser = new CsvParser(data.config);
+        schema = Dataset.schema();
+    }
+
+    @Benchmark
+    public ParseResult<Map<String, String>> parse(DatasetState data, RecordCounter counter) {
+        ParseResult<Map<String, String>> result = parser.parse(data.csv);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public ParseResult<Map<String, String>> parseInputStream(DatasetState data, RecordCounter counter)
+            throws IOException {
+        try (InputStream input = Files.newInputStream(data.csv)) {
+            ParseResult<Map<String, String>> result = parser.parse(input, null);
+            counter.records += result.parsedData().size();
+            return result;
+        }
+    }
+
+    @Benchmark
+    public ParseResult<Map<String, String>> parseParallel(DatasetState data, RecordCounter counter) {
+        ParseResult<Map<String, String>> result = parser.parseParallel(data.csv);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public void parseStream(DatasetState data, RecordCounter counter, Blackhole blackhole) {
+        try (Stream<Map<String, String>> records = parser.parseStream(data.csv)) {
+            records.forEach(record -> {
+                blackhole.consume(record);
+                counter.records++;
+            });
+        }
+    }
+
+    @Benchmark
+    public ParseResult<Person> parseAs(DatasetState data, RecordCounter counter) {
+        ParseResult<Person> result = parser.parseAs(data.csv, Person.class);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public List<Person> parseColumnar(DatasetState data, RecordCounter counter) {
+        ColumnarParseResult result = parser.parseColumnar(data.csv);
+        List<Person> persons = CsvPersonMapper.mapToPersons(result.table());
+        counter.records += persons.size();
+        return persons;
+    }
+
+    @Benchmark
+    public List<Person> mapToPerson(DatasetState data, RecordCounter counter) {
+        List<Person> persons = parser.parse(data.csv).parsedData().stream()
+            .map(CsvPersonMapper::mapToPerson)
+            .toList();
+        counter.records += persons.size();
+        return persons;
+    }
+
+    @Benchmark
+    public ValidationReport validate(DatasetState data, RecordCounter counter) throws IOException {
+        try (InputStream input = Files.newInputStream(data.csv)) {
+            ValidationReport report = parser.validate(input, schema);
+            counter.records += data.rows;
+            return report;
+        }
+    }
+
+    /**
+     * Parses and writes the text result file to {@code output/} in the working directory.
+     */
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ParseResult<Map<String, String>> parseFile(DatasetState data, RecordCounter counter) {
+        ParseResult<Map<String, String>> result =
+            FileParserUtil.parseFile(data.csv.toString(), data.config, (Class) Map.class);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+}
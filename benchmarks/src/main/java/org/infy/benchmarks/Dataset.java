@@ -0,0 +1,193 @@
+package org.infy.benchmarks;
+
+import org.infy.validation.CsvSchema;
+import org.infy.validation.SchemaConstraint;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Generates people files shaped like {@code data/sample.*}, at any size: a {@code name},
+ * {@code age} and {@code city} field followed by {@code width - 3} text fields.
+ * <p>
+ * A {@code blankRatio} share of the city and extra fields is empty, and a
+ * {@code quoteRatio} share of the text fields holds a comma, a double quote and an
+ * ampersand, so CSV fields need quoting and JSON and XML text needs escaping. The same seed
+ * gives the same data in every format.
+ */
+final class Dataset {
+    private static final String[] NAMES = {
+        "John", "Jane", "Alice", "Bob", "Carlos", "Dana", "Erik", "Fatima", "Grace", "Hiro"
+    };
+    private static final String[] CITIES = {
+        "New York", "London", "Paris", "Tokyo", "Berlin", "Mumbai", "Sydney", "Toronto", "Madrid", "Cairo"
+    };
+    private static final long SEED = 42;
+
+    private final int rows;
+    private final int width;
+    private final double blankRatio;
+    private final double quoteRatio;
+
+    Dataset(int rows, int width, double blankRatio, double quoteRatio) {
+        if (width < 3) {
+            throw new IllegalArgumentException("A people file has at least 3 fields");
+        }
+        this.rows = rows;
+        this.width = width;
+        this.blankRatio = blankRatio;
+        this.quoteRatio = quoteRatio;
+    }
+
+    /**
+     * The same rows with only the fields of {@link org.infy.model.Person}, for binding
+     * formats that reject unknown fields.
+     */
+    Dataset narrow() {
+        return new Dataset(rows, 3, blankRatio, quoteRatio);
+    }
+
+    /**
+     * A schema every generated row satisfies, so validation reads the whole file.
+     */
+    static CsvSchema schema() {
+        return new CsvSchema.Builder()
+            .addField("name", SchemaConstraint.required(String.class))
+            .addField("age", SchemaConstraint.required(Integer.class))
+            .addField("city", SchemaConstraint.withMaxLength(String.class, 64))
+            .build();
+    }
+
+    void writeCsv(Path file) throws IOException {
+        try (Writer out = writer(file)) {
+            for (int field = 0; field < width; field++) {
+                out.write(field == 0 ? "" : ",");
+                out.write(fieldName(field));
+            }
+            out.write('\n');
+            SplittableRandom random = new SplittableRandom(SEED);
+            String[] row = new String[width];
+            for (int i = 0; i < rows; i++) {
+                fill(random, i, row);
+                for (int field = 0; field < width; field++) {
+                    if (field > 0) {
+                        out.write(',');
+                    }
+                    String value = row[field];
+                    if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+                        out.write('"');
+                        out.write(value.replace("\"", "\"\""));
+                        out.write('"');
+                    } else {
+                        out.write(value);
+                    }
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    void writeJson(Path file) throws IOException {
+        try (Writer out = writer(file)) {
+            out.write("[\n");
+            writeJsonObjects(out, ",\n");
+            out.write("\n]\n");
+        }
+    }
+
+    void writeJsonLines(Path file) throws IOException {
+        try (Writer out = writer(file)) {
+            writeJsonObjects(out, "\n");
+            out.write('\n');
+        }
+    }
+
+    private void writeJsonObjects(Writer out, String separator) throws IOException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] row = new String[width];
+        for (int i = 0; i < rows; i++) {
+            fill(random, i, row);
+            if (i > 0) {
+                out.write(separator);
+            }
+            out.write('{');
+            for (int field = 0; field < width; field++) {
+                if (field > 0) {
+                    out.write(", ");
+                }
+                out.write('"');
+                out.write(fieldName(field));
+                out.write("\": ");
+                if (field == 1) {
+                    out.write(row[field]);
+                } else {
+                    out.write('"');
+                    out.write(row[field].replace("\\", "\\\\").replace("\"", "\\\""));
+                    out.write('"');
+                }
+            }
+            out.write('}');
+        }
+    }
+
+    void writeXml(Path file) throws IOException {
+        try (Writer out = writer(file)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<people>\n");
+            SplittableRandom random = new SplittableRandom(SEED);
+            String[] row = new String[width];
+            for (int i = 0; i < rows; i++) {
+                fill(random, i, row);
+                out.write("    <person>\n");
+                for (int field = 0; field < width; field++) {
+                    String name = fieldName(field);
+                    out.write("        <");
+                    out.write(name);
+                    out.write('>');
+                    out.write(row[field].replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;"));
+                    out.write("</");
+                    out.write(name);
+                    out.write(">\n");
+                }
+                out.write("    </person>\n");
+            }
+            out.write("</people>\n");
+        }
+    }
+
+    private void fill(SplittableRandom random, int index, String[] row) {
+        row[0] = text(random, NAMES[random.nextInt(NAMES.length)] + index, false);
+        row[1] = Integer.toString(18 + random.nextInt(70));
+        row[2] = text(random, CITIES[random.nextInt(CITIES.length)], true);
+        for (int field = 3; field < width; field++) {
+            row[field] = text(random, "value " + random.nextInt(1_000_000), true);
+        }
+    }
+
+    private String text(SplittableRandom random, String value, boolean mayBeBlank) {
+        if (mayBeBlank && random.nextDouble() < blankRatio) {
+            return "";
+        }
+        if (random.nextDouble() < quoteRatio) {
+            return value + ", \"" + value + "\" & co";
+        }
+        return value;
+    }
+
+    private static String fieldName(int field) {
+        return switch (field) {
+            case 0 -> "name";
+            case 1 -> "age";
+            case 2 -> "city";
+            default -> "field" + field;
+        };
+    }
+
+    private static Writer writer(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+    }
+}
@@ -0,0 +1,70 @@
+package org.infy.benchmarks;
+
+import org.infy.model.ParserConfig;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.stream.Stream;
+
+/**
+ * Generated input files, written once per trial into a temporary directory. The shape of
+ * the data is set with JMH parameters, e.g. {@code -p rows=1000000 -p width=20}.
+ */
+@State(Scope.Benchmark)
+public class DatasetState {
+    @Param("100000")
+    public int rows;
+
+    @Param("3")
+    public int width;
+
+    @Param("0.1")
+    public double blankRatio;
+
+    @Param("0.05")
+    public double quoteRatio;
+
+    public ParserConfig config;
+    public Path csv;
+    public Path json;
+    public Path jsonNarrow;
+    public Path jsonLines;
+    public Path xml;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        config = new ParserConfig(1000, false, StandardCharsets.UTF_8, true, new HashMap<>());
+        directory = Files.createTempDirectory("dataparsing-bench");
+        Dataset dataset = new Dataset(rows, width, blankRatio, quoteRatio);
+        csv = directory.resolve("people.csv");
+        json = directory.resolve("people.json");
+        jsonNarrow = directory.resolve("people-narrow.json");
+        jsonLines = directory.resolve("people.ndjson");
+        xml = directory.resolve("people.xml");
+        dataset.writeCsv(csv);
+        dataset.writeJson(json);
+        dataset.narrow().writeJson(jsonNarrow);
+        dataset.writeJsonLines(jsonLines);
+        dataset.writeXml(xml);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
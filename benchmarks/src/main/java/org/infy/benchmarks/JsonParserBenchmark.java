@@ -0,0 +1,111 @@
+package org.infy.benchmarks;
+
+import org.infy.model.ParseResult;
+import org.infy.model.Person;
+import org.infy.parser.impl.JsonParser;
+import org.infy.util.FileParserUtil;
+import org.infy.validation.CsvSchema;
+import org.infy.validation.ValidationReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonParserBenchmark {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Class<Map<String, Object>> MAP = (Class) Map.class;
+
+    private JsonParser<Map<String, Object>> parser;
+    private JsonParser<Person> personParser;
+    private CsvSchema schema;
+
+    @Setup
+    public void setUp(DatasetState data) {
+        parser = new JsonParser<>(data.config);
+        personParser = new JsonParser<>(data.config);
+        schema = Dataset.schema();
+    }
+
+    @Benchmark
+    public ParseResult<Map<String, Object>> parse(DatasetState data, RecordCounter counter) {
+        ParseResult<Map<String, Object>> result = parser.parse(data.json, MAP);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public ParseResult<Map<String, Object>> parseInputStream(DatasetState data, RecordCounter counter)
+            throws IOException {
+        try (InputStream input = Files.newInputStream(data.json)) {
+            ParseResult<Map<String, Object>> result = parser.parse(input, MAP);
+            counter.records += result.parsedData().size();
+            return result;
+        }
+    }
+
+    /**
+     * Binds into {@link Person}, from a copy of the data without the extra fields.
+     */
+    @Benchmark
+    public ParseResult<Person> parsePersons(DatasetState data, RecordCounter counter) {
+        ParseResult<Person> result = personParser.parse(data.jsonNarrow, Person.class);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public void parseStream(DatasetState data, RecordCounter counter, Blackhole blackhole) {
+        try (Stream<Map<String, Object>> records = parser.parseStream(data.json, MAP)) {
+            records.forEach(record -> {
+                blackhole.consume(record);
+                counter.records++;
+            });
+        }
+    }
+
+    @Benchmark
+    public ParseResult<Map<String, Object>> parseLines(DatasetState data, RecordCounter counter) {
+        ParseResult<Map<String, Object>> result = parser.parseLines(data.jsonLines, MAP);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public ValidationReport validate(DatasetState data, RecordCounter counter) throws IOException {
+        try (InputStream input = Files.newInputStream(data.json)) {
+            ValidationReport report = parser.validate(input, schema);
+            counter.records += data.rows;
+            return report;
+        }
+    }
+
+    /**
+     * Parses and writes the text result file to {@code output/} in the working directory.
+     */
+    @Benchmark
+    public ParseResult<Map<String, Object>> parseFile(DatasetState data, RecordCounter counter) {
+        ParseResult<Map<String, Object>> result = FileParserUtil.parseFile(data.json.toString(), data.config, MAP);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+}
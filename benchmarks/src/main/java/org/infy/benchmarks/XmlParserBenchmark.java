@@ -0,0 +1,92 @@
+package org.infy.benchmarks;
+
+import org.infy.model.ParseResult;
+import org.infy.model.Person;
+import org.infy.parser.impl.PersonXmlMapper;
+import org.infy.parser.impl.XmlParser;
+import org.infy.util.FileParserUtil;
+import org.infy.validation.CsvSchema;
+import org.infy.validation.ValidationReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Parses people through {@link PersonXmlMapper}, which reads only the {@code name},
+ * {@code age} and {@code city} elements and skips the rest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class XmlParserBenchmark {
+    private XmlParser<Person> parser;
+    private CsvSchema schema;
+
+    @Setup
+    public void setUp(DatasetState data) {
+        parser = new XmlParser<>(data.config, new PersonXmlMapper());
+        schema = Dataset.schema();
+    }
+
+    @Benchmark
+    public ParseResult<Person> parse(DatasetState data, RecordCounter counter) {
+        ParseResult<Person> result = parser.parse(data.xml, Person.class);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+
+    @Benchmark
+    public ParseResult<Person> parseInputStream(DatasetState data, RecordCounter counter) throws IOException {
+        try (InputStream input = Files.newInputStream(data.xml)) {
+            ParseResult<Person> result = parser.parse(input, Person.class);
+            counter.records += result.parsedData().size();
+            return result;
+        }
+    }
+
+    @Benchmark
+    public void parseStream(DatasetState data, RecordCounter counter, Blackhole blackhole) {
+        try (Stream<Person> records = parser.parseStream(data.xml, Person.class)) {
+            records.forEach(record -> {
+                blackhole.consume(record);
+                counter.records++;
+            });
+        }
+    }
+
+    @Benchmark
+    public ValidationReport validate(DatasetState data, RecordCounter counter) throws IOException {
+        try (InputStream input = Files.newInputStream(data.xml)) {
+            ValidationReport report = parser.validate(input, schema);
+            counter.records += data.rows;
+            return report;
+        }
+    }
+
+    /**
+     * Parses and writes the text result file to {@code output/} in the working directory.
+     */
+    @Benchmark
+    public ParseResult<Person> parseFile(DatasetState data, RecordCounter counter) {
+        ParseResult<Person> result = FileParserUtil.parseFile(data.xml.toString(), data.config, Person.class);
+        counter.records += result.parsedData().size();
+        return result;
+    }
+}
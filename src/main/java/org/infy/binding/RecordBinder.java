@@ -0,0 +1,306 @@
+package org.infy.binding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binds values straight into the canonical constructor of a record class.
+ * <p>
+ * The component names, types, text converters and a spread {@link MethodHandle} for the
+ * constructor are resolved once per class and cached, so binding a record is one slot array
+ * and one constructor call, without reflection or per-record map lookups. Parsers fill the
+ * slots from whatever they read (tokenizer fields, JSON tokens, XML text) and call
+ * {@link #bind(Object[])}.
+ */
+public final class RecordBinder<T> {
+    private static final ClassValue<RecordBinder<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected RecordBinder<?> computeValue(Class<?> type) {
+            return new RecordBinder<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Function<String, Object>[] converters;
+    private final Object[] defaults;
+    private final Map<String, Integer> index;
+    private final MethodHandle constructor;
+    private final MethodHandle[] accessors;
+
+    @SuppressWarnings("unchecked")
+    private RecordBinder(Class<T> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        this.type = type;
+        RecordComponent[] components = type.getRecordComponents();
+        this.names = new String[components.length];
+        this.types = new Class<?>[components.length];
+        this.converters = (Function<String, Object>[]) new Function<?, ?>[components.length];
+        this.defaults = new Object[components.length];
+        this.index = new HashMap<>(components.length * 2);
+        for (int i = 0; i < components.length; i++) {
+            names[i] = components[i].getName();
+            types[i] = components[i].getType();
+            converters[i] = converter(types[i]);
+            defaults[i] = defaultValue(types[i]);
+            index.put(names[i], i);
+        }
+
+        try {
+            Constructor<T> canonical = type.getDeclaredConstructor(types);
+            canonical.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(canonical)
+                .asSpreader(Object[].class, components.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access the canonical constructor of " + type.getName(), e);
+        }
+
+        this.accessors = new MethodHandle[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                Method accessor = components[i].getAccessor();
+                accessor.setAccessible(true);
+                accessors[i] = MethodHandles.lookup().unreflect(accessor)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access the components of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code type} is not a record
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RecordBinder<T> of(Class<T> type) {
+        return (RecordBinder<T>) CACHE.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public int componentCount() {
+        return names.length;
+    }
+
+    public String componentName(int component) {
+        return names[component];
+    }
+
+    public Class<?> componentType(int component) {
+        return types[component];
+    }
+
+    /**
+     * @return the component position of {@code name}, or -1 if there is no such component
+     */
+    public int indexOf(String name) {
+        Integer component = index.get(name);
+        return component == null ? -1 : component;
+    }
+
+    /**
+     * A fresh slot array holding the default of every component: zero or false for
+     * primitives, null otherwise.
+     */
+    public Object[] newSlots() {
+        return defaults.clone();
+    }
+
+    public Object defaultValue(int component) {
+        return defaults[component];
+    }
+
+    /**
+     * Whether {@link #convert} supports the component's type.
+     */
+    public boolean canConvert(int component) {
+        return converters[component] != null;
+    }
+
+    /**
+     * Converts text to the component's type. Strings are kept as they are; for other types
+     * blank text gives the component's default and surrounding whitespace is ignored.
+     * @throws IllegalArgumentException if the text is not a valid value of the type
+     */
+    public Object convert(int component, String text) {
+        Function<String, Object> converter = converters[component];
+        if (converter == null) {
+            throw new IllegalArgumentException("Cannot convert text to " + types[component].getName()
+                + " for component " + names[component]);
+        }
+        if (types[component] == String.class) {
+            return text;
+        }
+        if (text == null || text.isBlank()) {
+            return defaults[component];
+        }
+        try {
+            return converter.apply(text.trim());
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Calls the canonical constructor with the slots, in component order.
+     */
+    @SuppressWarnings("unchecked")
+    public T bind(Object[] slots) {
+        try {
+            return (T) constructor.invokeExact(slots);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to construct " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Reads the components of {@code record} into {@code slots}, in component order; the
+     * reverse of {@link #bind(Object[])}.
+     */
+    public void read(T record, Object[] slots) {
+        try {
+            for (int i = 0; i < accessors.length; i++) {
+                slots[i] = accessors[i].invokeExact((Object) record);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Binds named text values; components without a value get their default.
+     */
+    public T bind(Map<String, String> values) {
+        Object[] slots = newSlots();
+        for (int i = 0; i < names.length; i++) {
+            String value = values.get(names[i]);
+            if (value != null) {
+                slots[i] = convert(i, value);
+            }
+        }
+        return bind(slots);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+
+    /**
+     * The text converter {@link #convert} uses for {@code type}, or null if the type is not
+     * supported. Converters expect trimmed, non-blank text and throw a RuntimeException for
+     * invalid values.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Function<String, Object> converter(Class<?> type) {
+        if (type == String.class || type == CharSequence.class) {
+            return text -> text;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer::valueOf;
+        }
+        if (type == long.class || type == Long.class) {
+            return Long::valueOf;
+        }
+        if (type == double.class || type == Double.class) {
+            return Double::valueOf;
+        }
+        if (type == float.class || type == Float.class) {
+            return Float::valueOf;
+        }
+        if (type == short.class || type == Short.class) {
+            return Short::valueOf;
+        }
+        if (type == byte.class || type == Byte.class) {
+            return Byte::valueOf;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return RecordBinder::parseBoolean;
+        }
+        if (type == char.class || type == Character.class) {
+            return text -> {
+                if (text.length() != 1) {
+                    throw new IllegalArgumentException("Not a single character: " + text);
+                }
+                return text.charAt(0);
+            };
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal::new;
+        }
+        if (type == BigInteger.class) {
+            return BigInteger::new;
+        }
+        if (type == LocalDate.class) {
+            return LocalDate::parse;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime::parse;
+        }
+        if (type == Instant.class) {
+            return Instant::parse;
+        }
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return text -> Enum.valueOf(enumType, text);
+        }
+        return null;
+    }
+
+    private static Boolean parseBoolean(String text) {
+        if (text.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (text.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + text);
+    }
+}
@@ -0,0 +1,250 @@
+package org.infy.cache;
+
+import org.infy.binding.RecordBinder;
+import org.infy.model.CsvHeader;
+import org.infy.model.CsvRecord;
+import org.infy.model.ErrorSeverity;
+import org.infy.model.ParseError;
+import org.infy.model.ParseResult;
+import org.infy.model.ParsingStats;
+import org.infy.output.BinaryReader;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a snapshot written by {@link SnapshotCache}:
+ * <pre>
+ * magic "DPS1", key, kind, total/valid/invalid record counts, record count
+ * records in the binary output format (header and one tagged value per field)
+ * errors: count, then line, severity, message and raw content of each
+ * index: the offset of every record, 4 bytes each
+ * trailer: index offset, errors offset, CRC-32 of everything before the trailer, "DPSE"
+ * </pre>
+ */
+final class Snapshot {
+    static final byte[] MAGIC = {'D', 'P', 'S', '1'};
+    static final byte[] END_MAGIC = {'D', 'P', 'S', 'E'};
+    static final int RECORDS = 0;
+    static final int CSV_ROWS = 1;
+    private static final int TRAILER_SIZE = 16;
+
+    // How a decoded value becomes a component value
+    private static final int AS_IS = 0;
+    private static final int INT = 1;
+    private static final int SHORT = 2;
+    private static final int BYTE = 3;
+    private static final int FLOAT = 4;
+    private static final int CONVERTED = 5;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Whether a record component survives the binary format: strings, numbers and booleans
+     * as they are, other types through their text.
+     */
+    static boolean isSupported(RecordBinder<?> binder, int component) {
+        return conversion(binder.componentType(component)) != CONVERTED || binder.canConvert(component);
+    }
+
+    /**
+     * @return the result, or null if the snapshot was written for another key
+     * @throws IllegalArgumentException if the snapshot is damaged
+     */
+    static <T> ParseResult<T> read(ByteBuffer buffer, String key, Class<T> targetClass, long start) {
+        int size = buffer.capacity();
+        if (size < MAGIC.length + TRAILER_SIZE) {
+            throw new IllegalArgumentException("Snapshot truncated");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(size - END_MAGIC.length, magic);
+        if (!Arrays.equals(magic, END_MAGIC)) {
+            throw new IllegalArgumentException("Snapshot incomplete");
+        }
+        int bodySize = size - TRAILER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, bodySize));
+        if ((int) crc.getValue() != buffer.getInt(bodySize + 8)) {
+            throw new IllegalArgumentException("Snapshot checksum mismatch");
+        }
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a snapshot");
+        }
+
+        BinaryReader reader = new BinaryReader(buffer, MAGIC.length);
+        if (!reader.readString().equals(key)) {
+            return null;
+        }
+        int kind = buffer.get(reader.position());
+        reader.position(reader.position() + 1);
+        if (kind != (targetClass.isRecord() ? RECORDS : CSV_ROWS)) {
+            return null;
+        }
+        long totalRecords = reader.readVarLong();
+        long validRecords = reader.readVarLong();
+        long invalidRecords = reader.readVarLong();
+        int count = (int) reader.readVarLong();
+        int indexOffset = buffer.getInt(bodySize);
+        if (bodySize - indexOffset != count * 4L) {
+            throw new IllegalArgumentException("Snapshot index does not match its record count");
+        }
+        String[] names = count == 0 ? new String[0] : reader.readHeader();
+
+        List<T> records = kind == RECORDS
+            ? new RecordList<>(buffer, indexOffset, count, RecordBinder.of(targetClass), names)
+            : new CsvRowList<>(buffer, indexOffset, count, CsvHeader.of(names));
+
+        reader.position(buffer.getInt(bodySize + 4));
+        int errorCount = (int) reader.readVarLong();
+        List<ParseError> errors = new ArrayList<>(errorCount);
+        ErrorSeverity[] severities = ErrorSeverity.values();
+        for (int i = 0; i < errorCount; i++) {
+            int line = (int) reader.readVarSignedLong();
+            ErrorSeverity severity = severities[(int) reader.readVarLong()];
+            String message = readNullable(reader, buffer);
+            String rawContent = readNullable(reader, buffer);
+            // The cause is not kept; only its effect on the message is
+            errors.add(new ParseError(message, line, rawContent, severity, null));
+        }
+
+        ParsingStats stats = new ParsingStats(
+            totalRecords,
+            validRecords,
+            invalidRecords,
+            Duration.ofNanos(System.nanoTime() - start),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()
+        );
+        return new ParseResult<>(records, errors, stats);
+    }
+
+    private static String readNullable(BinaryReader reader, ByteBuffer buffer) {
+        int present = buffer.get(reader.position());
+        reader.position(reader.position() + 1);
+        return present == 0 ? null : reader.readString();
+    }
+
+    private static int conversion(Class<?> type) {
+        if (type == String.class || type == long.class || type == Long.class || type == double.class
+                || type == Double.class || type == boolean.class || type == Boolean.class) {
+            return AS_IS;
+        }
+        if (type == int.class || type == Integer.class) {
+            return INT;
+        }
+        if (type == short.class || type == Short.class) {
+            return SHORT;
+        }
+        if (type == byte.class || type == Byte.class) {
+            return BYTE;
+        }
+        if (type == float.class || type == Float.class) {
+            return FLOAT;
+        }
+        return CONVERTED;
+    }
+
+    /**
+     * Records decoded from the mapped snapshot on every read; the list is immutable and can be
+     * read from several threads.
+     */
+    private abstract static class MappedList<T> extends AbstractList<T> implements RandomAccess {
+        private final ByteBuffer buffer;
+        private final int indexOffset;
+        private final int size;
+        private final int fieldCount;
+
+        MappedList(ByteBuffer buffer, int indexOffset, int size, int fieldCount) {
+            this.buffer = buffer;
+            this.indexOffset = indexOffset;
+            this.size = size;
+            this.fieldCount = fieldCount;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            BinaryReader reader = new BinaryReader(buffer, buffer.getInt(indexOffset + index * 4));
+            Object[] values = new Object[fieldCount];
+            reader.readRecord(values);
+            return decode(values);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        abstract T decode(Object[] values);
+    }
+
+    private static final class RecordList<T> extends MappedList<T> {
+        private final RecordBinder<T> binder;
+        private final int[] conversions;
+
+        RecordList(ByteBuffer buffer, int indexOffset, int size, RecordBinder<T> binder, String[] names) {
+            super(buffer, indexOffset, size, binder.componentCount());
+            this.binder = binder;
+            if (size > 0) {
+                for (int i = 0; i < binder.componentCount(); i++) {
+                    if (names.length != binder.componentCount() || !names[i].equals(binder.componentName(i))) {
+                        throw new IllegalArgumentException("Snapshot fields do not match " + binder.type().getName());
+                    }
+                }
+            }
+            this.conversions = new int[binder.componentCount()];
+            for (int i = 0; i < conversions.length; i++) {
+                conversions[i] = conversion(binder.componentType(i));
+            }
+        }
+
+        @Override
+        T decode(Object[] values) {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    values[i] = binder.defaultValue(i);
+                    continue;
+                }
+                switch (conversions[i]) {
+                    case INT -> values[i] = ((Long) value).intValue();
+                    case SHORT -> values[i] = ((Long) value).shortValue();
+                    case BYTE -> values[i] = ((Long) value).byteValue();
+                    case FLOAT -> values[i] = ((Double) value).floatValue();
+                    case CONVERTED -> values[i] = binder.convert(i, value.toString());
+                    default -> {
+                    }
+                }
+            }
+            return binder.bind(values);
+        }
+    }
+
+    private static final class CsvRowList<T> extends MappedList<T> {
+        private final CsvHeader header;
+
+        CsvRowList(ByteBuffer buffer, int indexOffset, int size, CsvHeader header) {
+            super(buffer, indexOffset, size, header.size());
+            this.header = header;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T decode(Object[] values) {
+            String[] row = new String[values.length];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (String) values[i];
+            }
+            return (T) new CsvRecord(header, row);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package org.infy.cache;
+
+import org.infy.binding.RecordBinder;
+import org.infy.model.CsvRecord;
+import org.infy.model.ParseError;
+import org.infy.model.ParseResult;
+import org.infy.model.ParserConfig;
+import org.infy.output.OutputBuffer;
+import org.infy.output.OutputFormat;
+import org.infy.output.RecordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A directory of binary snapshots of parse results, so files that have not changed since
+ * they were last parsed are loaded instead of parsed again.
+ * <p>
+ * A snapshot is keyed by the file's path, size and modification time, the parser config and
+ * the target class. It holds the records in the format of {@link OutputFormat#BINARY}, the
+ * errors, an offset per record and a CRC-32 of all of it. Loading maps the snapshot, checks
+ * its key and checksum, and returns a result whose records are decoded from the mapping when
+ * they are read. Snapshots are taken of results made of records of the target class, or of
+ * CSV rows sharing one header; other results are not cached.
+ * <p>
+ * The cache is kept under {@code maxBytes} by evicting the least recently used snapshots. A
+ * snapshot that fails to load is deleted and the file parsed again; failing to write one
+ * never fails the parse.
+ */
+public final class SnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotCache.class);
+    private static final String SUFFIX = ".snapshot";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    public SnapshotCache(Path directory, long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create cache directory: " + directory, e);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Loads the snapshot of {@code file}, or parses it with {@code parser} and stores a
+     * snapshot of the result.
+     */
+    public <T> ParseResult<T> get(Path file, ParserConfig config, Class<T> targetClass,
+                                  Supplier<ParseResult<T>> parser) {
+        String key;
+        try {
+            // Taken before parsing, so a file that changes meanwhile is not cached as unchanged
+            key = key(file, config, targetClass);
+        } catch (IOException e) {
+            return parser.get();
+        }
+        Path snapshot = directory.resolve(name(file, config, targetClass));
+        ParseResult<T> cached = load(snapshot, key, targetClass);
+        if (cached != null) {
+            logger.debug("Loaded {} from snapshot {}", file, snapshot);
+            return cached;
+        }
+        ParseResult<T> result = parser.get();
+        store(snapshot, key, targetClass, result);
+        return result;
+    }
+
+    private <T> ParseResult<T> load(Path snapshot, String key, Class<T> targetClass) {
+        long start = System.nanoTime();
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            discard(snapshot, e.getMessage());
+            return null;
+        }
+        ParseResult<T> result;
+        try {
+            result = Snapshot.read(buffer, key, targetClass, start);
+        } catch (RuntimeException e) {
+            discard(snapshot, e.getMessage());
+            return null;
+        }
+        if (result == null) {
+            discard(snapshot, "file or parser config changed");
+            return null;
+        }
+        try {
+            // The modification time of a snapshot is its last use, for eviction
+            Files.setLastModifiedTime(snapshot, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Failed to touch snapshot {}", snapshot, e);
+        }
+        return result;
+    }
+
+    private <T> void store(Path snapshot, String key, Class<T> targetClass, ParseResult<T> result) {
+        int kind = kind(targetClass, result.parsedData());
+        if (kind < 0) {
+            logger.debug("Result of {} cannot be snapshotted", targetClass.getName());
+            return;
+        }
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, "snapshot", ".tmp");
+            write(temp, key, kind, result);
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evict();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write snapshot {}", snapshot, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete {}", temp, e);
+                }
+            }
+        }
+    }
+
+    private static <T> void write(Path temp, String key, int kind, ParseResult<T> result) throws IOException {
+        List<T> records = result.parsedData();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            OutputBuffer out = new OutputBuffer(channel, BUFFER_SIZE);
+            out.write(Snapshot.MAGIC);
+            out.writeString(key);
+            out.write(kind);
+            out.writeVarLong(result.stats().totalRecords());
+            out.writeVarLong(result.stats().validRecords());
+            out.writeVarLong(result.stats().invalidRecords());
+            out.writeVarLong(records.size());
+
+            int[] offsets = new int[records.size()];
+            RecordEncoder encoder = OutputFormat.BINARY.newEncoder();
+            if (!records.isEmpty()) {
+                encoder.start(records.get(0), out);
+            }
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = offset(out);
+                encoder.encode(records.get(i), out);
+            }
+
+            int errorsOffset = offset(out);
+            out.writeVarLong(result.errors().size());
+            for (ParseError error : result.errors()) {
+                out.writeVarSignedLong(error.lineNumber());
+                out.writeVarLong(error.severity().ordinal());
+                writeNullable(error.message(), out);
+                writeNullable(error.rawContent(), out);
+            }
+            int indexOffset = offset(out);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            int bodySize = offset(out);
+            out.flush();
+
+            CRC32 crc = new CRC32();
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, bodySize));
+            out.writeInt(indexOffset);
+            out.writeInt(errorsOffset);
+            out.writeInt((int) crc.getValue());
+            out.write(Snapshot.END_MAGIC);
+            out.flush();
+        }
+    }
+
+    private static int offset(OutputBuffer out) throws IOException {
+        long offset = out.bytesWritten();
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot would exceed 2 GB");
+        }
+        return (int) offset;
+    }
+
+    private static void writeNullable(String text, OutputBuffer out) throws IOException {
+        out.write(text == null ? 0 : 1);
+        if (text != null) {
+            out.writeString(text);
+        }
+    }
+
+    /**
+     * How the records can be stored, or -1 if they cannot.
+     */
+    private static int kind(Class<?> targetClass, List<?> records) {
+        if (targetClass.isRecord()) {
+            RecordBinder<?> binder = RecordBinder.of(targetClass);
+            for (int i = 0; i < binder.componentCount(); i++) {
+                if (!Snapshot.isSupported(binder, i)) {
+                    return -1;
+                }
+            }
+            for (Object record : records) {
+                if (record.getClass() != targetClass) {
+                    return -1;
+                }
+            }
+            return Snapshot.RECORDS;
+        }
+        if (Map.class.isAssignableFrom(targetClass)) {
+            Object header = records.isEmpty() || !(records.get(0) instanceof CsvRecord first) ? null : first.header();
+            for (Object record : records) {
+                // Rows of another width have a widened header and cannot share the stored one
+                if (!(record instanceof CsvRecord csv) || csv.header() != header) {
+                    return -1;
+                }
+            }
+            return Snapshot.CSV_ROWS;
+        }
+        return -1;
+    }
+
+    private void evict() throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(directory)) {
+            snapshots = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+        List<Map.Entry<Path, BasicFileAttributes>> entries = new ArrayList<>();
+        long total = 0;
+        for (Path snapshot : snapshots) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+                entries.add(Map.entry(snapshot, attributes));
+                total += attributes.size();
+            } catch (NoSuchFileException e) {
+                // evicted concurrently
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        entries.sort(Map.Entry.comparingByValue((a, b) -> a.lastModifiedTime().compareTo(b.lastModifiedTime())));
+        for (Map.Entry<Path, BasicFileAttributes> entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            Files.deleteIfExists(entry.getKey());
+            total -= entry.getValue().size();
+            logger.debug("Evicted snapshot {}", entry.getKey());
+        }
+    }
+
+    private static void discard(Path snapshot, String reason) {
+        logger.info("Discarding snapshot {}: {}", snapshot, reason);
+        try {
+            Files.deleteIfExists(snapshot);
+        } catch (IOException e) {
+            logger.debug("Failed to delete snapshot {}", snapshot, e);
+        }
+    }
+
+    private static String key(Path file, ParserConfig config, Class<?> targetClass) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return file.toAbsolutePath().normalize() + "\n" + attributes.size() + "\n"
+            + attributes.lastModifiedTime().toInstant() + "\n" + targetClass.getName() + "\n" + config;
+    }
+
+    /**
+     * One snapshot per file, config and class; a changed file replaces its old snapshot.
+     */
+    private static String name(Path file, ParserConfig config, Class<?> targetClass) {
+        String identity = file.toAbsolutePath().normalize() + "\n" + targetClass.getName() + "\n" + config;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16) + SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.infy.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.infy.ChunkParse")
+@Label("Chunk Parse")
+@Category({"DataParsing"})
+@Description("A chunk of a file parsed on one thread of a parallel parse")
+@StackTrace(false)
+class ChunkParseEvent extends jdk.jfr.Event {
+    @Label("Source")
+    String source;
+
+    @Label("Format")
+    String format;
+
+    @Label("Chunk")
+    int chunk;
+
+    @Label("Start Offset")
+    long startOffset;
+
+    @Label("End Offset")
+    long endOffset;
+
+    @Label("Records")
+    long records;
+
+    @Label("Errors")
+    long errors;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
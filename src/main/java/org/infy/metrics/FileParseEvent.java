@@ -0,0 +1,35 @@
+package org.infy.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.infy.FileParse")
+@Label("File Parse")
+@Category({"DataParsing"})
+@Description("A file or stream parsed by one parser call")
+@StackTrace(false)
+class FileParseEvent extends jdk.jfr.Event {
+    @Label("Source")
+    String source;
+
+    @Label("Format")
+    String format;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Records")
+    long records;
+
+    @Label("Errors")
+    long errors;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,116 @@
+package org.infy.metrics;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latencies in nanoseconds, counted in buckets of one eighth of a power of two, so a
+ * percentile is at most 12.5% above the true value whatever the range. Recording is a
+ * few shifts and an increment; histograms of chunks parsed on different threads are merged
+ * afterwards.
+ * <p>
+ * Not thread-safe while it is being recorded into.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int SUB_BITS = 3;
+    private static final int BUCKETS = SUB_BUCKETS + (62 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(max);
+    }
+
+    public Duration mean() {
+        return Duration.ofNanos(count == 0 ? 0 : sum / count);
+    }
+
+    /**
+     * The latency at or below which {@code quantile} of the values lie, e.g. 0.99; zero if
+     * nothing was recorded.
+     */
+    public Duration percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(max, upperBound(i)));
+            }
+        }
+        return Duration.ofNanos(max);
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + count + ", p50=" + percentile(0.5) + ", p99=" + percentile(0.99)
+            + ", max=" + max() + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LatencyHistogram other && count == other.count && sum == other.sum
+            && max == other.max && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+}
@@ -0,0 +1,266 @@
+package org.infy.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Collects the {@link ParseMetrics} of one parse, or of one chunk of a parallel parse, on
+ * the thread doing it.
+ * <p>
+ * Stage times are sampled: {@link #mark()} starts timing only every
+ * {@value #SAMPLE_INTERVAL}th record, {@link #lap} adds the time since the mark scaled by
+ * the interval, and both are a field check otherwise. A sampled record that is held up by a
+ * GC pause counts for a whole interval, so the sampled times are scaled down at the end if
+ * they add up to more than the parse took. A parse loop times a record as
+ * <pre>{@code
+ * long mark = metrics.mark();
+ * ... tokenize ...
+ * mark = metrics.lap(Stage.TOKENIZE, mark);
+ * ... bind ...
+ * metrics.lap(Stage.BIND, mark);
+ * metrics.recordDone();
+ * }</pre>
+ * The recorder of a file also begins a JFR event, committed by {@link #finish}, when JFR
+ * records {@code org.infy.FileParse} or {@code org.infy.ChunkParse} events. Not
+ * thread-safe; a parallel parse gives every chunk its own recorder and merges them.
+ */
+public final class MetricsRecorder {
+    static final int SAMPLE_INTERVAL = 64;
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final int batchSize;
+    private final long start = System.nanoTime();
+    // Measured in full, or merged from chunks
+    private final long[] stageNanos = new long[Stage.values().length];
+    private final long[] sampledNanos = new long[Stage.values().length];
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final FileParseEvent fileEvent;
+    private final ChunkParseEvent chunkEvent;
+    private long allocationStart;
+    private long allocated;
+    private long measuredNanos;
+    private long bytesRead;
+    private long recordCount;
+    private long batchStart = start;
+    private boolean sampling;
+    private ParseMetrics metrics;
+
+    private MetricsRecorder(int batchSize, FileParseEvent fileEvent, ChunkParseEvent chunkEvent) {
+        this.batchSize = Math.max(1, batchSize);
+        this.fileEvent = fileEvent;
+        this.chunkEvent = chunkEvent;
+        this.allocationStart = allocatedByThisThread();
+        if (fileEvent != null) {
+            fileEvent.begin();
+        }
+        if (chunkEvent != null) {
+            chunkEvent.begin();
+        }
+    }
+
+    /**
+     * A recorder for parsing {@code file}, or a stream if it is null.
+     */
+    public static MetricsRecorder forFile(String format, Path file, int batchSize) {
+        FileParseEvent event = new FileParseEvent();
+        if (!event.isEnabled()) {
+            return new MetricsRecorder(batchSize, null, null);
+        }
+        event.format = format;
+        event.source = file == null ? null : file.toString();
+        return new MetricsRecorder(batchSize, event, null);
+    }
+
+    /**
+     * A recorder for parsing the chunk {@code [startOffset, endOffset)} of {@code file}.
+     */
+    public static MetricsRecorder forChunk(String format, Path file, int chunk, long startOffset, long endOffset,
+                                           int batchSize) {
+        ChunkParseEvent event = new ChunkParseEvent();
+        if (!event.isEnabled()) {
+            return new MetricsRecorder(batchSize, null, null);
+        }
+        event.format = format;
+        event.source = file == null ? null : file.toString();
+        event.chunk = chunk;
+        event.startOffset = startOffset;
+        event.endOffset = endOffset;
+        return new MetricsRecorder(batchSize, null, event);
+    }
+
+    /**
+     * Starts timing the next record if it is one of the sample.
+     * @return the start time to pass to {@link #lap}
+     */
+    public long mark() {
+        // The last record of every interval, so the one-time setup of the first is not scaled up
+        sampling = recordCount % SAMPLE_INTERVAL == SAMPLE_INTERVAL - 1;
+        return sampling ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since {@code mark} to {@code stage} if the current record is sampled.
+     * @return the mark for the next stage of the record
+     */
+    public long lap(Stage stage, long mark) {
+        if (!sampling) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        sampledNanos[stage.ordinal()] += (now - mark) * SAMPLE_INTERVAL;
+        return now;
+    }
+
+    /**
+     * Counts a record, or a record that failed, and closes a batch every batch size records.
+     */
+    public void recordDone() {
+        if (++recordCount % batchSize == 0) {
+            long now = System.nanoTime();
+            batchLatency.record(now - batchStart);
+            batchStart = now;
+        }
+    }
+
+    /**
+     * Adds time measured in full, for stages that run once per parse or per batch.
+     */
+    public void addTime(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+        measuredNanos += nanos;
+    }
+
+    public void addBytes(long bytes) {
+        bytesRead += bytes;
+    }
+
+    /**
+     * Wraps {@code input} to count the bytes read from it.
+     */
+    public InputStream count(InputStream input) {
+        return new FilterInputStream(input) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesRead++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    bytesRead += n;
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * Stops counting allocations on this thread, while it helps with chunks that count their
+     * own.
+     */
+    public void pauseAllocations() {
+        if (allocationStart >= 0) {
+            allocated += allocatedByThisThread() - allocationStart;
+            allocationStart = -1;
+        }
+    }
+
+    public void resumeAllocations() {
+        if (allocationStart < 0 && THREADS != null) {
+            allocationStart = allocatedByThisThread();
+        }
+    }
+
+    /**
+     * Adds the stage times, bytes, allocations and batch latencies of a chunk's recorder.
+     */
+    public void merge(MetricsRecorder chunk) {
+        ParseMetrics other = chunk.metrics();
+        other.stageTimes().forEach((stage, time) -> stageNanos[stage.ordinal()] += time.toNanos());
+        bytesRead += other.bytesRead();
+        if (allocated >= 0) {
+            allocated = other.allocatedBytes() < 0 ? -1 : allocated + other.allocatedBytes();
+        }
+        batchLatency.merge(chunk.batchLatency);
+    }
+
+    /**
+     * Ends the parse on the thread that started it, and commits its JFR event.
+     * @param records records parsed
+     * @param errors record errors and fatal errors
+     */
+    public ParseMetrics finish(long records, long errors) {
+        if (metrics != null) {
+            return metrics;
+        }
+        pauseAllocations();
+        long allocatedBytes = THREADS == null ? -1 : allocated;
+        long elapsed = System.nanoTime() - start;
+        long sampled = 0;
+        for (long nanos : sampledNanos) {
+            sampled += nanos;
+        }
+        double scale = Math.min(1, Math.max(0, elapsed - measuredNanos) / (double) Math.max(1, sampled));
+        Map<Stage, Duration> times = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            long nanos = stageNanos[stage.ordinal()] + (long) (sampledNanos[stage.ordinal()] * scale);
+            if (nanos > 0) {
+                times.put(stage, Duration.ofNanos(nanos));
+            }
+        }
+        metrics = new ParseMetrics(bytesRead, records + errors, Duration.ofNanos(elapsed),
+            times, allocatedBytes, batchLatency);
+        if (fileEvent != null && fileEvent.shouldCommit()) {
+            fileEvent.bytesRead = bytesRead;
+            fileEvent.records = records;
+            fileEvent.errors = errors;
+            fileEvent.allocatedBytes = allocatedBytes;
+            fileEvent.commit();
+        }
+        if (chunkEvent != null && chunkEvent.shouldCommit()) {
+            chunkEvent.records = records;
+            chunkEvent.errors = errors;
+            chunkEvent.allocatedBytes = allocatedBytes;
+            chunkEvent.commit();
+        }
+        return metrics;
+    }
+
+    /**
+     * The metrics of a finished recorder.
+     * @throws IllegalStateException if {@link #finish} has not been called
+     */
+    public ParseMetrics metrics() {
+        if (metrics == null) {
+            throw new IllegalStateException("Recorder is not finished");
+        }
+        return metrics;
+    }
+
+    private static long allocatedByThisThread() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        } catch (RuntimeException | LinkageError e) {
+            // Not a HotSpot-like JVM, or the management module is missing
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package org.infy.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Where the time and memory of one parse went.
+ * <p>
+ * Tokenize and bind times are estimated from a sample of the records, so they add up to
+ * less than {@code elapsed}, which also covers I/O waits and everything between records;
+ * on parallel parses they add up the time of all threads and can exceed it. Allocation is
+ * counted per thread, so it is the parse's own and not heap-wide; it is -1 if the JVM does
+ * not measure it.
+ * @param bytesRead bytes of input read, or 0 if unknown
+ * @param records records and record errors parsed
+ * @param elapsed wall time of the parse
+ * @param stageTimes time per stage; stages that did not take part are absent
+ * @param allocatedBytes bytes allocated by the threads that parsed
+ * @param batchLatency time taken by each batch of records, of the configured batch size
+ */
+public record ParseMetrics(
+    long bytesRead,
+    long records,
+    Duration elapsed,
+    Map<Stage, Duration> stageTimes,
+    long allocatedBytes,
+    LatencyHistogram batchLatency
+) {
+    public static final ParseMetrics NONE =
+        new ParseMetrics(0, 0, Duration.ZERO, Map.of(), -1, new LatencyHistogram());
+
+    public ParseMetrics {
+        Map<Stage, Duration> times = new EnumMap<>(Stage.class);
+        times.putAll(stageTimes);
+        stageTimes = Collections.unmodifiableMap(times);
+        batchLatency = batchLatency.copy();
+    }
+
+    public Duration stageTime(Stage stage) {
+        return stageTimes.getOrDefault(stage, Duration.ZERO);
+    }
+
+    public double recordsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : records * 1_000_000_000.0 / nanos;
+    }
+
+    public double bytesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : bytesRead * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * These metrics with {@code time} added to {@code stage}, for work done around the
+     * parse such as writing its records.
+     */
+    public ParseMetrics withStageTime(Stage stage, Duration time) {
+        Map<Stage, Duration> times = new EnumMap<>(Stage.class);
+        times.putAll(stageTimes);
+        times.merge(stage, time, Duration::plus);
+        return new ParseMetrics(bytesRead, records, elapsed, times, allocatedBytes, batchLatency);
+    }
+
+    /**
+     * The metrics of parses that ran side by side in {@code elapsed}: bytes, records, stage
+     * times, allocations and batch latencies are summed.
+     */
+    public static ParseMetrics combine(Iterable<ParseMetrics> parts, Duration elapsed) {
+        long bytes = 0;
+        long records = 0;
+        long allocated = 0;
+        Map<Stage, Duration> times = new EnumMap<>(Stage.class);
+        LatencyHistogram latency = new LatencyHistogram();
+        for (ParseMetrics part : parts) {
+            bytes += part.bytesRead;
+            records += part.records;
+            if (allocated >= 0) {
+                allocated = part.allocatedBytes < 0 ? -1 : allocated + part.allocatedBytes;
+            }
+            part.stageTimes.forEach((stage, time) -> times.merge(stage, time, Duration::plus));
+            latency.merge(part.batchLatency);
+        }
+        return new ParseMetrics(bytes, records, elapsed, times, allocated, latency);
+    }
+}
@@ -0,0 +1,17 @@
+package org.infy.metrics;
+
+/**
+ * The parts of a parse that {@link ParseMetrics} times separately.
+ */
+public enum Stage {
+    /** Passes over the raw bytes before records are parsed, such as building a chunk index */
+    READ,
+    /** Splitting the input into records and fields, or into parser events */
+    TOKENIZE,
+    /** Turning the fields or events of a record into the target object */
+    BIND,
+    /** Checking records against a validator */
+    VALIDATE,
+    /** Encoding records to an output, or handing them to a sink */
+    WRITE
+}
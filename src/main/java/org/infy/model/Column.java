@@ -0,0 +1,186 @@
+package org.infy.model;
+
+/**
+ * One column of a {@link ColumnarTable}. Numeric columns are stored in primitive arrays,
+ * strings either as plain values or dictionary-encoded. Blank values are tracked in a null
+ * bitmap rather than stored.
+ */
+public abstract sealed class Column
+    permits Column.IntColumn, Column.LongColumn, Column.DoubleColumn, Column.StringColumn, Column.DictionaryColumn {
+    private final String name;
+    private final int size;
+    private final long[] nulls;
+
+    Column(String name, int size, long[] nulls) {
+        this.name = name;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        checkRow(row);
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public int nullCount() {
+        int count = 0;
+        for (long word : nulls) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public abstract ColumnType type();
+
+    /**
+     * The value as text, or null if it was blank.
+     */
+    public abstract String getString(int row);
+
+    void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range for " + size + " rows");
+        }
+    }
+
+    public static final class IntColumn extends Column {
+        private final int[] values;
+
+        public IntColumn(String name, int size, int[] values, long[] nulls) {
+            super(name, size, nulls);
+            this.values = values;
+        }
+
+        /**
+         * The value of the row, or 0 if it was blank.
+         */
+        public int getInt(int row) {
+            checkRow(row);
+            return values[row];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.INT;
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : Integer.toString(values[row]);
+        }
+    }
+
+    public static final class LongColumn extends Column {
+        private final long[] values;
+
+        public LongColumn(String name, int size, long[] values, long[] nulls) {
+            super(name, size, nulls);
+            this.values = values;
+        }
+
+        public long getLong(int row) {
+            checkRow(row);
+            return values[row];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.LONG;
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : Long.toString(values[row]);
+        }
+    }
+
+    public static final class DoubleColumn extends Column {
+        private final double[] values;
+
+        public DoubleColumn(String name, int size, double[] values, long[] nulls) {
+            super(name, size, nulls);
+            this.values = values;
+        }
+
+        public double getDouble(int row) {
+            checkRow(row);
+            return values[row];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.DOUBLE;
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : Double.toString(values[row]);
+        }
+    }
+
+    public static final class StringColumn extends Column {
+        private final String[] values;
+
+        public StringColumn(String name, int size, String[] values, long[] nulls) {
+            super(name, size, nulls);
+            this.values = values;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    /**
+     * String column for low-cardinality values: each row holds a code into a shared dictionary.
+     */
+    public static final class DictionaryColumn extends Column {
+        private final String[] dictionary;
+        private final int[] codes;
+
+        public DictionaryColumn(String name, int size, String[] dictionary, int[] codes, long[] nulls) {
+            super(name, size, nulls);
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        /**
+         * The dictionary code of the row, or -1 if it was blank.
+         */
+        public int getCode(int row) {
+            return isNull(row) ? -1 : codes[row];
+        }
+
+        public int dictionarySize() {
+            return dictionary.length;
+        }
+
+        public String dictionaryValue(int code) {
+            return dictionary[code];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        public String getString(int row) {
+            return isNull(row) ? null : dictionary[codes[row]];
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.infy.model;
+
+public enum ColumnType {
+    INT,
+    LONG,
+    DOUBLE,
+    STRING
+}
@@ -0,0 +1,9 @@
+package org.infy.model;
+
+import java.util.List;
+
+public record ColumnarParseResult(
+    ColumnarTable table,
+    List<ParseError> errors,
+    ParsingStats stats
+) {}
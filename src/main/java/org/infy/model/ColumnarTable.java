@@ -0,0 +1,62 @@
+package org.infy.model;
+
+import java.util.List;
+
+/**
+ * Column-oriented view of a parsed CSV file: one typed {@link Column} per header column.
+ */
+public final class ColumnarTable {
+    private final CsvHeader header;
+    private final Column[] columns;
+    private final int rowCount;
+
+    public ColumnarTable(CsvHeader header, Column[] columns, int rowCount) {
+        if (columns.length != header.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + header.size() + " columns but got " + columns.length);
+        }
+        this.header = header;
+        this.columns = columns.clone();
+        this.rowCount = rowCount;
+    }
+
+    public CsvHeader header() {
+        return header;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    public Column column(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @return the column with the given name, or null if there is none
+     */
+    public Column column(String name) {
+        int index = header.indexOf(name);
+        return index < 0 ? null : columns[index];
+    }
+
+    public List<Column> columns() {
+        return List.of(columns);
+    }
+
+    /**
+     * Materializes one row as a {@link CsvRecord}; blank values become empty strings.
+     */
+    public CsvRecord row(int row) {
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String value = columns[i].getString(row);
+            values[i] = value == null ? "" : value;
+        }
+        return new CsvRecord(header, values);
+    }
+}
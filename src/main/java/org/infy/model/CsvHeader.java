@@ -0,0 +1,108 @@
+package org.infy.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable column index of a CSV file, shared by all {@link CsvRecord}s parsed from it.
+ * <p>
+ * Column names are resolved to positions once per file instead of once per row. When a
+ * name appears more than once the last column wins, as it did with one {@code HashMap}
+ * per row.
+ */
+public final class CsvHeader {
+    // Widths of widened headers kept; a corrupt file may have rows of any number of widths
+    private static final int MAX_WIDENED = 16;
+
+    private final String[] names;
+    private final Map<String, Integer> index;
+    private final int[] mapColumns;
+    private final Map<Integer, CsvHeader> widened = new ConcurrentHashMap<>();
+
+    private CsvHeader(String[] names) {
+        this.names = names;
+        this.index = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+        int[] columns = new int[index.size()];
+        int n = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (index.get(names[i]) == i) {
+                columns[n++] = i;
+            }
+        }
+        this.mapColumns = columns;
+    }
+
+    public static CsvHeader of(String... names) {
+        return new CsvHeader(names.clone());
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int column) {
+        return names[column];
+    }
+
+    /**
+     * @return the column position of {@code name}, or -1 if there is no such column
+     */
+    public int indexOf(String name) {
+        Integer column = index.get(name);
+        return column == null ? -1 : column;
+    }
+
+    public List<String> names() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Number of distinct column names, i.e. the size of a record's {@code Map} view.
+     */
+    int mapSize() {
+        return mapColumns.length;
+    }
+
+    int mapColumn(int entry) {
+        return mapColumns[entry];
+    }
+
+    /**
+     * Header for rows with more values than named columns. Extra columns are named
+     * {@code Column<n>}. The widened headers of the first few widths are cached so malformed
+     * rows share them; rows of other widths get a header of their own.
+     */
+    public CsvHeader widen(int columns) {
+        if (columns <= names.length) {
+            return this;
+        }
+        CsvHeader header = widened.get(columns);
+        if (header != null) {
+            return header;
+        }
+        if (widened.size() >= MAX_WIDENED) {
+            return extend(columns);
+        }
+        return widened.computeIfAbsent(columns, this::extend);
+    }
+
+    private CsvHeader extend(int width) {
+        String[] extended = Arrays.copyOf(names, width);
+        for (int i = names.length; i < width; i++) {
+            extended[i] = "Column" + (i + 1);
+        }
+        return new CsvHeader(extended);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names);
+    }
+}
@@ -0,0 +1,88 @@
+package org.infy.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A CSV row stored as a flat value array against a shared {@link CsvHeader}.
+ * <p>
+ * Values can be read by position or by column name in constant time. The record is also
+ * a read-only {@code Map<String, String>}, so callers written against the map-per-row
+ * representation keep working without the per-row hash table.
+ */
+public final class CsvRecord extends AbstractMap<String, String> {
+    private final CsvHeader header;
+    private final String[] values;
+
+    public CsvRecord(CsvHeader header, String[] values) {
+        if (values.length != header.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + header.size() + " values but got " + values.length);
+        }
+        this.header = header;
+        this.values = values;
+    }
+
+    public CsvHeader header() {
+        return header;
+    }
+
+    public String get(int column) {
+        return values[column];
+    }
+
+    public int columnCount() {
+        return values.length;
+    }
+
+    @Override
+    public String get(Object key) {
+        int column = key instanceof String name ? header.indexOf(name) : -1;
+        return column < 0 ? null : values[column];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String name && header.indexOf(name) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return header.mapSize();
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int entry;
+
+                    @Override
+                    public boolean hasNext() {
+                        return entry < header.mapSize();
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int column = header.mapColumn(entry++);
+                        return new SimpleImmutableEntry<>(header.name(column), values[column]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return header.mapSize();
+            }
+        };
+    }
+}
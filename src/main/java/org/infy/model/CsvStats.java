@@ -1,28 +1,49 @@
 package org.infy.model;
 
+import org.infy.stats.ColumnStatistics;
+import org.infy.stats.TableStatistics;
+
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public record CsvStats(
     int totalRows,
     int totalColumns,
     Map<String, Integer> blankFieldCounts,
-    Map<String, Double> blankFieldPercentages
+    Map<String, Double> blankFieldPercentages,
+    List<ColumnStatistics> columnStatistics
 ) {
     public CsvStats {
         blankFieldCounts = new HashMap<>(blankFieldCounts);
         blankFieldPercentages = new HashMap<>(blankFieldPercentages);
+        columnStatistics = List.copyOf(columnStatistics);
     }
 
     public static CsvStats create(int rows, int cols, Map<String, Integer> blanks) {
+        return new CsvStats(rows, cols, blanks, percentages(rows, blanks), List.of());
+    }
+
+    /**
+     * Blank counts and percentages taken from the per-column statistics of the parsed records.
+     */
+    public static CsvStats create(int rows, TableStatistics statistics) {
+        List<ColumnStatistics> columns = statistics.columns();
+        Map<String, Integer> blanks = new LinkedHashMap<>();
+        columns.forEach(column -> blanks.put(column.name(), (int) column.blankCount()));
+        return new CsvStats(rows, columns.size(), blanks, percentages(rows, blanks), columns);
+    }
+
+    private static Map<String, Double> percentages(int rows, Map<String, Integer> blanks) {
         Map<String, Double> percentages = new HashMap<>();
-        blanks.forEach((field, count) -> 
+        blanks.forEach((field, count) ->
             percentages.put(field, calculatePercentage(count, rows))
         );
-        return new CsvStats(rows, cols, blanks, percentages);
+        return percentages;
     }
 
     private static double calculatePercentage(int count, int total) {
         return total == 0 ? 0 : (count * 100.0) / total;
     }
-} 
\ No newline at end of file
+}
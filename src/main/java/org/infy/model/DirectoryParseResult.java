@@ -0,0 +1,12 @@
+package org.infy.model;
+
+import java.util.List;
+
+/**
+ * Results of parsing the files of a directory, in the order they finished, with statistics
+ * summed over all files; the processing time is the wall time of the whole directory.
+ */
+public record DirectoryParseResult<T>(
+    List<FileParseResult<T>> files,
+    ParsingStats stats
+) {}
@@ -0,0 +1,52 @@
+package org.infy.model;
+
+/**
+ * How many parse errors a parse keeps, and when it gives up on a bad input.
+ * <p>
+ * The first {@code maxErrors} errors are kept in full. Beyond them errors are still counted
+ * by type in {@link ParsingStats#errorCounts()}, and a uniform sample of {@code sampleSize}
+ * of them is kept besides. Once at least {@code minRecords} records have been read and more
+ * than {@code maxErrorRate} of them failed, the parse stops and ends with a FATAL error; a
+ * parallel parse applies the rate to every chunk on its own.
+ * <p>
+ * {@code parseBatches} hands the first {@code maxErrors} errors to its consumer and only
+ * counts the rest, since a stream cannot be sampled uniformly before it ends.
+ */
+public record ErrorPolicy(
+    int maxErrors,
+    int sampleSize,
+    double maxErrorRate,
+    long minRecords
+) {
+    /**
+     * Keeps the first thousand errors and a hundred more sampled from the rest, and never
+     * stops early.
+     */
+    public static final ErrorPolicy DEFAULT = new ErrorPolicy(1000, 100, 1.0, 0);
+
+    /**
+     * Keeps every error, as parsers did before error policies.
+     */
+    public static final ErrorPolicy UNBOUNDED = new ErrorPolicy(Integer.MAX_VALUE, 0, 1.0, 0);
+
+    public ErrorPolicy {
+        if (maxErrors < 0 || sampleSize < 0 || minRecords < 0) {
+            throw new IllegalArgumentException("Error limits must not be negative");
+        }
+        if (!(maxErrorRate >= 0 && maxErrorRate <= 1)) {
+            throw new IllegalArgumentException("maxErrorRate must be between 0 and 1");
+        }
+    }
+
+    /**
+     * This policy, stopping once more than {@code rate} of at least {@code minRecords}
+     * records failed.
+     */
+    public ErrorPolicy failingAbove(double rate, long minRecords) {
+        return new ErrorPolicy(maxErrors, sampleSize, rate, minRecords);
+    }
+
+    public boolean limitsRate() {
+        return maxErrorRate < 1;
+    }
+}
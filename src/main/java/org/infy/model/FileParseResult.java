@@ -0,0 +1,17 @@
+package org.infy.model;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of parsing one file of a directory: its result, or the exception that stopped it
+ * from being parsed at all (an unsupported extension or an unreadable file).
+ */
+public record FileParseResult<T>(
+    Path file,
+    ParseResult<T> result,
+    Exception failure
+) {
+    public boolean succeeded() {
+        return failure == null;
+    }
+}
@@ -1,9 +1,33 @@
 package org.infy.model;
 
+/**
+ * @param rawContent the text of the failed record, or null if it was not captured
+ * @param offset byte offset of the failed record in the input, or -1 if unknown, so the
+ *               record can be read again from a file
+ * @param length byte length of the failed record, or 0 if unknown
+ */
 public record ParseError(
     String message,
     int lineNumber,
     String rawContent,
     ErrorSeverity severity,
-    Exception cause
-) {} 
\ No newline at end of file
+    Exception cause,
+    long offset,
+    int length
+) {
+    public ParseError(String message, int lineNumber, String rawContent, ErrorSeverity severity, Exception cause) {
+        this(message, lineNumber, rawContent, severity, cause, -1, 0);
+    }
+
+    /**
+     * What kind of error this is, for counting: the class of the cause, or the message if
+     * there is none.
+     */
+    public String type() {
+        return type(message, cause);
+    }
+
+    public static String type(String message, Exception cause) {
+        return cause != null ? cause.getClass().getName() : String.valueOf(message);
+    }
+}
@@ -1,12 +1,74 @@
 package org.infy.model;
 
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+/**
+ * @param errorPolicy how many errors to keep and when to give up; {@link ErrorPolicy#DEFAULT}
+ *                    unless given
+ * @param projection the fields to read, or null for all of them: CSV columns, top-level JSON
+ *                   properties, or child elements of the XML record element and {@code @name}
+ *                   for its attributes. Other fields are skipped without being decoded, and
+ *                   records, statistics and validation only see the projected ones.
+ */
 public record ParserConfig(
     int batchSize,
     boolean validateSchema,
     Charset encoding,
     boolean skipEmptyLines,
-    Map<String, String> customOptions
-) {} 
\ No newline at end of file
+    Map<String, String> customOptions,
+    ErrorPolicy errorPolicy,
+    Set<String> projection
+) {
+    public ParserConfig {
+        if (errorPolicy == null) {
+            errorPolicy = ErrorPolicy.DEFAULT;
+        }
+        if (customOptions != null) {
+            // Sorted, so snapshot keys match across runs; Map.of iterates in a different order in each JVM
+            SortedMap<String, String> sorted = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+            sorted.putAll(customOptions);
+            customOptions = Collections.unmodifiableSortedMap(sorted);
+        }
+        if (projection != null) {
+            // Sorted, so the config's text, which keys snapshots, does not depend on the order given
+            projection = Collections.unmodifiableSortedSet(new TreeSet<>(projection));
+        }
+    }
+
+    public ParserConfig(int batchSize, boolean validateSchema, Charset encoding, boolean skipEmptyLines,
+                        Map<String, String> customOptions) {
+        this(batchSize, validateSchema, encoding, skipEmptyLines, customOptions, ErrorPolicy.DEFAULT, null);
+    }
+
+    public ParserConfig(int batchSize, boolean validateSchema, Charset encoding, boolean skipEmptyLines,
+                        Map<String, String> customOptions, ErrorPolicy errorPolicy) {
+        this(batchSize, validateSchema, encoding, skipEmptyLines, customOptions, errorPolicy, null);
+    }
+
+    public ParserConfig withErrorPolicy(ErrorPolicy errorPolicy) {
+        return new ParserConfig(batchSize, validateSchema, encoding, skipEmptyLines, customOptions, errorPolicy,
+            projection);
+    }
+
+    /**
+     * @param projection the fields to read, or null for all of them
+     */
+    public ParserConfig withProjection(Set<String> projection) {
+        return new ParserConfig(batchSize, validateSchema, encoding, skipEmptyLines, customOptions, errorPolicy,
+            projection);
+    }
+
+    /**
+     * Whether {@code field} is read: it is projected, or there is no projection.
+     */
+    public boolean reads(String field) {
+        return projection == null || projection.contains(field);
+    }
+}
@@ -1,11 +1,44 @@
 package org.infy.model;
 
+import org.infy.metrics.ParseMetrics;
+
 import java.time.Duration;
+import java.util.Map;
 
+/**
+ * Counts and timing of one parse.
+ * @param memoryUsed heap in use across the JVM when the parse ended; see
+ *                   {@link ParseMetrics#allocatedBytes()} for what the parse itself allocated
+ * @param metrics stage times, throughput, allocation and batch latencies, or
+ *                {@link ParseMetrics#NONE} if the parse was not instrumented
+ * @param errorCounts record errors by {@link ParseError#type()}, exact even when the
+ *                    {@link ErrorPolicy} kept only some of the errors
+ */
 public record ParsingStats(
     long totalRecords,
     long validRecords,
     long invalidRecords,
     Duration processingTime,
-    long memoryUsed
-) {} 
\ No newline at end of file
+    long memoryUsed,
+    ParseMetrics metrics,
+    Map<String, Long> errorCounts
+) {
+    public ParsingStats {
+        errorCounts = errorCounts == null ? Map.of() : Map.copyOf(errorCounts);
+    }
+
+    public ParsingStats(long totalRecords, long validRecords, long invalidRecords, Duration processingTime,
+                        long memoryUsed) {
+        this(totalRecords, validRecords, invalidRecords, processingTime, memoryUsed, ParseMetrics.NONE, Map.of());
+    }
+
+    public ParsingStats(long totalRecords, long validRecords, long invalidRecords, Duration processingTime,
+                        long memoryUsed, ParseMetrics metrics) {
+        this(totalRecords, validRecords, invalidRecords, processingTime, memoryUsed, metrics, Map.of());
+    }
+
+    public ParsingStats withMetrics(ParseMetrics metrics) {
+        return new ParsingStats(totalRecords, validRecords, invalidRecords, processingTime, memoryUsed, metrics,
+            errorCounts);
+    }
+}
@@ -0,0 +1,14 @@
+package org.infy.model;
+
+import java.util.List;
+
+/**
+ * One batch of records delivered by {@code DataParser.parseBatches}, together with the errors
+ * found while reading it. The lists are reused for the next batch, so a consumer must copy
+ * anything it keeps after returning.
+ */
+public record RecordBatch<T>(
+    long batchNumber,
+    List<T> records,
+    List<ParseError> errors
+) {}
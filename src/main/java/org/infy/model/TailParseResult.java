@@ -0,0 +1,16 @@
+package org.infy.model;
+
+/**
+ * Outcome of parsing the data appended to a file since the previous run: the records and
+ * errors of the new data only, with statistics for everything parsed so far.
+ * @param delta records, errors and statistics of this run
+ * @param cumulative record counts over this and all earlier runs
+ * @param csvStats row and column statistics over all runs, or null for formats without columns
+ * @param offset byte offset at which the next run will start
+ */
+public record TailParseResult<T>(
+    ParseResult<T> delta,
+    ParsingStats cumulative,
+    CsvStats csvStats,
+    long offset
+) {}
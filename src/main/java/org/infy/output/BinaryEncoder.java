@@ -0,0 +1,59 @@
+package org.infy.output;
+
+import java.io.IOException;
+
+/**
+ * A compact binary encoding of records with flat fields.
+ * <p>
+ * The file starts with the magic bytes {@code DPB1}, the field count and the field names.
+ * Records follow until the end of the file, each as one tagged value per field: a tag byte,
+ * then a varint byte length and UTF-8 bytes for strings, a zigzag varint for integers, eight
+ * big-endian bytes for doubles, and nothing for null and booleans. Integers of a few digits
+ * take a byte or two instead of their decimal text, and no field names or separators are
+ * repeated per record.
+ */
+final class BinaryEncoder implements RecordEncoder {
+    static final byte[] MAGIC = {'D', 'P', 'B', '1'};
+    static final int NULL = 0;
+    static final int STRING = 1;
+    static final int INTEGER = 2;
+    static final int DOUBLE = 3;
+    static final int TRUE = 4;
+    static final int FALSE = 5;
+
+    private RecordFields fields;
+    private Object[] values;
+
+    @Override
+    public void start(Object firstRecord, OutputBuffer out) throws IOException {
+        fields = RecordFields.of(firstRecord);
+        values = new Object[fields.size()];
+        out.write(MAGIC);
+        out.writeVarLong(fields.size());
+        for (String name : fields.names()) {
+            out.writeString(name);
+        }
+    }
+
+    @Override
+    public void encode(Object record, OutputBuffer out) throws IOException {
+        fields.read(record, values);
+        for (Object value : values) {
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                out.write(INTEGER);
+                out.writeVarSignedLong(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                out.write(DOUBLE);
+                out.writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean bool) {
+                out.write(bool ? TRUE : FALSE);
+            } else {
+                out.write(STRING);
+                out.writeString(value.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.infy.output;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the binary format of {@link OutputFormat#BINARY} from a buffer, such as a mapped
+ * file. Reads are absolute, so several readers may share one buffer; a reader itself is not
+ * thread-safe.
+ */
+public final class BinaryReader {
+    private final ByteBuffer buffer;
+    private int position;
+
+    public BinaryReader(ByteBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public void position(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Reads the magic bytes and the field names.
+     * @throws IllegalArgumentException if the buffer does not hold the binary format here
+     */
+    public String[] readHeader() {
+        byte[] magic = new byte[BinaryEncoder.MAGIC.length];
+        buffer.get(position, magic);
+        if (!Arrays.equals(magic, BinaryEncoder.MAGIC)) {
+            throw new IllegalArgumentException("Not a binary record file at offset " + position);
+        }
+        position += magic.length;
+        String[] names = new String[(int) readVarLong()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = readString();
+        }
+        return names;
+    }
+
+    /**
+     * Reads one record: a Long, Double, Boolean, String or null per field.
+     */
+    public void readRecord(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            int tag = buffer.get(position++);
+            values[i] = switch (tag) {
+                case BinaryEncoder.NULL -> null;
+                case BinaryEncoder.STRING -> readString();
+                case BinaryEncoder.INTEGER -> readVarSignedLong();
+                case BinaryEncoder.DOUBLE -> Double.longBitsToDouble(readLong());
+                case BinaryEncoder.TRUE -> Boolean.TRUE;
+                case BinaryEncoder.FALSE -> Boolean.FALSE;
+                default -> throw new IllegalArgumentException("Unknown value tag " + tag + " at offset " + (position - 1));
+            };
+        }
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        byte b;
+        do {
+            b = buffer.get(position++);
+            value = (value << 7) | (b & 0x7F);
+        } while (b < 0);
+        return value;
+    }
+
+    public long readVarSignedLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() {
+        long value = buffer.getLong(position);
+        position += 8;
+        return value;
+    }
+
+    public int readInt() {
+        int value = buffer.getInt(position);
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Reads a varint byte length followed by that many bytes of UTF-8.
+     */
+    public String readString() {
+        byte[] bytes = new byte[(int) readVarLong()];
+        buffer.get(position, bytes);
+        position += bytes.length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package org.infy.output;
+
+import java.io.IOException;
+
+/**
+ * Writes records as RFC 4180 CSV: a header row, then one row per record. Fields containing
+ * a comma, quote or line break are quoted; null values are empty.
+ */
+final class CsvEncoder implements RecordEncoder {
+    private RecordFields fields;
+    private Object[] values;
+
+    @Override
+    public void start(Object firstRecord, OutputBuffer out) throws IOException {
+        fields = RecordFields.of(firstRecord);
+        values = new Object[fields.size()];
+        writeRow(fields.names(), out);
+    }
+
+    @Override
+    public void encode(Object record, OutputBuffer out) throws IOException {
+        fields.read(record, values);
+        writeRow(values, out);
+    }
+
+    private static void writeRow(Object[] row, OutputBuffer out) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (row[i] != null) {
+                writeField(row[i].toString(), out);
+            }
+        }
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private static void writeField(String field, OutputBuffer out) throws IOException {
+        if (!needsQuotes(field)) {
+            out.writeUtf8(field);
+            return;
+        }
+        out.write('"');
+        int from = 0;
+        for (int quote = field.indexOf('"'); quote >= 0; quote = field.indexOf('"', from)) {
+            out.writeUtf8(field.substring(from, quote + 1));
+            out.write('"');
+            from = quote + 1;
+        }
+        out.writeUtf8(from == 0 ? field : field.substring(from));
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
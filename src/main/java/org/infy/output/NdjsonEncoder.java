@@ -0,0 +1,37 @@
+package org.infy.output;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+
+/**
+ * Writes one JSON value per line through a single Jackson generator, which buffers into the
+ * {@link OutputBuffer} instead of creating a string per record.
+ */
+final class NdjsonEncoder implements RecordEncoder {
+    // Flushing after every value would write the buffer once per record
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private JsonGenerator generator;
+
+    @Override
+    public void start(Object firstRecord, OutputBuffer out) throws IOException {
+        generator = MAPPER.getFactory().createGenerator(out);
+        // Separate values by line breaks rather than the default space
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void encode(Object record, OutputBuffer out) throws IOException {
+        MAPPER.writeValue(generator, record);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish(OutputBuffer out) throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,173 @@
+package org.infy.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A large reusable byte buffer in front of a channel, which {@link RecordEncoder}s write
+ * into. The buffer goes to the channel only when it is full or flushed, so records are
+ * written in a few large writes instead of one per record.
+ * <p>
+ * Besides raw bytes it writes UTF-8 text without an intermediate byte array for ASCII, and
+ * the numbers of the binary format: variable-length integers and fixed-width integers and
+ * doubles, all big-endian. Not thread-safe; a {@link ResultWriter} keeps one on its writer
+ * thread.
+ */
+public final class OutputBuffer extends OutputStream {
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view;
+    private int position;
+    private long bytesWritten;
+
+    public OutputBuffer(WritableByteChannel channel, int capacity) {
+        if (capacity < 16) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 16 bytes");
+        }
+        this.channel = channel;
+        this.buffer = new byte[capacity];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Bytes written so far, including those still in the buffer.
+     */
+    public long bytesWritten() {
+        return bytesWritten + position;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int n = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, n);
+            position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Writes {@code text} as UTF-8; ASCII characters are copied straight into the buffer.
+     */
+    public void writeUtf8(CharSequence text) throws IOException {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int end = Math.min(length, i + buffer.length - position);
+            char c;
+            while (i < end && (c = text.charAt(i)) < 0x80) {
+                buffer[position++] = (byte) c;
+                i++;
+            }
+            if (i < end) {
+                // Encode the rest from the first non-ASCII character in one go
+                byte[] bytes = text.subSequence(i, length).toString().getBytes(StandardCharsets.UTF_8);
+                write(bytes, 0, bytes.length);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a varint byte length followed by the UTF-8 bytes of {@code text}, as
+     * {@link BinaryReader#readString()} reads it.
+     */
+    public void writeString(String text) throws IOException {
+        int length = text.length();
+        int ascii = 0;
+        while (ascii < length && text.charAt(ascii) < 0x80) {
+            ascii++;
+        }
+        if (ascii == length) {
+            writeVarLong(length);
+            writeUtf8(text);
+        } else {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            write(bytes);
+        }
+    }
+
+    /**
+     * Writes an unsigned variable-length integer: seven bits per byte, most significant group
+     * first, with the high bit set on every byte but the last.
+     */
+    public void writeVarLong(long value) throws IOException {
+        if (buffer.length - position < 10) {
+            drain();
+        }
+        int groups = 1;
+        for (long rest = value >>> 7; rest != 0; rest >>>= 7) {
+            groups++;
+        }
+        for (int group = groups - 1; group > 0; group--) {
+            buffer[position++] = (byte) (0x80 | (value >>> (7 * group)) & 0x7F);
+        }
+        buffer[position++] = (byte) (value & 0x7F);
+    }
+
+    /**
+     * Writes a signed variable-length integer, zigzag-encoded so small negative values stay
+     * short.
+     */
+    public void writeVarSignedLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (buffer.length - position < 8) {
+            drain();
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeInt(int value) throws IOException {
+        if (buffer.length - position < 4) {
+            drain();
+        }
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        view.clear().limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        bytesWritten += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package org.infy.output;
+
+import java.util.function.Supplier;
+
+/**
+ * The built-in encodings of a {@link ResultWriter}.
+ */
+public enum OutputFormat {
+    /** One {@code toString()} per line. */
+    TEXT("txt", TextEncoder::new),
+    /** RFC 4180 CSV with a header row of the record's fields. */
+    CSV("csv", CsvEncoder::new),
+    /** One JSON object per line. */
+    NDJSON("ndjson", NdjsonEncoder::new),
+    /** The compact binary format of {@link BinaryEncoder}. */
+    BINARY("bin", BinaryEncoder::new);
+
+    private final String extension;
+    private final Supplier<RecordEncoder> encoders;
+
+    OutputFormat(String extension, Supplier<RecordEncoder> encoders) {
+        this.extension = extension;
+        this.encoders = encoders;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public RecordEncoder newEncoder() {
+        return encoders.get();
+    }
+}
@@ -0,0 +1,11 @@
+package org.infy.output;
+
+import org.infy.model.ParsingStats;
+
+/**
+ * Outcome of parsing a file straight into an output file.
+ */
+public record OutputStats(
+    ParsingStats parsing,
+    WriteStats writing
+) {}
@@ -0,0 +1,23 @@
+package org.infy.output;
+
+import java.io.IOException;
+
+/**
+ * Turns records into bytes for a {@link ResultWriter}. An encoder is used by one writer, on
+ * its writer thread, so it may keep state such as the columns taken from the first record.
+ */
+public interface RecordEncoder {
+    /**
+     * Called once before the first record, for example to write a header.
+     */
+    default void start(Object firstRecord, OutputBuffer out) throws IOException {
+    }
+
+    void encode(Object record, OutputBuffer out) throws IOException;
+
+    /**
+     * Called once after the last record, if {@link #start} was called.
+     */
+    default void finish(OutputBuffer out) throws IOException {
+    }
+}
@@ -0,0 +1,117 @@
+package org.infy.output;
+
+import org.infy.binding.RecordBinder;
+import org.infy.model.CsvHeader;
+import org.infy.model.CsvRecord;
+
+import java.util.Map;
+
+/**
+ * Flat field names and values of records of one shape, for encodings with columns. The
+ * shape is taken from the first record: a {@link CsvRecord} has the columns of its header, a
+ * map the keys of the first record, a Java record its components, and anything else is a
+ * single {@code value} field.
+ */
+abstract class RecordFields {
+    private final String[] names;
+
+    private RecordFields(String[] names) {
+        this.names = names;
+    }
+
+    static RecordFields of(Object first) {
+        if (first instanceof CsvRecord csv) {
+            return new CsvFields(csv.header());
+        }
+        if (first instanceof Map<?, ?> map) {
+            return new MapFields(map.keySet().stream().map(String::valueOf).toArray(String[]::new));
+        }
+        if (first != null && first.getClass().isRecord()) {
+            return new RecordComponents(RecordBinder.of(first.getClass()));
+        }
+        return new RecordFields(new String[] {"value"}) {
+            @Override
+            void read(Object record, Object[] values) {
+                values[0] = record;
+            }
+        };
+    }
+
+    String[] names() {
+        return names;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Reads the values of {@code record} into {@code values}, in the order of {@link #names()}.
+     */
+    abstract void read(Object record, Object[] values);
+
+    private static final class CsvFields extends RecordFields {
+        private final CsvHeader header;
+
+        CsvFields(CsvHeader header) {
+            super(header.names().toArray(String[]::new));
+            this.header = header;
+        }
+
+        @Override
+        void read(Object record, Object[] values) {
+            CsvRecord csv = (CsvRecord) record;
+            if (csv.header() == header) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = csv.get(i);
+                }
+            } else {
+                // A row of a different width gets its own widened header; match it by name
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = csv.get(names()[i]);
+                }
+            }
+        }
+    }
+
+    private static final class MapFields extends RecordFields {
+        MapFields(String[] names) {
+            super(names);
+        }
+
+        @Override
+        void read(Object record, Object[] values) {
+            Map<?, ?> map = (Map<?, ?>) record;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = map.get(names()[i]);
+            }
+        }
+    }
+
+    private static final class RecordComponents extends RecordFields {
+        private final RecordBinder<Object> binder;
+
+        @SuppressWarnings("unchecked")
+        RecordComponents(RecordBinder<?> binder) {
+            super(componentNames(binder));
+            this.binder = (RecordBinder<Object>) binder;
+        }
+
+        @Override
+        void read(Object record, Object[] values) {
+            if (record.getClass() != binder.type()) {
+                throw new IllegalArgumentException("Cannot write a " + record.getClass().getName()
+                    + " after records of type " + binder.type().getName());
+            }
+            binder.read(record, values);
+        }
+
+        private static String[] componentNames(RecordBinder<?> binder) {
+            String[] names = new String[binder.componentCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = binder.componentName(i);
+            }
+            return names;
+        }
+    }
+}
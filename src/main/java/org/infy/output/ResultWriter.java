@@ -0,0 +1,253 @@
+package org.infy.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Writes records to a file on a dedicated writer thread while the caller keeps parsing.
+ * <p>
+ * Records are handed over in batches through a bounded queue, so a slow disk blocks the
+ * caller instead of letting batches pile up. The writer thread encodes them with a
+ * {@link RecordEncoder} into one large {@link OutputBuffer}, which goes to the file only when
+ * it is full. Being a {@code Consumer}, a writer can be the sink of a
+ * {@link org.infy.pipeline.Pipeline}.
+ * <pre>{@code
+ * try (ResultWriter<Person> writer = ResultWriter.open(output, OutputFormat.NDJSON)) {
+ *     parser.parseBatches(input, Person.class, batch -> writer.writeAll(batch.records()));
+ * }
+ * }</pre>
+ * The writing methods must be called from one thread. A failure of the writer thread is
+ * thrown by the next of them, or by {@link #close()}.
+ */
+public final class ResultWriter<T> implements Consumer<T>, AutoCloseable {
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final Object END = new Object();
+
+    private final Path file;
+    private final RecordEncoder encoder;
+    private final OutputBuffer out;
+    private final FileChannel channel;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+    private final long start = System.nanoTime();
+    private List<Object> pending = new ArrayList<>(BATCH_SIZE);
+    private volatile IOException failure;
+    private boolean closed;
+    // Written by the writer thread, read after it has been joined
+    private boolean started;
+    private long records;
+    private long busyNanos;
+    private WriteStats stats;
+
+    private ResultWriter(Path file, RecordEncoder encoder, int bufferSize) throws IOException {
+        this.file = file;
+        this.encoder = encoder;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new OutputBuffer(channel, bufferSize);
+        this.thread = new Thread(this::drain, "result-writer-" + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static <T> ResultWriter<T> open(Path file, OutputFormat format) {
+        return open(file, format.newEncoder(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @throws UncheckedIOException if the file cannot be created
+     */
+    public static <T> ResultWriter<T> open(Path file, RecordEncoder encoder, int bufferSize) {
+        try {
+            return new ResultWriter<>(file, encoder, bufferSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open output file: " + file, e);
+        }
+    }
+
+    @Override
+    public void accept(T record) {
+        write(record);
+    }
+
+    public void write(T record) {
+        pending.add(record);
+        if (pending.size() == BATCH_SIZE) {
+            handOver(pending);
+            pending = new ArrayList<>(BATCH_SIZE);
+        }
+    }
+
+    /**
+     * Writes the records in order; the collection may be reused once this returns.
+     */
+    public void writeAll(Collection<? extends T> records) {
+        for (T record : records) {
+            write(record);
+        }
+    }
+
+    /**
+     * Writes {@code text} as UTF-8, as is, after the records written so far; for headings and
+     * summaries around the records of text output.
+     */
+    public void writeText(String text) {
+        flushPending();
+        handOver(new Text(text));
+    }
+
+    private void flushPending() {
+        if (!pending.isEmpty()) {
+            handOver(pending);
+            pending = new ArrayList<>(BATCH_SIZE);
+        }
+    }
+
+    private void handOver(Object item) {
+        checkOpen();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing " + file, e);
+        }
+    }
+
+    private void putUninterruptibly(Object item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Failed to write " + file, failure);
+        }
+    }
+
+    /**
+     * Writes the remaining records and closes the file.
+     * @throws UncheckedIOException if writing failed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (failure == null && !pending.isEmpty()) {
+            putUninterruptibly(pending);
+        }
+        putUninterruptibly(END);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true; // the file has to be closed either way
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        stats = new WriteStats(records, out.bytesWritten(), Duration.ofNanos(busyNanos),
+            Duration.ofNanos(System.nanoTime() - start));
+        if (failure != null) {
+            throw new UncheckedIOException("Failed to write " + file, failure);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the writer has not been closed yet
+     */
+    public WriteStats stats() {
+        if (stats == null) {
+            throw new IllegalStateException("Writer is not closed yet");
+        }
+        return stats;
+    }
+
+    private void drain() {
+        try (channel) {
+            while (true) {
+                Object item = queue.take();
+                if (item == END) {
+                    break;
+                }
+                if (failure == null) {
+                    long begin = System.nanoTime();
+                    try {
+                        encode(item);
+                    } catch (IOException | RuntimeException e) {
+                        // Keep taking items so the caller is not blocked on a full queue
+                        failure = e instanceof IOException io ? io : new IOException(e);
+                    }
+                    busyNanos += System.nanoTime() - begin;
+                }
+            }
+            if (failure == null) {
+                long begin = System.nanoTime();
+                if (started) {
+                    encoder.finish(out);
+                }
+                out.flush();
+                busyNanos += System.nanoTime() - begin;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (failure == null) {
+                failure = e instanceof IOException io ? io : new IOException(e);
+            }
+        } catch (InterruptedException e) {
+            failure = new IOException("Writer thread interrupted", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void encode(Object item) throws IOException {
+        if (item instanceof Text text) {
+            out.writeUtf8(text.value());
+            return;
+        }
+        List<Object> batch = (List<Object>) item;
+        if (!started) {
+            encoder.start(batch.get(0), out);
+            started = true;
+        }
+        for (Object record : batch) {
+            encoder.encode(record, out);
+        }
+        records += batch.size();
+    }
+
+    private record Text(String value) {}
+}
@@ -0,0 +1,11 @@
+package org.infy.output;
+
+import java.io.IOException;
+
+final class TextEncoder implements RecordEncoder {
+    @Override
+    public void encode(Object record, OutputBuffer out) throws IOException {
+        out.writeUtf8(String.valueOf(record));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,24 @@
+package org.infy.output;
+
+import java.time.Duration;
+
+/**
+ * Counters of a {@link ResultWriter}: the records and bytes it wrote, the time its writer
+ * thread spent encoding and writing, and the time from opening to closing the writer.
+ */
+public record WriteStats(
+    long records,
+    long bytes,
+    Duration busyTime,
+    Duration elapsed
+) {
+    public double recordsPerSecond() {
+        long nanos = busyTime.toNanos();
+        return nanos == 0 ? 0 : records * 1_000_000_000.0 / nanos;
+    }
+
+    public double bytesPerSecond() {
+        long nanos = busyTime.toNanos();
+        return nanos == 0 ? 0 : bytes * 1_000_000_000.0 / nanos;
+    }
+}
@@ -1,13 +1,47 @@
 package org.infy.parser;
 
 import org.infy.model.ParseResult;
+import org.infy.model.ParsingStats;
+import org.infy.model.RecordBatch;
 import org.infy.validation.Schema;
+import org.infy.validation.SchemaValidator;
+import org.infy.validation.ValidationReport;
 
 import java.io.InputStream;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 public interface DataParser<T> {
     ParseResult<T> parse(InputStream input, Class<T> targetClass);
     Stream<T> parseStream(InputStream input, Class<T> targetClass);
-    void validate(InputStream input, Schema schema);
+
+    /**
+     * Parses the input and hands records to {@code sink} in batches of the configured
+     * {@code batchSize}, each with the errors found while reading it. Batches are reused,
+     * so memory stays constant regardless of input size.
+     * @return statistics for the whole input
+     */
+    ParsingStats parseBatches(InputStream input, Class<T> targetClass, Consumer<RecordBatch<T>> sink);
+
+    /**
+     * Validates the input against {@code schema} with the
+     * {@linkplain SchemaValidator#DEFAULT_ERROR_BUDGET default error budget}.
+     */
+    default ValidationReport validate(InputStream input, Schema schema) {
+        return validate(input, schema, SchemaValidator.DEFAULT_ERROR_BUDGET);
+    }
+
+    /**
+     * Validates the input against {@code schema} in a single streaming pass, without binding
+     * records, so memory stays constant regardless of input size. Validation stops once
+     * {@code errorBudget} issues have been found.
+     */
+    ValidationReport validate(InputStream input, Schema schema, int errorBudget);
+
+    /**
+     * A parser like this one that reads only {@code fields}, as set by
+     * {@link org.infy.model.ParserConfig#withProjection}; null reads every field.
+     */
+    DataParser<T> withProjection(Set<String> fields);
 } 
\ No newline at end of file
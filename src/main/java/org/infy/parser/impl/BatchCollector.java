@@ -0,0 +1,68 @@
+package org.infy.parser.impl;
+
+import org.infy.model.ParseError;
+import org.infy.model.RecordBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates records and errors into reusable lists and hands them to a consumer every
+ * {@code batchSize} records, so memory stays bounded by the batch size.
+ */
+final class BatchCollector<T> {
+    private final int batchSize;
+    private final Consumer<RecordBatch<T>> sink;
+    private final List<T> records;
+    private final List<ParseError> errors = new ArrayList<>();
+    private final List<T> recordView;
+    private final List<ParseError> errorView = Collections.unmodifiableList(errors);
+    private long batchNumber;
+    private long recordCount;
+    private long errorCount;
+
+    BatchCollector(int batchSize, Consumer<RecordBatch<T>> sink) {
+        this.batchSize = Math.max(1, batchSize);
+        this.sink = sink;
+        this.records = new ArrayList<>(this.batchSize);
+        this.recordView = Collections.unmodifiableList(records);
+    }
+
+    void add(T record) {
+        records.add(record);
+        recordCount++;
+        if (records.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    void error(ParseError error) {
+        errors.add(error);
+        errorCount++;
+        if (errors.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Delivers any pending records and errors.
+     */
+    void flush() {
+        if (records.isEmpty() && errors.isEmpty()) {
+            return;
+        }
+        sink.accept(new RecordBatch<>(batchNumber++, recordView, errorView));
+        records.clear();
+        errors.clear();
+    }
+
+    long recordCount() {
+        return recordCount;
+    }
+
+    long errorCount() {
+        return errorCount;
+    }
+}
@@ -0,0 +1,585 @@
+package org.infy.parser.impl;
+
+import org.infy.model.Column;
+import org.infy.model.ColumnType;
+import org.infy.model.ColumnarTable;
+import org.infy.model.CsvHeader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link ColumnarTable} from tokenized CSV records.
+ * <p>
+ * Column types are inferred from the first {@value #SAMPLE_ROWS} rows. Integer columns are
+ * then parsed straight from the tokenizer's bytes. A later value that does not fit promotes
+ * the column (int, long, double, string); numbers promoted to strings are rendered in
+ * canonical form. String columns whose sample has few distinct values are dictionary-encoded
+ * until the dictionary grows past {@value #MAX_DICTIONARY_SIZE} entries.
+ */
+final class ColumnarTableBuilder {
+    static final int SAMPLE_ROWS = 1000;
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private final CsvColumns fields;
+    private final CsvHeader header;
+    private final List<String[]> sample = new ArrayList<>();
+    private ColumnBuilder[] columns;
+    private int rows;
+
+    ColumnarTableBuilder(CsvColumns fields) {
+        this.fields = fields;
+        this.header = fields.header();
+    }
+
+    void add(CsvTokenizer tokenizer) {
+        int values = tokenizer.fieldCount();
+        if (columns == null) {
+            String[] row = new String[header.size()];
+            for (int i = 0; i < row.length; i++) {
+                int field = fields.field(i);
+                if (field < values && !tokenizer.isBlank(field)) {
+                    row[i] = tokenizer.field(field);
+                }
+            }
+            sample.add(row);
+            rows++;
+            if (sample.size() == SAMPLE_ROWS) {
+                inferColumns();
+            }
+            return;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            int field = fields.field(i);
+            if (field >= values || tokenizer.isBlank(field)) {
+                columns[i].appendNull();
+            } else {
+                columns[i] = columns[i].append(tokenizer, field);
+            }
+        }
+        rows++;
+    }
+
+    ColumnarTable build() {
+        if (columns == null) {
+            inferColumns();
+        }
+        Column[] built = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            built[i] = columns[i].build(header.name(i));
+        }
+        return new ColumnarTable(header, built, rows);
+    }
+
+    private void inferColumns() {
+        columns = new ColumnBuilder[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnBuilder column = inferColumn(i);
+            for (String[] row : sample) {
+                if (row[i] == null) {
+                    column.appendNull();
+                } else {
+                    column = column.appendText(row[i]);
+                }
+            }
+            columns[i] = column;
+        }
+        sample.clear();
+    }
+
+    private ColumnBuilder inferColumn(int column) {
+        boolean ints = true;
+        boolean longs = true;
+        boolean doubles = true;
+        Set<String> distinct = new HashSet<>();
+        int nonNull = 0;
+        for (String[] row : sample) {
+            String value = row[column];
+            if (value == null) {
+                continue;
+            }
+            nonNull++;
+            distinct.add(value);
+            if (longs && !isLong(value)) {
+                longs = false;
+                ints = false;
+            } else if (ints && !isInt(value)) {
+                ints = false;
+            }
+            if (!longs && doubles && !isDecimal(value)) {
+                doubles = false;
+            }
+        }
+        if (ints) {
+            return new IntBuilder();
+        }
+        if (longs) {
+            return new LongBuilder(null);
+        }
+        if (doubles) {
+            return new DoubleBuilder(null);
+        }
+        if (distinct.size() <= nonNull / 2) {
+            return new DictionaryBuilder();
+        }
+        return new TextBuilder(null);
+    }
+
+    private static boolean isInt(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isLong(String value) {
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDecimal(String value) {
+        try {
+            parseDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Like {@link Double#parseDouble} but only for plain decimal notation, so values such as
+     * {@code NaN}, {@code 1d} or hexadecimal literals stay text.
+     */
+    private static double parseDecimal(String value) {
+        int i = 0;
+        int length = value.length();
+        if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        boolean dot = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits > 0 && i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                digits = 0;
+            }
+        }
+        if (digits == 0 || i != length) {
+            throw new NumberFormatException("Not a decimal number: " + value);
+        }
+        return Double.parseDouble(value);
+    }
+
+    private abstract static class ColumnBuilder {
+        long[] nulls;
+        int size;
+
+        ColumnBuilder(ColumnBuilder source) {
+            if (source == null) {
+                nulls = new long[16];
+            } else {
+                nulls = source.nulls;
+                size = source.size;
+            }
+        }
+
+        abstract ColumnType type();
+
+        /**
+         * Appends a non-blank field, returning a promoted builder if the value does not fit.
+         */
+        ColumnBuilder append(CsvTokenizer tokenizer, int column) {
+            return appendText(tokenizer.field(column));
+        }
+
+        abstract ColumnBuilder appendText(String value);
+
+        abstract void ensureCapacity(int capacity);
+
+        abstract Column build(String name);
+
+        void appendNull() {
+            ensureCapacity(size + 1);
+            if ((size >>> 6) >= nulls.length) {
+                nulls = Arrays.copyOf(nulls, nulls.length * 2);
+            }
+            nulls[size >>> 6] |= 1L << size;
+            size++;
+        }
+
+        void appendedValue() {
+            if ((size >>> 6) >= nulls.length) {
+                nulls = Arrays.copyOf(nulls, nulls.length * 2);
+            }
+            size++;
+        }
+
+        boolean isNull(int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        long[] trimmedNulls() {
+            return Arrays.copyOf(nulls, (size + 63) >>> 6);
+        }
+
+        abstract String textAt(int row);
+
+        /**
+         * Moves the column to the narrowest wider type that can hold {@code value}.
+         */
+        ColumnBuilder promote(String value) {
+            ColumnBuilder target;
+            if (this instanceof IntegralBuilder integral && type() == ColumnType.INT && isLong(value)) {
+                target = new LongBuilder(integral);
+            } else if (this instanceof IntegralBuilder integral && isDecimal(value)) {
+                target = new DoubleBuilder(integral);
+            } else {
+                target = new TextBuilder(this);
+            }
+            return target.appendText(value);
+        }
+
+        static int grow(int length, int capacity) {
+            return Math.max(capacity, length + (length >> 1) + 16);
+        }
+    }
+
+    /**
+     * A column of numbers, which a wider numeric column can be promoted from.
+     */
+    private abstract static class NumericBuilder extends ColumnBuilder {
+        NumericBuilder(ColumnBuilder source) {
+            super(source);
+        }
+
+        abstract double doubleAt(int row);
+    }
+
+    /**
+     * A column of whole numbers, which a long column can be promoted from.
+     */
+    private abstract static class IntegralBuilder extends NumericBuilder {
+        IntegralBuilder(ColumnBuilder source) {
+            super(source);
+        }
+
+        abstract long longAt(int row);
+    }
+
+    private static final class IntBuilder extends IntegralBuilder {
+        private int[] values = new int[1024];
+
+        IntBuilder() {
+            super(null);
+        }
+
+        @Override
+        ColumnType type() {
+            return ColumnType.INT;
+        }
+
+        @Override
+        ColumnBuilder append(CsvTokenizer tokenizer, int column) {
+            long value;
+            try {
+                value = tokenizer.parseLong(column);
+            } catch (NumberFormatException e) {
+                return promote(tokenizer.field(column));
+            }
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                return promote(tokenizer.field(column));
+            }
+            ensureCapacity(size + 1);
+            values[size] = (int) value;
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        ColumnBuilder appendText(String value) {
+            if (!isInt(value)) {
+                return promote(value);
+            }
+            ensureCapacity(size + 1);
+            values[size] = Integer.parseInt(value);
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        long longAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        double doubleAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        String textAt(int row) {
+            return Integer.toString(values[row]);
+        }
+
+        @Override
+        Column build(String name) {
+            return new Column.IntColumn(name, size, Arrays.copyOf(values, size), trimmedNulls());
+        }
+    }
+
+    private static final class LongBuilder extends IntegralBuilder {
+        private long[] values;
+
+        LongBuilder(IntegralBuilder source) {
+            super(source);
+            values = new long[Math.max(1024, size)];
+            for (int row = 0; row < size; row++) {
+                if (!isNull(row)) {
+                    values[row] = source.longAt(row);
+                }
+            }
+        }
+
+        @Override
+        ColumnType type() {
+            return ColumnType.LONG;
+        }
+
+        @Override
+        ColumnBuilder append(CsvTokenizer tokenizer, int column) {
+            long value;
+            try {
+                value = tokenizer.parseLong(column);
+            } catch (NumberFormatException e) {
+                return promote(tokenizer.field(column));
+            }
+            ensureCapacity(size + 1);
+            values[size] = value;
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        ColumnBuilder appendText(String value) {
+            if (!isLong(value)) {
+                return promote(value);
+            }
+            ensureCapacity(size + 1);
+            values[size] = Long.parseLong(value);
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        long longAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        double doubleAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        String textAt(int row) {
+            return Long.toString(values[row]);
+        }
+
+        @Override
+        Column build(String name) {
+            return new Column.LongColumn(name, size, Arrays.copyOf(values, size), trimmedNulls());
+        }
+    }
+
+    private static final class DoubleBuilder extends NumericBuilder {
+        private double[] values;
+
+        DoubleBuilder(NumericBuilder source) {
+            super(source);
+            values = new double[Math.max(1024, size)];
+            for (int row = 0; row < size; row++) {
+                if (!isNull(row)) {
+                    values[row] = source.doubleAt(row);
+                }
+            }
+        }
+
+        @Override
+        ColumnType type() {
+            return ColumnType.DOUBLE;
+        }
+
+        @Override
+        ColumnBuilder appendText(String value) {
+            double parsed;
+            try {
+                parsed = parseDecimal(value);
+            } catch (NumberFormatException e) {
+                return promote(value);
+            }
+            ensureCapacity(size + 1);
+            values[size] = parsed;
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        double doubleAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        String textAt(int row) {
+            return Double.toString(values[row]);
+        }
+
+        @Override
+        Column build(String name) {
+            return new Column.DoubleColumn(name, size, Arrays.copyOf(values, size), trimmedNulls());
+        }
+    }
+
+    private static final class TextBuilder extends ColumnBuilder {
+        private String[] values;
+
+        TextBuilder(ColumnBuilder source) {
+            super(source);
+            values = new String[Math.max(1024, size)];
+            for (int row = 0; row < size; row++) {
+                if (!isNull(row)) {
+                    values[row] = source.textAt(row);
+                }
+            }
+        }
+
+        @Override
+        ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        ColumnBuilder appendText(String value) {
+            ensureCapacity(size + 1);
+            values[size] = value;
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        String textAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        Column build(String name) {
+            return new Column.StringColumn(name, size, Arrays.copyOf(values, size), trimmedNulls());
+        }
+    }
+
+    private static final class DictionaryBuilder extends ColumnBuilder {
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes = new int[1024];
+
+        DictionaryBuilder() {
+            super(null);
+        }
+
+        @Override
+        ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        ColumnBuilder appendText(String value) {
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                    return new TextBuilder(this).appendText(value);
+                }
+                code = dictionary.size();
+                dictionary.add(value);
+                codesByValue.put(value, code);
+            }
+            ensureCapacity(size + 1);
+            codes[size] = code;
+            appendedValue();
+            return this;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > codes.length) {
+                codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+            }
+        }
+
+        @Override
+        String textAt(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        Column build(String name) {
+            return new Column.DictionaryColumn(
+                name, size, dictionary.toArray(new String[0]), Arrays.copyOf(codes, size), trimmedNulls());
+        }
+    }
+}
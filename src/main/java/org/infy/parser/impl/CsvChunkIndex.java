@@ -0,0 +1,194 @@
+package org.infy.parser.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a byte range of a CSV file into chunks that start and end on record boundaries.
+ * <p>
+ * The range is cut into fixed-size segments that are scanned in parallel for quote and line
+ * break counts. A prefix sum over the quote counts gives the quoting state at each segment
+ * start, so every segment can then look for its first line break outside quotes on its own.
+ * A quoted field spanning several lines therefore never straddles two chunks. Stray quotes
+ * in malformed records toggle the quoting state in {@link CsvTokenizer} as well, so the
+ * chunks always match the records of a sequential parse.
+ */
+final class CsvChunkIndex {
+    private static final long MIN_SEGMENT_SIZE = 1L << 20;
+    private static final int MAX_SEGMENT_SIZE = 256 * 1024 * 1024;
+    private static final int SCAN_WINDOW = 8 * 1024 * 1024;
+    private static final int SAMPLE_SIZE = 64 * 1024;
+
+    private final long[] offsets;
+    private final long[] lines;
+
+    private CsvChunkIndex(long[] offsets, long[] lines) {
+        this.offsets = offsets;
+        this.lines = lines;
+    }
+
+    /**
+     * Indexes {@code [start, end)}, where {@code start} is a record boundary whose record
+     * begins on line {@code startLine}.
+     */
+    static CsvChunkIndex build(FileChannel channel, long start, long end, long startLine) throws IOException {
+        long length = end - start;
+        int targetChunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        long segmentSize = Math.min(MAX_SEGMENT_SIZE, Math.max(MIN_SEGMENT_SIZE, length / Math.max(1, targetChunks)));
+        int segments = (int) Math.max(1, (length + segmentSize - 1) / segmentSize);
+        if (segments == 1) {
+            return new CsvChunkIndex(new long[] {start, end}, new long[] {startLine});
+        }
+
+        long[] segmentStarts = new long[segments];
+        for (int i = 0; i < segments; i++) {
+            segmentStarts[i] = start + i * segmentSize;
+        }
+
+        long[] quotes = new long[segments];
+        long[] lineBreaks = new long[segments];
+        run(segments, i -> {
+            long from = segmentStarts[i];
+            long to = Math.min(end, from + segmentSize);
+            // Map one byte past the segment so a trailing CR can see whether an LF follows
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(end, to + 1) - from);
+            int segmentLength = (int) (to - from);
+            long quoteCount = 0;
+            long lineCount = 0;
+            for (int p = 0; p < segmentLength; p++) {
+                byte c = bytes.get(p);
+                if (c == '"') {
+                    quoteCount++;
+                } else if (c == '\n' || (c == '\r' && (p + 1 >= bytes.limit() || bytes.get(p + 1) != '\n'))) {
+                    lineCount++;
+                }
+            }
+            quotes[i] = quoteCount;
+            lineBreaks[i] = lineCount;
+        });
+
+        long[] quotesBefore = new long[segments + 1];
+        long[] linesBefore = new long[segments + 1];
+        for (int i = 0; i < segments; i++) {
+            quotesBefore[i + 1] = quotesBefore[i] + quotes[i];
+            linesBefore[i + 1] = linesBefore[i] + lineBreaks[i];
+        }
+        long[] boundaries = new long[segments];
+        long[] boundaryLines = new long[segments];
+        boundaries[0] = start;
+        boundaryLines[0] = startLine;
+        run(segments - 1, j -> {
+            int i = j + 1;
+            long[] found = findRecordStart(channel, segmentStarts[i], end, (quotesBefore[i] & 1) != 0);
+            boundaries[i] = found[0];
+            boundaryLines[i] = startLine + linesBefore[i] + found[1];
+        });
+
+        // Drop boundaries that collapsed onto a later one because a record spans whole segments
+        long[] chunkOffsets = new long[segments + 1];
+        long[] chunkLines = new long[segments];
+        int chunks = 0;
+        for (int i = 0; i < segments; i++) {
+            if (boundaries[i] < end && (chunks == 0 || boundaries[i] > chunkOffsets[chunks - 1])) {
+                chunkOffsets[chunks] = boundaries[i];
+                chunkLines[chunks] = boundaryLines[i];
+                chunks++;
+            }
+        }
+        chunkOffsets[chunks] = end;
+        return new CsvChunkIndex(Arrays.copyOf(chunkOffsets, chunks + 1), Arrays.copyOf(chunkLines, chunks));
+    }
+
+    /**
+     * Scans forward from {@code from} for the first byte after a record terminator.
+     * @return the boundary offset and the number of line breaks between {@code from} and it
+     */
+    private static long[] findRecordStart(FileChannel channel, long from, long end, boolean quoted) throws IOException {
+        long lineCount = 0;
+        long windowStart = from;
+        while (windowStart < end) {
+            int size = (int) Math.min(SCAN_WINDOW, end - windowStart);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+            // The last byte is only inspected as a lookahead unless this window reaches the end
+            int scanLimit = windowStart + size < end ? size - 1 : size;
+            for (int p = 0; p < scanLimit; p++) {
+                byte c = bytes.get(p);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\n') {
+                    if (!quoted) {
+                        return new long[] {windowStart + p + 1, lineCount + 1};
+                    }
+                    lineCount++;
+                } else if (c == '\r') {
+                    boolean crlf = p + 1 < size && bytes.get(p + 1) == '\n';
+                    if (!quoted) {
+                        return new long[] {windowStart + p + (crlf ? 2 : 1), lineCount + 1};
+                    }
+                    if (!crlf) {
+                        lineCount++;
+                    }
+                }
+            }
+            windowStart += Math.max(1, scanLimit);
+        }
+        return new long[] {end, lineCount};
+    }
+
+    /**
+     * Rough average record length, taken from the line breaks in the first few kilobytes.
+     */
+    static double estimateRecordSize(FileChannel channel, long start, long end) throws IOException {
+        int size = (int) Math.min(SAMPLE_SIZE, end - start);
+        if (size <= 0) {
+            return 1;
+        }
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        int lineCount = 0;
+        for (int p = 0; p < size; p++) {
+            if (bytes.get(p) == '\n') {
+                lineCount++;
+            }
+        }
+        return Math.max(1.0, (double) size / Math.max(1, lineCount));
+    }
+
+    int chunkCount() {
+        return lines.length;
+    }
+
+    long start(int chunk) {
+        return offsets[chunk];
+    }
+
+    long end(int chunk) {
+        return offsets[chunk + 1];
+    }
+
+    long line(int chunk) {
+        return lines[chunk];
+    }
+
+    private interface SegmentTask {
+        void run(int segment) throws IOException;
+    }
+
+    private static void run(int count, SegmentTask task) throws IOException {
+        try {
+            IntStream.range(0, count).parallel().forEach(i -> {
+                try {
+                    task.run(i);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
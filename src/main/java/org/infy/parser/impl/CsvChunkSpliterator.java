@@ -0,0 +1,140 @@
+package org.infy.parser.impl;
+
+import org.infy.model.CsvHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splittable spliterator over the records of a memory-mapped CSV file.
+ * <p>
+ * The record-aligned {@link CsvChunkIndex} is only built on the first {@link #trySplit()}, so
+ * sequential consumers never pay for it. Splitting hands out a prefix of the remaining
+ * chunks. The number of records is not known up front, so {@link #estimateSize()} is an
+ * estimate from the average record length and {@code SIZED} is not reported.
+ */
+public class CsvChunkSpliterator implements Spliterator<Map<String, String>> {
+    private static final Logger logger = LoggerFactory.getLogger(CsvChunkSpliterator.class);
+    private final FileChannel channel;
+    private final Charset charset;
+    private final CsvColumns columns;
+    private final boolean skipEmptyLines;
+    private final double recordSize;
+    private long[] offsets;
+    private long[] lines;
+    private boolean indexed;
+    private int chunk;
+    private int chunkEnd;
+    private CsvTokenizer tokenizer;
+
+    public CsvChunkSpliterator(FileChannel channel, long start, long end, long startLine,
+                               CsvHeader header, Charset charset, boolean skipEmptyLines) throws IOException {
+        this(channel, start, end, startLine, CsvColumns.of(header, null), charset, skipEmptyLines);
+    }
+
+    CsvChunkSpliterator(FileChannel channel, long start, long end, long startLine,
+                        CsvColumns columns, Charset charset, boolean skipEmptyLines) throws IOException {
+        this(channel, charset, columns, skipEmptyLines, CsvChunkIndex.estimateRecordSize(channel, start, end),
+            new long[] {start, end}, new long[] {startLine}, false, 0, 1, null);
+    }
+
+    private CsvChunkSpliterator(FileChannel channel, Charset charset, CsvColumns columns, boolean skipEmptyLines,
+                                double recordSize, long[] offsets, long[] lines, boolean indexed,
+                                int chunk, int chunkEnd, CsvTokenizer tokenizer) {
+        this.channel = channel;
+        this.charset = charset;
+        this.columns = columns;
+        this.skipEmptyLines = skipEmptyLines;
+        this.recordSize = recordSize;
+        this.offsets = offsets;
+        this.lines = lines;
+        this.indexed = indexed;
+        this.chunk = chunk;
+        this.chunkEnd = chunkEnd;
+        this.tokenizer = tokenizer;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map<String, String>> action) {
+        try {
+            while (true) {
+                if (tokenizer == null) {
+                    if (chunk >= chunkEnd) {
+                        return false;
+                    }
+                    tokenizer = CsvTokenizer.forChannel(channel, offsets[chunk], offsets[chunk + 1], charset);
+                    tokenizer.setLineNumber(lines[chunk]);
+                }
+                while (tokenizer.nextRecord()) {
+                    if (skipEmptyLines && tokenizer.isBlankRecord()) {
+                        continue;
+                    }
+                    if (tokenizer.error() != null) {
+                        logger.debug("Error parsing line {}: {}", tokenizer.lineNumber(), tokenizer.error());
+                        continue;
+                    }
+                    action.accept(CsvParser.toRecord(tokenizer, columns));
+                    return true;
+                }
+                tokenizer.close();
+                tokenizer = null;
+                chunk++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV record", e);
+        }
+    }
+
+    @Override
+    public Spliterator<Map<String, String>> trySplit() {
+        if (!indexed) {
+            if (tokenizer != null) {
+                return null;
+            }
+            try {
+                CsvChunkIndex index = CsvChunkIndex.build(channel, offsets[0], offsets[1], lines[0]);
+                int count = index.chunkCount();
+                offsets = new long[count + 1];
+                lines = new long[count];
+                for (int i = 0; i < count; i++) {
+                    offsets[i] = index.start(i);
+                    lines[i] = index.line(i);
+                }
+                offsets[count] = index.end(count - 1);
+                chunkEnd = count;
+                indexed = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index CSV file", e);
+            }
+        }
+        if (chunkEnd - chunk < 2) {
+            return null;
+        }
+        int mid = (chunk + chunkEnd) >>> 1;
+        // The prefix takes over any chunk that is already being read
+        CsvChunkSpliterator prefix = new CsvChunkSpliterator(channel, charset, columns, skipEmptyLines,
+            recordSize, offsets, lines, true, chunk, mid, tokenizer);
+        tokenizer = null;
+        chunk = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long position = tokenizer != null ? tokenizer.nextRecordOffset() : offsets[chunk];
+        long remaining = offsets[chunkEnd] - position;
+        return remaining <= 0 ? 0 : (long) Math.ceil(remaining / recordSize);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,77 @@
+package org.infy.parser.impl;
+
+import org.infy.model.CsvHeader;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The columns of a CSV file that a parse reads: all of them, or those of a projection in
+ * file order. Records, binders and statistics see only the projected {@link #header()}; the
+ * fields of other columns are never decoded.
+ */
+final class CsvColumns {
+    private final CsvHeader fileHeader;
+    private final CsvHeader header;
+    // Field position in the file of each projected column, or null if every column is read
+    private final int[] fields;
+
+    private CsvColumns(CsvHeader fileHeader, CsvHeader header, int[] fields) {
+        this.fileHeader = fileHeader;
+        this.header = header;
+        this.fields = fields;
+    }
+
+    /**
+     * @param projection the column names to read, or null for all; names the file does not
+     *                   have are ignored
+     */
+    static CsvColumns of(CsvHeader fileHeader, Set<String> projection) {
+        if (projection == null) {
+            return new CsvColumns(fileHeader, fileHeader, null);
+        }
+        int[] fields = new int[fileHeader.size()];
+        String[] names = new String[fileHeader.size()];
+        int n = 0;
+        for (int i = 0; i < fileHeader.size(); i++) {
+            String name = fileHeader.name(i);
+            // Like the Map view of a row, the last of several equally named columns counts
+            if (projection.contains(name) && fileHeader.indexOf(name) == i) {
+                fields[n] = i;
+                names[n++] = name;
+            }
+        }
+        return new CsvColumns(fileHeader, CsvHeader.of(Arrays.copyOf(names, n)), Arrays.copyOf(fields, n));
+    }
+
+    boolean isProjected() {
+        return fields != null;
+    }
+
+    CsvHeader fileHeader() {
+        return fileHeader;
+    }
+
+    /**
+     * The header of the records: the projected columns.
+     */
+    CsvHeader header() {
+        return header;
+    }
+
+    /**
+     * The field position in the file of projected column {@code column}.
+     */
+    int field(int column) {
+        return fields == null ? column : fields[column];
+    }
+
+    /**
+     * Whether the value of the file column at {@code field} is read: it is projected and,
+     * like in the Map view of a row, the last of several equally named columns.
+     */
+    boolean reads(int field) {
+        String name = fileHeader.name(field);
+        return fileHeader.indexOf(name) == field && (fields == null || header.indexOf(name) >= 0);
+    }
+}
@@ -1,104 +1,650 @@
 package org.infy.parser.impl;
 
+import org.infy.metrics.MetricsRecorder;
+import org.infy.metrics.ParseMetrics;
+import org.infy.metrics.Stage;
 import org.infy.model.*;
 import org.infy.parser.DataParser;
+import org.infy.stats.ColumnStatistics;
+import org.infy.stats.TableStatistics;
 import org.infy.validation.Schema;
+import org.infy.validation.SchemaValidator;
+import org.infy.validation.ValidationReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Parses CSV with a header row. Each row is returned as a {@link CsvRecord}, a read-only
+ * {@code Map} view over a value array that shares one {@link CsvHeader} per file.
+ * <p>
+ * Instances hold no per-call state and can be shared between threads.
+ */
 public class CsvParser implements DataParser<Map<String, String>> {
     private static final Logger logger = LoggerFactory.getLogger(CsvParser.class);
     private final ParserConfig config;
-    private Map<String, Integer> blankFieldCounts;
-    private int totalRows;
     
     public CsvParser(ParserConfig config) {
         this.config = config;
-        this.blankFieldCounts = new HashMap<>();
-        this.totalRows = 0;
+    }
+
+    @Override
+    public CsvParser withProjection(Set<String> fields) {
+        return new CsvParser(config.withProjection(fields));
     }
 
     @Override
     public ParseResult<Map<String, String>> parse(InputStream input, Class<Map<String, String>> targetClass) {
+        MetricsRecorder metrics = newRecorder(null);
+        try (CsvTokenizer tokenizer = CsvTokenizer.forStream(metrics.count(input), config.encoding())) {
+            return parse(tokenizer, metrics);
+        } catch (IOException e) {
+            return failedResult(e);
+        }
+    }
+
+    /**
+     * Parses a CSV file through memory-mapped windows instead of a stream.
+     */
+    public ParseResult<Map<String, String>> parse(Path file) {
+        if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return parse(input, null);
+            } catch (IOException e) {
+                return failedResult(e);
+            }
+        }
+        MetricsRecorder metrics = newRecorder(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             CsvTokenizer tokenizer = CsvTokenizer.forChannel(channel, config.encoding())) {
+            metrics.addBytes(channel.size());
+            return parse(tokenizer, metrics);
+        } catch (IOException e) {
+            return failedResult(e);
+        }
+    }
+
+    /**
+     * Parses a CSV file on the fork-join common pool. The file is split into record-aligned
+     * chunks that are parsed concurrently; records, errors and blank field counts are merged
+     * back in file order, so the result matches {@link #parse(Path)}.
+     */
+    public ParseResult<Map<String, String>> parseParallel(Path file) {
+        if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+            return parse(file);
+        }
         Instant start = Instant.now();
-        List<Map<String, String>> parsedData = new ArrayList<>();
-        List<ParseError> errors = new ArrayList<>();
-        blankFieldCounts.clear();
-        totalRows = 0;
-        
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, config.encoding()))) {
-            String headerLine = reader.readLine();
-            if (headerLine == null) {
-                throw new IOException("CSV file is empty");
+        MetricsRecorder metrics = newRecorder(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long indexStart = System.nanoTime();
+            FileHeader fileHeader = readHeader(channel);
+            CsvColumns columns = columns(fileHeader.header());
+            CsvChunkIndex index = CsvChunkIndex.build(
+                channel, fileHeader.dataStart(), channel.size(), fileHeader.dataLine());
+            metrics.addTime(Stage.READ, System.nanoTime() - indexStart);
+            metrics.addBytes(fileHeader.dataStart());
+            logger.debug("Parsing {} in {} chunks", file, index.chunkCount());
+            
+            // This thread helps with the chunks, whose recorders count its allocations meanwhile
+            metrics.pauseAllocations();
+            ChunkResult[] chunks = parseChunks(file, channel, columns, index, true);
+            metrics.resumeAllocations();
+            return toParseResult(ChunkResult.concat(chunks, columns.header(), config.errorPolicy(), metrics), start);
+        } catch (IOException e) {
+            return failedResult(e);
+        }
+    }
+
+    /**
+     * Profiles a CSV file without keeping its records: blank rate, min/max, approximate
+     * distinct count and quantiles per column. Chunks are profiled in parallel and their
+     * statistics merged, so memory use does not grow with the number of rows.
+     */
+    public CsvStats profile(Path file) {
+        if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return profile(input);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to profile CSV file", e);
             }
+        }
+        Instant start = Instant.now();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileHeader fileHeader = readHeader(channel);
+            CsvColumns columns = columns(fileHeader.header());
+            CsvChunkIndex index = CsvChunkIndex.build(
+                channel, fileHeader.dataStart(), channel.size(), fileHeader.dataLine());
             
-            String[] headers = headerLine.split(",");
-            Arrays.stream(headers).forEach(header -> blankFieldCounts.put(header.trim(), 0));
-            logger.debug("CSV Headers: {}", Arrays.toString(headers));
+            ChunkResult[] chunks = parseChunks(file, channel, columns, index, false);
+            TableStatistics statistics = new TableStatistics(columns.header());
+            int totalRows = 0;
+            for (ChunkResult chunk : chunks) {
+                statistics.merge(chunk.statistics);
+                totalRows += chunk.totalRows;
+            }
+            CsvStats csvStats = CsvStats.create(totalRows, statistics);
+            logCsvStats(csvStats, Duration.between(start, Instant.now()));
+            return csvStats;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to profile CSV file", e);
+        }
+    }
+
+    /**
+     * Parses only what was appended to {@code file} since the last call with the same
+     * {@code checkpoint}, and moves the checkpoint to the end of the last complete record.
+     * <p>
+     * The delta holds the new records and errors; the cumulative counts and column statistics
+     * cover every call since the checkpoint was created. A trailing record without its line
+     * feed, or with an open quoted field, is left for the next call. If the file was truncated
+     * or replaced since the checkpoint was taken, it is parsed from the start again. Offsets
+     * are bytes, so the encoding must be ASCII-compatible.
+     * @throws UncheckedIOException if the file or the checkpoint cannot be read or written
+     */
+    public TailParseResult<Map<String, String>> parseTail(Path file, Path checkpoint) {
+        if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+            throw new IllegalArgumentException("Tail parsing needs an ASCII-compatible encoding, not " + config.encoding());
+        }
+        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            boolean complete = TailCheckpoint.endsWithNewline(channel, size);
+            TailCheckpoint previous = TailCheckpoint.read(checkpoint, TailCheckpoint.CSV);
+            if (previous != null && !previous.matches(channel)) {
+                logger.info("{} was truncated or replaced, parsing it from the start", file);
+                previous = null;
+            }
             
-            String line;
-            int lineNumber = 1;
+            long from;
+            long line;
+            CsvHeader header;
+            if (previous != null) {
+                from = previous.offset();
+                line = previous.nextLine();
+                header = previous.header();
+            } else {
+                FileHeader fileHeader = size == 0 ? null : readHeader(channel);
+                if (fileHeader == null || fileHeader.dataStart() >= size && !complete) {
+                    // Nothing but a header still being written
+                    ChunkResult empty = new ChunkResult(CsvHeader.of(), config.errorPolicy(), metrics);
+                    return new TailParseResult<>(toParseResult(empty, start), toStats(empty, start), null, 0);
+                }
+                from = fileHeader.dataStart();
+                line = fileHeader.dataLine();
+                header = fileHeader.header();
+            }
             
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                totalRows++;
-                if (config.skipEmptyLines() && line.trim().isEmpty()) {
-                    continue;
+            // The checkpoint keeps the file's header, so a later call may project other columns
+            CsvColumns columns = columns(header);
+            ChunkResult result = new ChunkResult(columns.header(), config.errorPolicy(), metrics);
+            long end = from;
+            try (CsvTokenizer tokenizer = CsvTokenizer.forChannel(channel, from, size, config.encoding())) {
+                tokenizer.setLineNumber(line);
+                for (long mark = metrics.mark(); !result.errors.aborted() && tokenizer.nextRecord();
+                     mark = metrics.mark()) {
+                    // A record that runs into the end of the data has an open quote, and more may follow
+                    if (tokenizer.nextRecordOffset() >= size && (!complete || !tokenizer.isTerminated())) {
+                        break;
+                    }
+                    mark = metrics.lap(Stage.TOKENIZE, mark);
+                    parseRecord(tokenizer, columns, result);
+                    metrics.lap(Stage.BIND, mark);
+                    metrics.recordDone();
+                    end = tokenizer.nextRecordOffset();
+                    line = tokenizer.nextLineNumber();
                 }
-                
+            }
+            metrics.addBytes(end - from);
+            
+            TableStatistics statistics = new TableStatistics(columns.header());
+            long totalRows = result.totalRows;
+            long validRecords = result.recordCount;
+            long invalidRecords = result.errors.count();
+            if (previous != null) {
+                statistics.merge(previous.statistics());
+                totalRows += previous.totalRows();
+                validRecords += previous.validRecords();
+                invalidRecords += previous.invalidRecords();
+            }
+            statistics.merge(result.statistics);
+            int fingerprintLength = TailCheckpoint.fingerprintLength(end);
+            new TailCheckpoint(TailCheckpoint.CSV, end, line, fingerprintLength,
+                TailCheckpoint.fingerprint(channel, fingerprintLength), validRecords + invalidRecords,
+                validRecords, invalidRecords, totalRows, header, statistics).write(checkpoint);
+            
+            ParseResult<Map<String, String>> delta = toParseResult(result, start);
+            ParsingStats cumulative = new ParsingStats(
+                validRecords + invalidRecords,
+                validRecords,
+                invalidRecords,
+                delta.stats().processingTime(),
+                delta.stats().memoryUsed()
+            );
+            return new TailParseResult<>(delta, cumulative, CsvStats.create((int) totalRows, statistics), end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse the tail of " + file, e);
+        }
+    }
+
+    public CsvStats profile(InputStream input) {
+        Instant start = Instant.now();
+        try (CsvTokenizer tokenizer = CsvTokenizer.forStream(input, config.encoding())) {
+            CsvColumns columns = columns(readHeader(tokenizer));
+            ChunkResult result = ChunkResult.statisticsOnly(columns.header(), config.errorPolicy(), newRecorder(null));
+            parseRecords(tokenizer, columns, result);
+            CsvStats csvStats = CsvStats.create(result.totalRows, result.statistics);
+            logCsvStats(csvStats, Duration.between(start, Instant.now()));
+            return csvStats;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to profile CSV file", e);
+        }
+    }
+
+    private ChunkResult[] parseChunks(Path file, FileChannel channel, CsvColumns columns, CsvChunkIndex index,
+                                      boolean keepRecords) {
+        ChunkResult[] chunks = new ChunkResult[index.chunkCount()];
+        IntStream.range(0, chunks.length).parallel().forEach(i -> {
+            MetricsRecorder metrics = MetricsRecorder.forChunk(
+                "csv", file, i, index.start(i), index.end(i), config.batchSize());
+            metrics.addBytes(index.end(i) - index.start(i));
+            ChunkResult chunk = keepRecords
+                ? new ChunkResult(columns.header(), config.errorPolicy(), metrics)
+                : ChunkResult.statisticsOnly(columns.header(), config.errorPolicy(), metrics);
+            try (CsvTokenizer tokenizer = CsvTokenizer.forChannel(
+                    channel, index.start(i), index.end(i), config.encoding())) {
+                tokenizer.setLineNumber(index.line(i));
+                parseRecords(tokenizer, columns, chunk);
+            } catch (IOException e) {
+                chunk.fatal(e);
+            }
+            metrics.finish(chunk.recordCount, chunk.errors.count());
+            chunks[i] = chunk;
+        });
+        return chunks;
+    }
+
+    /**
+     * Parses CSV straight into records of {@code type}, matching header columns to record
+     * components by name. No map is built per row: fields are converted into the record's
+     * constructor slots by a binder compiled once per file.
+     */
+    public <R extends Record> ParseResult<R> parseAs(InputStream input, Class<R> type) {
+        MetricsRecorder metrics = newRecorder(null);
+        try (CsvTokenizer tokenizer = CsvTokenizer.forStream(metrics.count(input), config.encoding())) {
+            return parseAs(tokenizer, type, metrics);
+        } catch (IOException e) {
+            return failedResult(e);
+        }
+    }
+
+    public <R extends Record> ParseResult<R> parseAs(Path file, Class<R> type) {
+        if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return parseAs(input, type);
+            } catch (IOException e) {
+                return failedResult(e);
+            }
+        }
+        MetricsRecorder metrics = newRecorder(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             CsvTokenizer tokenizer = CsvTokenizer.forChannel(channel, config.encoding())) {
+            metrics.addBytes(channel.size());
+            return parseAs(tokenizer, type, metrics);
+        } catch (IOException e) {
+            return failedResult(e);
+        }
+    }
+
+    private <R extends Record> ParseResult<R> parseAs(CsvTokenizer tokenizer, Class<R> type, MetricsRecorder metrics)
+            throws IOException {
+        Instant start = Instant.now();
+        List<R> records = new ArrayList<>();
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+        CsvRecordBinder<R> binder = new CsvRecordBinder<>(type, columns(readHeader(tokenizer)));
+        
+        for (long mark = metrics.mark(); !errors.aborted() && tokenizer.nextRecord(); mark = metrics.mark()) {
+            mark = metrics.lap(Stage.TOKENIZE, mark);
+            if (config.skipEmptyLines() && tokenizer.isBlankRecord()) {
+                continue;
+            }
+            int lineNumber = (int) tokenizer.lineNumber();
+            if (tokenizer.error() != null) {
+                addError(errors, tokenizer, tokenizer.error(), lineNumber, null);
+            } else {
                 try {
-                    Map<String, String> record = parseLine(line, headers);
-                    updateBlankFieldCounts(record);
-                    logger.debug("Parsed line {}: {}", lineNumber, record);
-                    parsedData.add(record);
-                } catch (Exception e) {
-                    logger.error("Error parsing line {}: {}", lineNumber, line, e);
-                    errors.add(new ParseError(
-                        e.getMessage(),
-                        lineNumber,
-                        line,
-                        ErrorSeverity.ERROR,
-                        e
-                    ));
+                    records.add(binder.bind(tokenizer));
+                    errors.recordParsed();
+                } catch (RuntimeException e) {
+                    addError(errors, tokenizer, e.getMessage(), lineNumber, e);
                 }
             }
+            metrics.lap(Stage.BIND, mark);
+            metrics.recordDone();
+        }
+        
+        ParsingStats stats = new ParsingStats(
+            records.size() + errors.count(),
+            records.size(),
+            errors.count(),
+            Duration.between(start, Instant.now()),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            metrics.finish(records.size(), errors.count()),
+            errors.counts()
+        );
+        return new ParseResult<>(records, errors.errors(), stats);
+    }
+
+    /**
+     * Parses CSV into a {@link ColumnarTable} with one typed column per header column instead
+     * of one record per row. Blank values become nulls.
+     */
+    public ColumnarParseResult parseColumnar(InputStream input) {
+        try (CsvTokenizer tokenizer = CsvTokenizer.forStream(input, config.encoding())) {
+            return parseColumnar(tokenizer);
         } catch (IOException e) {
-            errors.add(new ParseError(
-                "Failed to read CSV file",
-                0,
-                "",
-                ErrorSeverity.FATAL,
-                e
-            ));
+            return failedColumnarResult(e);
+        }
+    }
+
+    public ColumnarParseResult parseColumnar(Path file) {
+        if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return parseColumnar(input);
+            } catch (IOException e) {
+                return failedColumnarResult(e);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             CsvTokenizer tokenizer = CsvTokenizer.forChannel(channel, config.encoding())) {
+            return parseColumnar(tokenizer);
+        } catch (IOException e) {
+            return failedColumnarResult(e);
+        }
+    }
+
+    private ColumnarParseResult parseColumnar(CsvTokenizer tokenizer) throws IOException {
+        Instant start = Instant.now();
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+        ColumnarTableBuilder builder = new ColumnarTableBuilder(columns(readHeader(tokenizer)));
+        
+        while (!errors.aborted() && tokenizer.nextRecord()) {
+            if (config.skipEmptyLines() && tokenizer.isBlankRecord()) {
+                continue;
+            }
+            if (tokenizer.error() != null) {
+                addError(errors, tokenizer, tokenizer.error(), (int) tokenizer.lineNumber(), null);
+                continue;
+            }
+            builder.add(tokenizer);
+            errors.recordParsed();
+        }
+        
+        ColumnarTable table = builder.build();
+        ParsingStats stats = new ParsingStats(
+            table.rowCount() + errors.count(),
+            table.rowCount(),
+            errors.count(),
+            Duration.between(start, Instant.now()),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            ParseMetrics.NONE,
+            errors.counts()
+        );
+        return new ColumnarParseResult(table, errors.errors(), stats);
+    }
+
+    private ColumnarParseResult failedColumnarResult(IOException e) {
+        ParseError error = new ParseError("Failed to read CSV file", 0, "", ErrorSeverity.FATAL, e);
+        return new ColumnarParseResult(
+            new ColumnarTable(CsvHeader.of(), new Column[0], 0),
+            new ArrayList<>(List.of(error)),
+            new ParsingStats(1, 0, 1, Duration.ZERO, 0)
+        );
+    }
+
+    @Override
+    public ParsingStats parseBatches(InputStream input, Class<Map<String, String>> targetClass,
+                                     Consumer<RecordBatch<Map<String, String>>> sink) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(null);
+        BatchCollector<Map<String, String>> batches = new BatchCollector<>(config.batchSize(), sink);
+        CsvHeader header = CsvHeader.of();
+        ChunkResult result;
+        
+        try (CsvTokenizer tokenizer = CsvTokenizer.forStream(metrics.count(input), config.encoding())) {
+            CsvColumns columns = columns(readHeader(tokenizer));
+            header = columns.header();
+            result = new ChunkResult(header, batches, config.errorPolicy(), metrics);
+            parseRecords(tokenizer, columns, result);
+        } catch (IOException e) {
+            result = new ChunkResult(header, batches, config.errorPolicy(), metrics);
+            result.fatal(e);
         }
         
+        batches.flush();
+        return toStats(result, start);
+    }
+
+    private ParseResult<Map<String, String>> parse(CsvTokenizer tokenizer, MetricsRecorder metrics) {
+        Instant start = Instant.now();
+        CsvHeader header = CsvHeader.of();
+        ChunkResult result;
+        
+        try {
+            CsvColumns columns = columns(readHeader(tokenizer));
+            header = columns.header();
+            logger.debug("CSV Headers: {}", header);
+            result = new ChunkResult(header, config.errorPolicy(), metrics);
+            parseRecords(tokenizer, columns, result);
+        } catch (IOException e) {
+            result = new ChunkResult(header, config.errorPolicy(), metrics);
+            result.fatal(e);
+        }
+        
+        return toParseResult(result, start);
+    }
+
+    private void parseRecords(CsvTokenizer tokenizer, CsvColumns columns, ChunkResult result) {
+        MetricsRecorder metrics = result.metrics;
+        try {
+            for (long mark = metrics.mark(); !result.errors.aborted() && tokenizer.nextRecord();
+                 mark = metrics.mark()) {
+                mark = metrics.lap(Stage.TOKENIZE, mark);
+                parseRecord(tokenizer, columns, result);
+                metrics.lap(Stage.BIND, mark);
+                metrics.recordDone();
+            }
+        } catch (IOException e) {
+            result.fatal(e);
+        }
+    }
+
+    private void parseRecord(CsvTokenizer tokenizer, CsvColumns columns, ChunkResult result) {
+        result.totalRows++;
+        if (config.skipEmptyLines() && tokenizer.isBlankRecord()) {
+            return;
+        }
+        
+        int lineNumber = (int) tokenizer.lineNumber();
+        if (tokenizer.error() != null) {
+            logger.debug("Error parsing line {}: {}", lineNumber, tokenizer.error());
+            addError(result.errors, tokenizer, tokenizer.error(), lineNumber, null);
+            return;
+        }
+        try {
+            CsvRecord record = toRecord(tokenizer, columns);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Parsed line {}: {}", lineNumber, record);
+            }
+            result.addRecord(record);
+        } catch (Exception e) {
+            // A corrupted file has an error on every line; the error policy decides what is kept
+            logger.debug("Error parsing line {}: {}", lineNumber, e.getMessage());
+            addError(result.errors, tokenizer, e.getMessage(), lineNumber, e);
+        }
+    }
+
+    /**
+     * Adds an error for the tokenizer's current record, whose text is only read if the error
+     * is kept.
+     */
+    private static void addError(ErrorCollector errors, CsvTokenizer tokenizer, String message, int lineNumber,
+                                 Exception cause) {
+        errors.add(message, lineNumber, ErrorSeverity.ERROR, cause, tokenizer.recordOffset(),
+            tokenizer.recordLength(), tokenizer::recordText);
+    }
+
+    private ParseResult<Map<String, String>> toParseResult(ChunkResult result, Instant start) {
+        ParsingStats stats = toStats(result, start);
+        return new ParseResult<>(result.records, result.errors.errors(), stats);
+    }
+
+    private ParsingStats toStats(ChunkResult result, Instant start) {
         Duration processingTime = Duration.between(start, Instant.now());
-        CsvStats csvStats = CsvStats.create(totalRows, blankFieldCounts.size(), blankFieldCounts);
+        CsvStats csvStats = CsvStats.create(result.totalRows, result.statistics);
         logCsvStats(csvStats, processingTime);
         
-        ParsingStats stats = new ParsingStats(
-            parsedData.size() + errors.size(),
-            parsedData.size(),
-            errors.size(),
+        return new ParsingStats(
+            result.recordCount + result.errors.count(),
+            result.recordCount,
+            result.errors.count(),
             processingTime,
-            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            result.metrics.finish(result.recordCount, result.errors.count()),
+            result.errors.counts()
+        );
+    }
+
+    private <R> ParseResult<R> failedResult(IOException e) {
+        ParseError error = new ParseError("Failed to read CSV file", 0, "", ErrorSeverity.FATAL, e);
+        return new ParseResult<>(
+            new ArrayList<>(),
+            new ArrayList<>(List.of(error)),
+            new ParsingStats(1, 0, 1, Duration.ZERO, 0)
         );
-        
-        return new ParseResult<>(parsedData, errors, stats);
     }
 
-    private void updateBlankFieldCounts(Map<String, String> record) {
-        record.forEach((key, value) -> {
-            if (value == null || value.trim().isEmpty()) {
-                blankFieldCounts.merge(key, 1, Integer::sum);
+    private MetricsRecorder newRecorder(Path file) {
+        return MetricsRecorder.forFile("csv", file, config.batchSize());
+    }
+
+    private CsvColumns columns(CsvHeader fileHeader) {
+        return CsvColumns.of(fileHeader, config.projection());
+    }
+
+    private static CsvHeader readHeader(CsvTokenizer tokenizer) throws IOException {
+        if (!tokenizer.nextRecord()) {
+            throw new IOException("CSV file is empty");
+        }
+        String[] names = new String[tokenizer.fieldCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = tokenizer.field(i);
+        }
+        return CsvHeader.of(names);
+    }
+
+    private FileHeader readHeader(FileChannel channel) throws IOException {
+        try (CsvTokenizer tokenizer = CsvTokenizer.forChannel(channel, config.encoding())) {
+            CsvHeader header = readHeader(tokenizer);
+            return new FileHeader(header, tokenizer.nextRecordOffset(), tokenizer.nextLineNumber());
+        }
+    }
+
+    /**
+     * Header of a file and where its first data record starts.
+     */
+    private record FileHeader(CsvHeader header, long dataStart, long dataLine) {}
+
+    /**
+     * Records, errors and column statistics of one parse call or one chunk of a parallel parse.
+     * In batch mode records and errors go to a {@link BatchCollector} instead of the lists; when
+     * profiling, records are only counted into the statistics.
+     */
+    private static final class ChunkResult {
+        private final CsvHeader header;
+        private final List<Map<String, String>> records;
+        private final ErrorCollector errors;
+        private final BatchCollector<Map<String, String>> batches;
+        private final TableStatistics statistics;
+        private final MetricsRecorder metrics;
+        private int totalRows;
+        private long recordCount;
+
+        ChunkResult(CsvHeader header, ErrorPolicy policy, MetricsRecorder metrics) {
+            this(header, new ArrayList<>(), null, new ErrorCollector(policy), metrics);
+        }
+
+        ChunkResult(CsvHeader header, BatchCollector<Map<String, String>> batches, ErrorPolicy policy,
+                    MetricsRecorder metrics) {
+            this(header, new ArrayList<>(), batches, ErrorCollector.streaming(policy, batches::error), metrics);
+        }
+
+        private ChunkResult(CsvHeader header, List<Map<String, String>> records,
+                            BatchCollector<Map<String, String>> batches, ErrorCollector errors,
+                            MetricsRecorder metrics) {
+            this.header = header;
+            this.statistics = new TableStatistics(header);
+            this.records = records;
+            this.batches = batches;
+            this.errors = errors;
+            this.metrics = metrics;
+        }
+
+        static ChunkResult statisticsOnly(CsvHeader header, ErrorPolicy policy, MetricsRecorder metrics) {
+            return new ChunkResult(header, null, null, new ErrorCollector(policy), metrics);
+        }
+
+        void addRecord(CsvRecord record) {
+            recordCount++;
+            errors.recordParsed();
+            statistics.add(record);
+            if (batches != null) {
+                batches.add(record);
+            } else if (records != null) {
+                records.add(record);
             }
-        });
+        }
+
+        void fatal(IOException e) {
+            errors.add(new ParseError(
+                "Failed to read CSV file",
+                0,
+                "",
+                ErrorSeverity.FATAL,
+                e
+            ));
+        }
+
+        static ChunkResult concat(ChunkResult[] chunks, CsvHeader header, ErrorPolicy policy,
+                                  MetricsRecorder metrics) {
+            int size = 0;
+            for (ChunkResult chunk : chunks) {
+                size += chunk.records.size();
+            }
+            ChunkResult merged = new ChunkResult(header, new ArrayList<>(size), null, new ErrorCollector(policy),
+                metrics);
+            for (ChunkResult chunk : chunks) {
+                metrics.merge(chunk.metrics);
+                merged.records.addAll(chunk.records);
+                merged.errors.merge(chunk.errors);
+                merged.statistics.merge(chunk.statistics);
+                merged.totalRows += chunk.totalRows;
+                merged.recordCount += chunk.recordCount;
+            }
+            return merged;
+        }
     }
 
     private void logCsvStats(CsvStats stats, Duration processingTime) {
@@ -114,74 +660,177 @@ public class CsvParser implements DataParser<Map<String, String>> {
             report.append(String.format("- %s: %d blanks (%.2f%%)\n", field, count, percentage));
         });
         
+        report.append("\nColumn Profile:\n");
+        for (ColumnStatistics column : stats.columnStatistics()) {
+            long values = column.count() - column.blankCount();
+            if (values > 0 && column.numericCount() == values) {
+                report.append(String.format("- %s: ~%d distinct, min %s, median %s, max %s\n",
+                    column.name(), column.distinctCount(), column.min(), column.median(), column.max()));
+            } else {
+                report.append(String.format("- %s: ~%d distinct, min '%s', max '%s'\n",
+                    column.name(), column.distinctCount(), column.minText(), column.maxText()));
+            }
+        }
+        
         logger.info(report.toString());
     }
 
     @Override
     public Stream<Map<String, String>> parseStream(InputStream input, Class<Map<String, String>> targetClass) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(input, config.encoding()));
-        String[] headers;
         try {
-            headers = reader.readLine().split(",");
+            return stream(CsvTokenizer.forStream(input, config.encoding()));
         } catch (IOException e) {
             throw new RuntimeException("Failed to read CSV headers", e);
         }
-        
-        return reader.lines()
-            .filter(line -> !config.skipEmptyLines() || !line.trim().isEmpty())
-            .map(line -> {
+    }
+
+    /**
+     * Streams a CSV file through memory-mapped windows. The stream's spliterator splits the
+     * file into record-aligned chunks, so {@code parseStream(file).parallel()} parses on all
+     * cores. The returned stream must be closed.
+     */
+    public Stream<Map<String, String>> parseStream(Path file) {
+        try {
+            if (!CsvTokenizer.isAsciiCompatible(config.encoding())) {
+                return stream(CsvTokenizer.forStream(Files.newInputStream(file), config.encoding()));
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                FileHeader fileHeader = readHeader(channel);
+                CsvChunkSpliterator spliterator = new CsvChunkSpliterator(
+                    channel,
+                    fileHeader.dataStart(),
+                    channel.size(),
+                    fileHeader.dataLine(),
+                    columns(fileHeader.header()),
+                    config.encoding(),
+                    config.skipEmptyLines()
+                );
+                return StreamSupport.stream(spliterator, false).onClose(() -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV headers", e);
+        }
+    }
+
+    private Stream<Map<String, String>> stream(CsvTokenizer tokenizer) throws IOException {
+        CsvColumns columns;
+        try {
+            columns = columns(readHeader(tokenizer));
+        } catch (IOException | RuntimeException e) {
+            // No stream owns the tokenizer yet to close it
+            tokenizer.close();
+            throw e;
+        }
+        Spliterator<Map<String, String>> spliterator = new Spliterators.AbstractSpliterator<>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Map<String, String>> action) {
                 try {
-                    return parseLine(line, headers);
-                } catch (Exception e) {
-                    logger.error("Error parsing line: {}", line, e);
-                    return null;
+                    while (tokenizer.nextRecord()) {
+                        if (config.skipEmptyLines() && tokenizer.isBlankRecord()) {
+                            continue;
+                        }
+                        if (tokenizer.error() != null) {
+                            logger.debug("Error parsing line {}: {}", tokenizer.lineNumber(), tokenizer.error());
+                            continue;
+                        }
+                        action.accept(toRecord(tokenizer, columns));
+                        return true;
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read CSV record", e);
                 }
-            })
-            .filter(Objects::nonNull);
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                tokenizer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @Override
-    public void validate(InputStream input, Schema schema) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, config.encoding()))) {
-            String[] headers = reader.readLine().split(",");
-            String line;
-            int lineNumber = 1;
-            
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                try {
-                    Map<String, String> record = parseLine(line, headers);
-                    List<String> errors = schema.validate(record);
-                    if (!errors.isEmpty()) {
-                        logger.warn("Validation errors at line {}: {}", lineNumber, errors);
+    public ValidationReport validate(InputStream input, Schema schema, int errorBudget) {
+        SchemaValidator validator = new SchemaValidator(schema, errorBudget, config::reads);
+        try (CsvTokenizer tokenizer = CsvTokenizer.forStream(input, config.encoding())) {
+            CsvHeader header = readHeader(tokenizer);
+            // Like the Map view of a row, the last of several equally named columns counts;
+            // columns outside the projection are not constrained, so they are never decoded
+            int[] fields = new int[header.size()];
+            for (int i = 0; i < fields.length; i++) {
+                String name = header.name(i);
+                fields[i] = header.indexOf(name) == i ? validator.indexOf(name) : -1;
+            }
+
+            while (!validator.isExhausted() && tokenizer.nextRecord()) {
+                if (config.skipEmptyLines() && tokenizer.isBlankRecord()) {
+                    continue;
+                }
+                validator.startRecord(tokenizer.lineNumber());
+                if (tokenizer.error() != null) {
+                    validator.recordError(tokenizer.error());
+                    validator.endRecord();
+                    continue;
+                }
+                int valueCount = Math.min(tokenizer.fieldCount(), fields.length);
+                for (int i = 0; i < valueCount; i++) {
+                    if (fields[i] >= 0) {
+                        validator.checkText(fields[i], tokenizer.field(i));
                     }
-                } catch (Exception e) {
-                    logger.error("Error validating line {}: {}", lineNumber, e.getMessage());
                 }
+                validator.endRecord();
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to validate CSV file", e);
         }
+        return validator.report();
     }
 
-    private Map<String, String> parseLine(String line, String[] headers) {
-        String[] values = line.split(",", -1);
-        Map<String, String> record = new HashMap<>();
-        
-        int maxLength = Math.max(headers.length, values.length);
+    static CsvRecord toRecord(CsvTokenizer tokenizer, CsvColumns columns) {
+        int valueCount = tokenizer.fieldCount();
+        if (columns.isProjected()) {
+            // Only the projected fields are decoded; extra values of the row are not read
+            CsvHeader header = columns.header();
+            String[] values = new String[header.size()];
+            for (int i = 0; i < values.length; i++) {
+                int field = columns.field(i);
+                if (field < valueCount) {
+                    values[i] = tokenizer.field(field);
+                } else {
+                    values[i] = "";
+                    logger.debug("Missing value for header: {}", header.name(i));
+                }
+            }
+            return new CsvRecord(header, values);
+        }
+        CsvHeader header = columns.header();
+        CsvHeader recordHeader = header.widen(valueCount);
+        String[] values = new String[recordHeader.size()];
         
-        for (int i = 0; i < maxLength; i++) {
-            String header = i < headers.length ? headers[i].trim() : "Column" + (i + 1);
-            String value = i < values.length ? values[i].trim() : "";
-            record.put(header, value);
+        for (int i = 0; i < values.length; i++) {
+            String value = i < valueCount ? tokenizer.field(i) : "";
+            values[i] = value;
             
-            if (i >= headers.length) {
-                logger.warn("Extra value found at position {}: {}", i, value);
-            } else if (i >= values.length) {
-                logger.warn("Missing value for header: {}", header);
+            if (i >= header.size()) {
+                logger.debug("Extra value found at position {}: {}", i, value);
+            } else if (i >= valueCount) {
+                logger.debug("Missing value for header: {}", header.name(i));
             }
         }
         
-        return record;
+        return new CsvRecord(recordHeader, values);
     }
-} 
\ No newline at end of file
+} 
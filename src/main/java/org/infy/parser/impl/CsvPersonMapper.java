@@ -1,8 +1,12 @@
 package org.infy.parser.impl;
 
+import org.infy.model.Column;
+import org.infy.model.ColumnarTable;
 import org.infy.model.Person;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class CsvPersonMapper {
@@ -16,6 +20,34 @@ public class CsvPersonMapper {
         return new Person(name, age, city);
     }
     
+    /**
+     * Maps every row of a columnar result. An {@code int} age column is read directly
+     * instead of re-parsing each value.
+     */
+    public static List<Person> mapToPersons(ColumnarTable table) {
+        Column name = table.column("name");
+        Column age = table.column("age");
+        Column city = table.column("city");
+        List<Person> persons = new ArrayList<>(table.rowCount());
+        
+        for (int row = 0; row < table.rowCount(); row++) {
+            int ageValue;
+            if (age instanceof Column.IntColumn ints) {
+                ageValue = ints.getInt(row);
+            } else {
+                ageValue = parseAge(age == null ? null : age.getString(row));
+            }
+            persons.add(new Person(textOrEmpty(name, row), ageValue, textOrEmpty(city, row)));
+        }
+        
+        return persons;
+    }
+    
+    private static String textOrEmpty(Column column, int row) {
+        String value = column == null ? null : column.getString(row);
+        return value == null ? "" : value;
+    }
+    
     private static int parseAge(String ageStr) {
         if (ageStr == null || ageStr.trim().isEmpty()) {
             logger.debug("Age is blank or null, defaulting to 0");
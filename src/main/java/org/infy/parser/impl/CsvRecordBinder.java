@@ -0,0 +1,101 @@
+package org.infy.parser.impl;
+
+import org.infy.binding.RecordBinder;
+import org.infy.model.CsvHeader;
+
+/**
+ * Binds the fields of the tokenizer's current record straight into a record class, with the
+ * header columns matched to components by name once per file.
+ * <p>
+ * Integer components are parsed from the field bytes without decoding them to a string.
+ * String components of missing or unmatched columns are empty, like the values of a
+ * {@link org.infy.model.CsvRecord}; other components get their default.
+ */
+final class CsvRecordBinder<T> {
+    private static final int TEXT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int CONVERTED = 3;
+
+    private final RecordBinder<T> binder;
+    private final Object[] defaults;
+    private final int[] components;
+    private final int[] kinds;
+
+    CsvRecordBinder(Class<T> type, CsvColumns columns) {
+        this.binder = RecordBinder.of(type);
+        this.defaults = binder.newSlots();
+        this.kinds = new int[binder.componentCount()];
+        for (int c = 0; c < kinds.length; c++) {
+            Class<?> componentType = binder.componentType(c);
+            if (componentType == String.class) {
+                kinds[c] = TEXT;
+                defaults[c] = "";
+            } else if (componentType == int.class || componentType == Integer.class) {
+                kinds[c] = INT;
+            } else if (componentType == long.class || componentType == Long.class) {
+                kinds[c] = LONG;
+            } else {
+                kinds[c] = CONVERTED;
+            }
+        }
+
+        CsvHeader header = columns.fileHeader();
+        this.components = new int[header.size()];
+        for (int i = 0; i < components.length; i++) {
+            String name = header.name(i);
+            // Like the Map view of a row, the last of several equally named columns wins;
+            // columns outside the projection are left to their default
+            int component = columns.reads(i) ? binder.indexOf(name) : -1;
+            if (component >= 0 && !binder.canConvert(component)) {
+                throw new IllegalArgumentException("Cannot bind column " + name + " to "
+                    + binder.componentType(component).getName());
+            }
+            components[i] = component;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if a field is not a valid value of its component
+     */
+    T bind(CsvTokenizer tokenizer) {
+        Object[] slots = defaults.clone();
+        int fields = Math.min(tokenizer.fieldCount(), components.length);
+        for (int i = 0; i < fields; i++) {
+            int component = components[i];
+            if (component >= 0) {
+                slots[component] = value(tokenizer, i, component);
+            }
+        }
+        return binder.bind(slots);
+    }
+
+    private Object value(CsvTokenizer tokenizer, int field, int component) {
+        int kind = kinds[component];
+        if (kind == TEXT) {
+            return tokenizer.field(field);
+        }
+        if (tokenizer.isBlank(field)) {
+            return binder.defaultValue(component);
+        }
+        if (kind == INT || kind == LONG) {
+            try {
+                long value = tokenizer.parseLong(field);
+                if (kind == LONG) {
+                    return value;
+                }
+                if (value == (int) value) {
+                    return (int) value;
+                }
+            } catch (NumberFormatException e) {
+                // Padded or otherwise unusual text goes through the regular conversion below
+            }
+        }
+        try {
+            return binder.convert(component, tokenizer.field(field));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + binder.componentName(component)
+                + ": " + tokenizer.field(field), e);
+        }
+    }
+}
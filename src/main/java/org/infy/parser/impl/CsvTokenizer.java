@@ -0,0 +1,744 @@
+package org.infy.parser.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level RFC 4180 CSV tokenizer.
+ * <p>
+ * Records are scanned directly in a {@link ByteBuffer} window - either a reusable heap buffer
+ * filled from an {@link InputStream} or a memory-mapped region of a {@link FileChannel}.
+ * Only field offsets are recorded while scanning; a field's {@code String} is created when
+ * {@link #field(int)} is called. The scan also notes which fields are pure ASCII, so for
+ * UTF-8 input those become Latin-1 compact strings by a plain copy. Quoted fields may contain
+ * delimiters, doubled quotes and line breaks. Unquoted fields are trimmed, matching the
+ * previous {@code split}/{@code trim} behaviour of {@link CsvParser}.
+ * <p>
+ * Instances are not thread-safe. Their field arrays and stream buffer are borrowed from a
+ * per-thread pool and returned on {@link #close()}, so parsing many small inputs on the same
+ * thread does not reallocate them.
+ */
+public class CsvTokenizer implements Closeable {
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final int DEFAULT_MAP_WINDOW = 64 * 1024 * 1024;
+
+    private static final int RECORD = 0;
+    private static final int NEED_MORE = 1;
+    private static final int END = 2;
+
+    private static final byte FLAG_QUOTED = 1;
+    private static final byte FLAG_ESCAPED = 2;
+    private static final byte FLAG_ASCII = 4;
+
+    private static final ThreadLocal<Scratch> POOL = new ThreadLocal<>();
+
+    private final Source source;
+    private final Charset charset;
+    private final boolean asciiAsLatin1;
+    private final Scratch pooled;
+
+    private ByteBuffer buf;
+    private long windowStart;
+    private int limit;
+    private int pos;
+    private boolean eof;
+
+    private int fieldCount;
+    private int[] starts;
+    private int[] ends;
+    private byte[] flags;
+    private int recordStart;
+    private int recordEnd;
+    private long lineNumber;
+    private long nextLineNumber = 1;
+    private String error;
+    private int scanNewlines;
+    private byte[] scratch;
+
+    private CsvTokenizer(Source source, Charset charset, Scratch pooled) {
+        this.source = source;
+        this.charset = charset;
+        // ASCII bytes are the same characters in these, so an ASCII field decodes as Latin-1
+        this.asciiAsLatin1 = charset.equals(StandardCharsets.UTF_8)
+            || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1);
+        this.pooled = pooled;
+        this.starts = pooled.starts;
+        this.ends = pooled.ends;
+        this.flags = pooled.flags;
+        this.scratch = pooled.decode;
+    }
+
+    /**
+     * Creates a tokenizer reading from a stream. Encodings that are not ASCII compatible
+     * (e.g. UTF-16) are transcoded to UTF-8 on the fly so the byte-level scan stays valid.
+     */
+    public static CsvTokenizer forStream(InputStream input, Charset charset) throws IOException {
+        if (!isAsciiCompatible(charset)) {
+            input = new TranscodingInputStream(new InputStreamReader(input, charset));
+            charset = StandardCharsets.UTF_8;
+        }
+        Scratch pooled = acquire();
+        CsvTokenizer tokenizer = new CsvTokenizer(new StreamSource(input, pooled), charset, pooled);
+        tokenizer.init();
+        return tokenizer;
+    }
+
+    /**
+     * Creates a tokenizer over the whole file using memory-mapped windows.
+     */
+    public static CsvTokenizer forChannel(FileChannel channel, Charset charset) throws IOException {
+        return forChannel(channel, 0, channel.size(), charset);
+    }
+
+    /**
+     * Creates a tokenizer over the byte range {@code [start, end)} of a file. The range is
+     * expected to begin and end on record boundaries.
+     */
+    public static CsvTokenizer forChannel(FileChannel channel, long start, long end, Charset charset) throws IOException {
+        if (!isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("Memory-mapped CSV parsing requires an ASCII compatible encoding: " + charset);
+        }
+        CsvTokenizer tokenizer = new CsvTokenizer(new ChannelSource(channel, start, end), charset, acquire());
+        tokenizer.windowStart = start;
+        tokenizer.init();
+        return tokenizer;
+    }
+
+    public static boolean isAsciiCompatible(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)
+            || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1)) {
+            return true;
+        }
+        if (!charset.canEncode()) {
+            return false;
+        }
+        String probe = ",\"\r\n azAZ09";
+        return Arrays.equals(probe.getBytes(charset), probe.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void init() throws IOException {
+        buf = source.refill(null, 0, 0);
+        limit = buf.limit();
+        eof = source.exhausted();
+        // Skip a UTF-8 byte order mark so it does not end up in the first header
+        if (windowStart == 0 && charset.equals(StandardCharsets.UTF_8) && limit >= 3
+            && buf.get(0) == (byte) 0xEF && buf.get(1) == (byte) 0xBB && buf.get(2) == (byte) 0xBF) {
+            pos = 3;
+        }
+    }
+
+    /**
+     * Advances to the next record.
+     * @return false once the input is exhausted
+     */
+    public boolean nextRecord() throws IOException {
+        while (true) {
+            int state = scanRecord();
+            if (state == RECORD) {
+                return true;
+            }
+            if (state == END) {
+                fieldCount = 0;
+                return false;
+            }
+            refill();
+        }
+    }
+
+    private void refill() throws IOException {
+        long keepFrom = windowStart + pos;
+        buf = source.refill(buf, pos, limit);
+        windowStart = keepFrom;
+        limit = buf.limit();
+        pos = 0;
+        eof = source.exhausted();
+    }
+
+    private int scanRecord() {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        int p = pos;
+        if (p >= lim) {
+            return eof ? END : NEED_MORE;
+        }
+
+        int n = 0;
+        scanNewlines = 0;
+        String recordError = null;
+
+        while (true) {
+            while (p < lim && isSpace(b.get(p))) {
+                p++;
+            }
+
+            if (p < lim && b.get(p) == QUOTE) {
+                int contentStart = ++p;
+                byte fieldFlags = FLAG_QUOTED;
+                boolean closed = false;
+                int high = 0;
+                while (p < lim) {
+                    byte c = b.get(p);
+                    high |= c;
+                    if (c == QUOTE) {
+                        if (p + 1 < lim) {
+                            if (b.get(p + 1) == QUOTE) {
+                                fieldFlags |= FLAG_ESCAPED;
+                                p += 2;
+                                continue;
+                            }
+                        } else if (!eof) {
+                            return NEED_MORE;
+                        }
+                        closed = true;
+                        break;
+                    }
+                    countNewline(b, p, lim);
+                    p++;
+                }
+                if (high >= 0) {
+                    fieldFlags |= FLAG_ASCII;
+                }
+                if (!closed) {
+                    if (!eof) {
+                        return NEED_MORE;
+                    }
+                    addField(n++, contentStart, p, fieldFlags);
+                    return finishRecord(p, p, scanNewlines, "Unterminated quoted field");
+                }
+                addField(n++, contentStart, p, fieldFlags);
+                p++;
+                while (p < lim && isSpace(b.get(p))) {
+                    p++;
+                }
+                if (p < lim && !isFieldEnd(b.get(p))) {
+                    recordError = "Unexpected character after closing quote";
+                    p = skipMalformed(p);
+                    if (p < 0) {
+                        return NEED_MORE;
+                    }
+                }
+            } else {
+                int start = p;
+                int high = 0;
+                while (p < lim) {
+                    byte c = b.get(p);
+                    if (isFieldEnd(c) || c == QUOTE) {
+                        break;
+                    }
+                    high |= c;
+                    p++;
+                }
+                int checked = p;
+                if (p < lim && b.get(p) == QUOTE) {
+                    recordError = "Unexpected quote in unquoted field";
+                    p = skipMalformed(p);
+                    if (p < 0) {
+                        return NEED_MORE;
+                    }
+                }
+                int end = p;
+                while (end > start && isSpace(b.get(end - 1))) {
+                    end--;
+                }
+                // A malformed field's skipped tail was not checked, so it is decoded in full
+                addField(n++, start, end, high >= 0 && end <= checked ? FLAG_ASCII : 0);
+            }
+
+            if (p >= lim) {
+                if (!eof) {
+                    return NEED_MORE;
+                }
+                return finishRecord(p, p, scanNewlines, recordError);
+            }
+
+            byte c = b.get(p);
+            if (c == COMMA) {
+                p++;
+                continue;
+            }
+
+            int terminatorStart = p;
+            if (c == CR) {
+                if (p + 1 < lim) {
+                    if (b.get(p + 1) == LF) {
+                        p++;
+                    }
+                } else if (!eof) {
+                    return NEED_MORE;
+                }
+            }
+            return finishRecord(terminatorStart, p + 1, scanNewlines + 1, recordError);
+        }
+    }
+
+    /**
+     * Skips the rest of a malformed field. Every quote toggles the quoted state, which keeps
+     * record boundaries identical to the quote-parity split points of {@link CsvChunkIndex}.
+     * @return the position of the field end, or -1 if more input is needed
+     */
+    private int skipMalformed(int p) {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        boolean quoted = false;
+        for (; p < lim; p++) {
+            byte c = b.get(p);
+            if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (quoted) {
+                countNewline(b, p, lim);
+            } else if (isFieldEnd(c)) {
+                return p;
+            }
+        }
+        return eof ? lim : -1;
+    }
+
+    private void countNewline(ByteBuffer b, int p, int lim) {
+        byte c = b.get(p);
+        if (c == LF || (c == CR && (p + 1 >= lim || b.get(p + 1) != LF))) {
+            scanNewlines++;
+        }
+    }
+
+    private int finishRecord(int end, int next, int newlines, String recordError) {
+        recordStart = pos;
+        recordEnd = end;
+        pos = next;
+        lineNumber = nextLineNumber;
+        nextLineNumber += newlines;
+        error = recordError;
+        return RECORD;
+    }
+
+    private void addField(int index, int start, int end, byte fieldFlags) {
+        if (index == starts.length) {
+            int newLength = index * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+            flags = Arrays.copyOf(flags, newLength);
+        }
+        starts[index] = start;
+        ends[index] = end;
+        flags[index] = fieldFlags;
+        fieldCount = index + 1;
+    }
+
+    private static boolean isFieldEnd(byte c) {
+        return c == COMMA || c == LF || c == CR;
+    }
+
+    private static boolean isSpace(byte c) {
+        return c >= 0 && c <= ' ' && c != LF && c != CR;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Decodes the given field of the current record.
+     */
+    public String field(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        if (length == 0) {
+            return "";
+        }
+        Charset decoding = decoding(flags[index]);
+        if ((flags[index] & FLAG_ESCAPED) != 0) {
+            return unescape(start, length, decoding);
+        }
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + start, length, decoding);
+        }
+        byte[] bytes = scratch(length);
+        buf.get(start, bytes, 0, length);
+        return new String(bytes, 0, length, decoding);
+    }
+
+    /**
+     * Latin-1 for a field the scan found to be ASCII: its bytes are copied into a compact
+     * string as they are, without the decoder checking them again.
+     */
+    private Charset decoding(byte fieldFlags) {
+        return asciiAsLatin1 && (fieldFlags & FLAG_ASCII) != 0 ? StandardCharsets.ISO_8859_1 : charset;
+    }
+
+    private String unescape(int start, int length, Charset decoding) {
+        byte[] bytes = scratch(length);
+        int out = 0;
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            byte c = buf.get(i);
+            bytes[out++] = c;
+            if (c == QUOTE) {
+                i++;
+            }
+        }
+        return new String(bytes, 0, out, decoding);
+    }
+
+    /**
+     * True if the field is empty or only whitespace, without decoding it.
+     */
+    public boolean isBlank(int index) {
+        checkIndex(index);
+        for (int i = starts[index]; i < ends[index]; i++) {
+            byte c = buf.get(i);
+            if (!(c >= 0 && c <= ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the field as a decimal {@code long} straight from the bytes, without decoding it.
+     * @throws NumberFormatException if the field is not an integer or does not fit
+     */
+    public long parseLong(int index) {
+        checkIndex(index);
+        int p = starts[index];
+        int end = ends[index];
+        if ((flags[index] & FLAG_ESCAPED) != 0 || p == end) {
+            throw new NumberFormatException("Not an integer: " + field(index));
+        }
+        boolean negative = false;
+        byte first = buf.get(p);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++p == end) {
+                throw new NumberFormatException("Not an integer: " + field(index));
+            }
+        }
+        // Accumulate negatively so Long.MIN_VALUE is representable
+        long result = 0;
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        for (; p < end; p++) {
+            int digit = buf.get(p) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw new NumberFormatException("Not an integer: " + field(index));
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("Not an integer: " + field(index));
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    public boolean isQuoted(int index) {
+        checkIndex(index);
+        return (flags[index] & FLAG_QUOTED) != 0;
+    }
+
+    /**
+     * True for a record that consists of a single blank, unquoted field, i.e. an empty line.
+     */
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && !isQuoted(0) && isBlank(0);
+    }
+
+    /**
+     * The raw text of the current record, without its line terminator.
+     */
+    public String recordText() {
+        int length = recordEnd - recordStart;
+        byte[] bytes = scratch(length);
+        buf.get(recordStart, bytes, 0, length);
+        return new String(bytes, 0, length, charset);
+    }
+
+    /**
+     * Byte length of the current record, without its line terminator.
+     */
+    public int recordLength() {
+        return recordEnd - recordStart;
+    }
+
+    /**
+     * Absolute byte offset of the current record within the input.
+     */
+    public long recordOffset() {
+        return windowStart + recordStart;
+    }
+
+    /**
+     * Whether the current record ended at a line terminator rather than at the end of the input.
+     */
+    public boolean isTerminated() {
+        return pos > recordEnd;
+    }
+
+    /**
+     * Absolute byte offset just past the current record and its line terminator.
+     */
+    public long nextRecordOffset() {
+        return windowStart + pos;
+    }
+
+    /**
+     * One-based line number on which the current record starts.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * One-based line number on which the next record starts.
+     */
+    public long nextLineNumber() {
+        return nextLineNumber;
+    }
+
+    public void setLineNumber(long nextLineNumber) {
+        this.nextLineNumber = nextLineNumber;
+    }
+
+    /**
+     * Structural problem found in the current record, or null if it is well-formed.
+     */
+    public String error() {
+        return error;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of range for " + fieldCount + " fields");
+        }
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            source.close();
+        } finally {
+            release();
+        }
+    }
+
+    private static Scratch acquire() {
+        Scratch scratch = POOL.get();
+        if (scratch == null) {
+            return new Scratch();
+        }
+        POOL.set(null);
+        return scratch;
+    }
+
+    private void release() {
+        if (buf == null) {
+            return;
+        }
+        pooled.starts = starts;
+        pooled.ends = ends;
+        pooled.flags = flags;
+        pooled.decode = scratch.length <= MAX_POOLED_BUFFER_SIZE ? scratch : new byte[256];
+        buf = null;
+        fieldCount = 0;
+        POOL.set(pooled);
+    }
+
+    /**
+     * Reusable per-thread working memory of a tokenizer.
+     */
+    private static final class Scratch {
+        private byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private byte[] flags = new byte[16];
+        private byte[] decode = new byte[256];
+    }
+
+    private interface Source extends Closeable {
+        /**
+         * Returns a window whose index 0 holds the byte at {@code current[keepFrom]}, with
+         * {@code current[keepFrom, limit)} preserved and more input appended where available.
+         */
+        ByteBuffer refill(ByteBuffer current, int keepFrom, int limit) throws IOException;
+
+        boolean exhausted();
+    }
+
+    private static final class StreamSource implements Source {
+        private final InputStream input;
+        private final Scratch pooled;
+        private boolean exhausted;
+
+        StreamSource(InputStream input, Scratch pooled) {
+            this.input = input;
+            this.pooled = pooled;
+        }
+
+        @Override
+        public ByteBuffer refill(ByteBuffer current, int keepFrom, int limit) throws IOException {
+            byte[] array;
+            int kept = limit - keepFrom;
+            if (current == null) {
+                array = pooled.buffer;
+            } else {
+                array = current.array();
+                if (kept == array.length) {
+                    array = Arrays.copyOf(array, array.length * 2);
+                    if (array.length <= MAX_POOLED_BUFFER_SIZE) {
+                        pooled.buffer = array;
+                    }
+                }
+                System.arraycopy(current.array(), keepFrom, array, 0, kept);
+            }
+
+            int filled = kept;
+            while (filled < array.length) {
+                int read = input.read(array, filled, array.length - filled);
+                if (read < 0) {
+                    exhausted = true;
+                    break;
+                }
+                filled += read;
+            }
+            return ByteBuffer.wrap(array, 0, filled).slice();
+        }
+
+        @Override
+        public boolean exhausted() {
+            return exhausted;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private static final class ChannelSource implements Source {
+        private final FileChannel channel;
+        private final long end;
+        private long mapped;
+        private int window = DEFAULT_MAP_WINDOW;
+
+        ChannelSource(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.end = end;
+            this.mapped = start;
+        }
+
+        @Override
+        public ByteBuffer refill(ByteBuffer current, int keepFrom, int limit) throws IOException {
+            long from = current == null ? mapped : mapped - (limit - keepFrom);
+            if (current != null && keepFrom == 0) {
+                // A single record spans the whole window; map a larger one
+                window = (int) Math.min(Integer.MAX_VALUE - 8, (long) window * 2);
+            }
+            long size = Math.min(window, end - from);
+            ByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, from, size);
+            mapped = from + size;
+            return mappedBuffer;
+        }
+
+        @Override
+        public boolean exhausted() {
+            return mapped >= end;
+        }
+
+        @Override
+        public void close() {
+            // The channel is owned by the caller
+        }
+    }
+
+    /**
+     * Re-encodes characters from a reader as UTF-8 bytes.
+     */
+    private static final class TranscodingInputStream extends InputStream {
+        private final Reader reader;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(8192).flip();
+        private final ByteBuffer bytes = ByteBuffer.allocate(32 * 1024).flip();
+        private boolean eof;
+
+        TranscodingInputStream(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!bytes.hasRemaining() && !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, bytes.remaining());
+            bytes.get(target, off, n);
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            bytes.clear();
+            while (bytes.position() == 0) {
+                if (eof) {
+                    encoder.flush(bytes);
+                    if (bytes.position() == 0) {
+                        bytes.flip();
+                        return false;
+                    }
+                    break;
+                }
+                chars.compact();
+                if (reader.read(chars) < 0) {
+                    eof = true;
+                }
+                chars.flip();
+                CoderResult result = encoder.encode(chars, bytes, eof);
+                if (result.isError()) {
+                    result.throwException();
+                }
+            }
+            bytes.flip();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
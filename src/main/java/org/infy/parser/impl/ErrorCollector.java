@@ -0,0 +1,194 @@
+package org.infy.parser.impl;
+
+import org.infy.model.ErrorPolicy;
+import org.infy.model.ErrorSeverity;
+import org.infy.model.ParseError;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Collects the errors of one parse, or of one chunk of a parallel parse, as its
+ * {@link ErrorPolicy} allows: the first errors in full, a reservoir sample of the rest, and
+ * an exact count of all of them by type. The raw content of an error is only read if the
+ * error is kept, so a corrupted input costs a counter per bad record beyond the limit.
+ * <p>
+ * Parsers report every good record with {@link #recordParsed()} and stop reading once
+ * {@link #aborted()} is set. Not thread-safe; a parallel parse gives every chunk its own
+ * collector and merges them in input order.
+ */
+final class ErrorCollector {
+    private final ErrorPolicy policy;
+    private final Consumer<ParseError> sink;
+    private final List<ParseError> kept = new ArrayList<>();
+    private final List<ParseError> sample = new ArrayList<>();
+    private final Map<String, Long> counts = new HashMap<>();
+    private SplittableRandom random;
+    private long count;
+    private long records;
+    private long overflow;
+    private int keptCount;
+    private ParseError abort;
+
+    private ErrorCollector(ErrorPolicy policy, Consumer<ParseError> sink) {
+        this.policy = policy;
+        this.sink = sink;
+    }
+
+    ErrorCollector(ErrorPolicy policy) {
+        this(policy, null);
+    }
+
+    /**
+     * A collector that hands the errors it keeps to {@code sink} as they come instead of
+     * keeping them, and only counts the rest.
+     */
+    static ErrorCollector streaming(ErrorPolicy policy, Consumer<ParseError> sink) {
+        return new ErrorCollector(policy, sink);
+    }
+
+    void recordParsed() {
+        records++;
+    }
+
+    void add(ParseError error) {
+        add(error.message(), error.lineNumber(), error.cause(), error.severity(), () -> error);
+    }
+
+    /**
+     * Adds a record error whose raw content is read from {@code rawContent} only if the error
+     * is kept.
+     */
+    void add(String message, int lineNumber, ErrorSeverity severity, Exception cause, long offset, int length,
+             Supplier<String> rawContent) {
+        add(message, lineNumber, cause, severity,
+            () -> new ParseError(message, lineNumber, rawContent.get(), severity, cause, offset, length));
+    }
+
+    private void add(String message, int lineNumber, Exception cause, ErrorSeverity severity,
+                     Supplier<ParseError> error) {
+        count++;
+        counts.merge(ParseError.type(message, cause), 1L, Long::sum);
+        // Fatal errors end a parse, so there is at most one per chunk and it is always kept
+        if (keptCount < policy.maxErrors() || severity == ErrorSeverity.FATAL) {
+            keep(error.get());
+        } else if (sink == null) {
+            offer(error);
+        }
+        checkRate(lineNumber);
+    }
+
+    private void keep(ParseError error) {
+        keptCount++;
+        if (sink != null) {
+            sink.accept(error);
+        } else {
+            kept.add(error);
+        }
+    }
+
+    /**
+     * Algorithm R: the n-th error beyond the limit replaces a random sampled one with
+     * probability sampleSize / n.
+     */
+    private void offer(Supplier<ParseError> error) {
+        overflow++;
+        if (sample.size() < policy.sampleSize()) {
+            sample.add(error.get());
+            return;
+        }
+        if (policy.sampleSize() == 0) {
+            return;
+        }
+        if (random == null) {
+            random = new SplittableRandom();
+        }
+        long slot = random.nextLong(overflow);
+        if (slot < policy.sampleSize()) {
+            sample.set((int) slot, error.get());
+        }
+    }
+
+    private void checkRate(int lineNumber) {
+        long seen = records + count;
+        if (abort != null || !policy.limitsRate() || seen < policy.minRecords()
+                || count <= policy.maxErrorRate() * seen) {
+            return;
+        }
+        abort = new ParseError(
+            String.format("Stopped after %d of %d records failed, more than the error rate limit of %s",
+                count, seen, policy.maxErrorRate()),
+            lineNumber,
+            null,
+            ErrorSeverity.FATAL,
+            null
+        );
+        if (sink != null) {
+            sink.accept(abort);
+        }
+    }
+
+    boolean aborted() {
+        return abort != null;
+    }
+
+    /**
+     * Errors counted, kept or not.
+     */
+    long count() {
+        return count;
+    }
+
+    Map<String, Long> counts() {
+        return counts;
+    }
+
+    /**
+     * The kept errors in input order, then the sampled ones by line, then why the parse
+     * stopped early, if it did.
+     */
+    List<ParseError> errors() {
+        List<ParseError> errors = new ArrayList<>(kept.size() + sample.size() + 1);
+        errors.addAll(kept);
+        List<ParseError> sampled = new ArrayList<>(sample);
+        sampled.sort(Comparator.comparingInt(ParseError::lineNumber));
+        errors.addAll(sampled);
+        if (abort != null && sink == null) {
+            errors.add(abort);
+        }
+        return errors;
+    }
+
+    /**
+     * Adds the errors of the chunk that follows the ones merged so far. Errors the chunk kept
+     * beyond this collector's limit join the sample, so the sample of a merged parse is
+     * only roughly uniform.
+     */
+    void merge(ErrorCollector chunk) {
+        count += chunk.count;
+        records += chunk.records;
+        chunk.counts.forEach((type, n) -> counts.merge(type, n, Long::sum));
+        for (ParseError error : chunk.kept) {
+            if (keptCount < policy.maxErrors() || error.severity() == ErrorSeverity.FATAL) {
+                keep(error);
+            } else {
+                offer(() -> error);
+            }
+        }
+        // The chunk's sample stands for all of its overflow, not just the errors in it
+        long chunkOverflow = chunk.overflow;
+        for (ParseError error : chunk.sample) {
+            offer(() -> error);
+        }
+        overflow += Math.max(0, chunkOverflow - chunk.sample.size());
+        if (abort == null) {
+            abort = chunk.abort;
+        }
+    }
+}
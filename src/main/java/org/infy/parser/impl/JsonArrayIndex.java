@@ -0,0 +1,301 @@
+package org.infy.parser.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte ranges of runs of elements of a file holding one top-level JSON array.
+ * <p>
+ * The index is built by a single byte-level scan that only tracks nesting depth, string and
+ * escape state and comments, without tokenizing values. It splits the array into runs of
+ * whole elements of about a megabyte each, and keeps only where each run starts and ends, so
+ * it stays small however many elements the array has. Any sequence of runs {@code [from, to)}
+ * can be bound by its own Jackson parser, so a large array can be parsed on several cores.
+ * An index can be {@link #save saved} next to the file and {@link #load loaded} again for
+ * later passes, as long as the file is unchanged.
+ */
+public final class JsonArrayIndex {
+    private static final int SCAN_WINDOW = 8 * 1024 * 1024;
+    private static final int RUN_SIZE = 1024 * 1024;
+    private static final int MAGIC = 0x4A414952;
+
+    private final long fileSize;
+    private final long lastModified;
+    private final int count;
+    private final int runs;
+    // First element of each run, followed by the element count
+    private final int[] firstElements;
+    private final long[] starts;
+    private final long[] ends;
+
+    private JsonArrayIndex(long fileSize, long lastModified, int count, int runs, int[] firstElements,
+                           long[] starts, long[] ends) {
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.count = count;
+        this.runs = runs;
+        this.firstElements = firstElements;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static JsonArrayIndex build(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return build(channel, Files.getLastModifiedTime(file).toMillis());
+        }
+    }
+
+    static JsonArrayIndex build(FileChannel channel, long lastModified) throws IOException {
+        long size = channel.size();
+        Scanner scanner = new Scanner();
+        for (long windowStart = 0; windowStart < size && !scanner.done; windowStart += SCAN_WINDOW) {
+            int length = (int) Math.min(SCAN_WINDOW, size - windowStart);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            scanner.scan(bytes, windowStart, length);
+        }
+        if (!scanner.started) {
+            throw new IOException("Expected content to be an array");
+        }
+        if (!scanner.done) {
+            throw new IOException("Unexpected end of input inside array");
+        }
+        scanner.firstElements[scanner.runs] = scanner.count;
+        return new JsonArrayIndex(size, lastModified, scanner.count, scanner.runs, scanner.firstElements,
+            scanner.starts, scanner.ends);
+    }
+
+    /**
+     * Loads an index written by {@link #save}.
+     * @throws IOException if the index does not belong to the current version of {@code file}
+     */
+    public static JsonArrayIndex load(Path indexFile, Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a JSON array index: " + indexFile);
+            }
+            long fileSize = in.readLong();
+            long lastModified = in.readLong();
+            if (fileSize != Files.size(file) || lastModified != Files.getLastModifiedTime(file).toMillis()) {
+                throw new IOException("JSON array index is stale for " + file);
+            }
+            int count = in.readInt();
+            int runs = in.readInt();
+            int[] firstElements = new int[runs + 1];
+            long[] starts = new long[runs];
+            long[] ends = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                firstElements[i] = in.readInt();
+                starts[i] = in.readLong();
+                ends[i] = in.readLong();
+            }
+            firstElements[runs] = count;
+            return new JsonArrayIndex(fileSize, lastModified, count, runs, firstElements, starts, ends);
+        }
+    }
+
+    public void save(Path indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeInt(count);
+            out.writeInt(runs);
+            for (int i = 0; i < runs; i++) {
+                out.writeInt(firstElements[i]);
+                out.writeLong(starts[i]);
+                out.writeLong(ends[i]);
+            }
+        }
+    }
+
+    public int elementCount() {
+        return count;
+    }
+
+    public int runCount() {
+        return runs;
+    }
+
+    /**
+     * Zero-based number of the first element of run {@code run}, or the element count for
+     * {@code run == runCount()}.
+     */
+    public int firstElement(int run) {
+        if (run < 0 || run > runs) {
+            throw new IndexOutOfBoundsException("Run " + run + " out of range for " + runs + " runs");
+        }
+        return firstElements[run];
+    }
+
+    /**
+     * Offset of the first byte of the first element of run {@code run}.
+     */
+    public long start(int run) {
+        checkRun(run);
+        return starts[run];
+    }
+
+    /**
+     * Offset just past the last byte of the last element of run {@code run}.
+     */
+    public long end(int run) {
+        checkRun(run);
+        return ends[run];
+    }
+
+    private void checkRun(int run) {
+        if (run < 0 || run >= runs) {
+            throw new IndexOutOfBoundsException("Run " + run + " out of range for " + runs + " runs");
+        }
+    }
+
+    /**
+     * Scanner state, kept across mapped windows.
+     */
+    private static final class Scanner {
+        private static final int NORMAL = 0;
+        private static final int STRING = 1;
+        private static final int ESCAPE = 2;
+        private static final int SLASH = 3;
+        private static final int LINE_COMMENT = 4;
+        private static final int BLOCK_COMMENT = 5;
+        private static final int BLOCK_COMMENT_STAR = 6;
+        private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+        private int[] firstElements = new int[64];
+        private long[] starts = new long[64];
+        private long[] ends = new long[64];
+        private int runs;
+        private int count;
+        private int state = NORMAL;
+        private int depth;
+        private boolean started;
+        private boolean done;
+        // Whether an element is open at depth 1 and where its last significant byte ended
+        private boolean inElement;
+        private long elementEnd;
+
+        void scan(MappedByteBuffer bytes, long base, int length) throws IOException {
+            for (int p = 0; p < length && !done; p++) {
+                byte c = bytes.get(p);
+                switch (state) {
+                    case STRING -> {
+                        // Skip ordinary string content without going through the state switch
+                        while (c != '"' && c != '\\' && p + 1 < length) {
+                            c = bytes.get(++p);
+                        }
+                        if (c == '\\') {
+                            state = ESCAPE;
+                        } else if (c == '"') {
+                            state = NORMAL;
+                            elementEnd = base + p + 1;
+                        }
+                    }
+                    case ESCAPE -> state = STRING;
+                    case SLASH -> {
+                        if (c == '/') {
+                            state = LINE_COMMENT;
+                        } else if (c == '*') {
+                            state = BLOCK_COMMENT;
+                        } else {
+                            throw new IOException("Unexpected character after '/' at offset " + (base + p));
+                        }
+                    }
+                    case LINE_COMMENT -> {
+                        if (c == '\n' || c == '\r') {
+                            state = NORMAL;
+                        }
+                    }
+                    case BLOCK_COMMENT -> {
+                        if (c == '*') {
+                            state = BLOCK_COMMENT_STAR;
+                        }
+                    }
+                    case BLOCK_COMMENT_STAR -> {
+                        if (c == '/') {
+                            state = NORMAL;
+                        } else if (c != '*') {
+                            state = BLOCK_COMMENT;
+                        }
+                    }
+                    default -> normal(c, base + p);
+                }
+            }
+        }
+
+        private void normal(byte c, long offset) throws IOException {
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                return;
+            }
+            if (c == '/') {
+                state = SLASH;
+                return;
+            }
+            if (!started) {
+                if (offset < BOM.length && c == BOM[(int) offset]) {
+                    return;
+                }
+                if (c != '[') {
+                    throw new IOException("Expected content to be an array");
+                }
+                started = true;
+                depth = 1;
+                return;
+            }
+            if (depth == 1) {
+                if (c == ',' || c == ']') {
+                    if (inElement) {
+                        add(elementEnd);
+                    }
+                    if (c == ']') {
+                        depth = 0;
+                        done = true;
+                    }
+                    return;
+                }
+                if (!inElement) {
+                    inElement = true;
+                    if (runs == 0 || offset - starts[runs - 1] >= RUN_SIZE) {
+                        startRun(offset);
+                    }
+                }
+            }
+            if (c == '"') {
+                state = STRING;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+            elementEnd = offset + 1;
+        }
+
+        private void add(long end) {
+            // The run's end moves with each element until the next run starts
+            ends[runs - 1] = end;
+            count++;
+            inElement = false;
+        }
+
+        private void startRun(long offset) {
+            // One spare slot, for the element count after the last run
+            if (runs + 1 == starts.length) {
+                firstElements = Arrays.copyOf(firstElements, runs * 2);
+                starts = Arrays.copyOf(starts, runs * 2);
+                ends = Arrays.copyOf(ends, runs * 2);
+            }
+            firstElements[runs] = count;
+            starts[runs] = offset;
+            runs++;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.infy.parser.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a newline-delimited JSON file into chunks of whole lines.
+ * <p>
+ * Raw line breaks cannot occur inside JSON strings, so every segment can look for its first
+ * {@code \n} on its own. Line breaks are counted per segment in parallel, and a prefix sum
+ * gives the line number each chunk starts at.
+ */
+final class JsonLinesIndex {
+    private static final long MIN_SEGMENT_SIZE = 1L << 20;
+    private static final int MAX_SEGMENT_SIZE = 256 * 1024 * 1024;
+    private static final int SCAN_WINDOW = 8 * 1024 * 1024;
+
+    private final long[] offsets;
+    private final long[] lines;
+
+    private JsonLinesIndex(long[] offsets, long[] lines) {
+        this.offsets = offsets;
+        this.lines = lines;
+    }
+
+    static JsonLinesIndex build(FileChannel channel) throws IOException {
+        long end = channel.size();
+        int targetChunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        long segmentSize = Math.min(MAX_SEGMENT_SIZE, Math.max(MIN_SEGMENT_SIZE, end / Math.max(1, targetChunks)));
+        int segments = (int) Math.max(1, (end + segmentSize - 1) / segmentSize);
+        if (segments == 1) {
+            return new JsonLinesIndex(new long[] {0, end}, new long[] {1});
+        }
+
+        long[] lineBreaks = new long[segments];
+        long[] boundaries = new long[segments];
+        try {
+            IntStream.range(0, segments).parallel().forEach(i -> {
+                try {
+                    long from = i * segmentSize;
+                    int length = (int) (Math.min(end, from + segmentSize) - from);
+                    MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+                    long count = 0;
+                    for (int p = 0; p < length; p++) {
+                        if (bytes.get(p) == '\n') {
+                            count++;
+                        }
+                    }
+                    lineBreaks[i] = count;
+                    boundaries[i] = i == 0 ? 0 : nextLineStart(channel, from, end);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // The first line break at or after a segment start ends the line a chunk starts after
+        long[] chunkOffsets = new long[segments + 1];
+        long[] chunkLines = new long[segments];
+        long linesBefore = 0;
+        int chunks = 0;
+        for (int i = 0; i < segments; i++) {
+            if (boundaries[i] < end && (chunks == 0 || boundaries[i] > chunkOffsets[chunks - 1])) {
+                chunkOffsets[chunks] = boundaries[i];
+                chunkLines[chunks] = i == 0 ? 1 : linesBefore + 2;
+                chunks++;
+            }
+            linesBefore += lineBreaks[i];
+        }
+        chunkOffsets[chunks] = end;
+        return new JsonLinesIndex(Arrays.copyOf(chunkOffsets, chunks + 1), Arrays.copyOf(chunkLines, chunks));
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long end) throws IOException {
+        for (long windowStart = from; windowStart < end; windowStart += SCAN_WINDOW) {
+            int size = (int) Math.min(SCAN_WINDOW, end - windowStart);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+            for (int p = 0; p < size; p++) {
+                if (bytes.get(p) == '\n') {
+                    return windowStart + p + 1;
+                }
+            }
+        }
+        return end;
+    }
+
+    int chunkCount() {
+        return lines.length;
+    }
+
+    long start(int chunk) {
+        return offsets[chunk];
+    }
+
+    long end(int chunk) {
+        return offsets[chunk + 1];
+    }
+
+    long line(int chunk) {
+        return lines[chunk];
+    }
+}
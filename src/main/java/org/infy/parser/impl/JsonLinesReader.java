@@ -0,0 +1,159 @@
+package org.infy.parser.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits newline-delimited JSON into lines without decoding them. Each line is exposed as a
+ * byte range of an internal buffer that can be handed to Jackson directly.
+ * <p>
+ * A trailing {@code \r} is not part of the line, and a UTF-8 byte order mark at the very
+ * start of the input is skipped. JSON strings cannot contain raw line breaks, so every
+ * {@code \n} ends a record.
+ */
+final class JsonLinesReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int scanned;
+    private int limit;
+    // Offset of buffer[0] in the input
+    private long bufferOffset;
+    private boolean eof;
+    private boolean atInputStart;
+    private int lineStart;
+    private int lineEnd;
+    private long lineNumber;
+
+    private JsonLinesReader(InputStream input, long start, long firstLine) {
+        this.input = input;
+        this.bufferOffset = start;
+        this.atInputStart = start == 0;
+        this.lineNumber = firstLine - 1;
+    }
+
+    static JsonLinesReader forStream(InputStream input) {
+        return new JsonLinesReader(input, 0, 1);
+    }
+
+    /**
+     * Reads the lines of {@code [start, end)}; readers over different ranges of one channel
+     * can run concurrently.
+     */
+    static JsonLinesReader forChannel(FileChannel channel, long start, long end, long firstLine) {
+        return new JsonLinesReader(new ChannelInputStream(channel, start, end), start, firstLine);
+    }
+
+    boolean nextLine() throws IOException {
+        while (true) {
+            for (int i = scanned; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    setLine(position, i);
+                    position = i + 1;
+                    scanned = position;
+                    return true;
+                }
+            }
+            scanned = limit;
+            if (eof) {
+                if (position < limit) {
+                    setLine(position, limit);
+                    position = limit;
+                    return true;
+                }
+                return false;
+            }
+            fill();
+        }
+    }
+
+    private void setLine(int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        if (atInputStart && end - start >= 3
+                && buffer[start] == (byte) 0xEF && buffer[start + 1] == (byte) 0xBB && buffer[start + 2] == (byte) 0xBF) {
+            start += 3;
+        }
+        atInputStart = false;
+        lineStart = start;
+        lineEnd = end;
+        lineNumber++;
+    }
+
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            bufferOffset += position;
+            limit -= position;
+            scanned -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            // The current line does not fit, so grow the buffer
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int lineStart() {
+        return lineStart;
+    }
+
+    int lineLength() {
+        return lineEnd - lineStart;
+    }
+
+    /**
+     * Byte offset of the current line in the input, or in the file for a channel reader.
+     */
+    long lineOffset() {
+        return bufferOffset + lineStart;
+    }
+
+    /**
+     * Byte offset just past the current line and its line feed.
+     */
+    long nextLineOffset() {
+        return bufferOffset + position;
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    boolean isBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            byte c = buffer[i];
+            if (!(c >= 0 && c <= ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String lineText() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,128 @@
+package org.infy.parser.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splittable spliterator over the records of a newline-delimited JSON file.
+ * <p>
+ * Like {@link CsvChunkSpliterator}, the line-aligned {@link JsonLinesIndex} is only built on
+ * the first {@link #trySplit()} and splitting hands out a prefix of the remaining chunks.
+ * Lines that fail to bind are skipped and logged at debug level.
+ */
+public class JsonLinesSpliterator<T> implements Spliterator<T> {
+    private static final Logger logger = LoggerFactory.getLogger(JsonLinesSpliterator.class);
+    private final FileChannel channel;
+    private final JsonParser<T> parser;
+    private final Class<T> targetClass;
+    private final double recordSize;
+    private long[] offsets;
+    private long[] lines;
+    private boolean indexed;
+    private int chunk;
+    private int chunkEnd;
+    private JsonLinesReader reader;
+
+    public JsonLinesSpliterator(FileChannel channel, JsonParser<T> parser, Class<T> targetClass) throws IOException {
+        this(channel, parser, targetClass, CsvChunkIndex.estimateRecordSize(channel, 0, channel.size()),
+            new long[] {0, channel.size()}, new long[] {1}, false, 0, 1, null);
+    }
+
+    private JsonLinesSpliterator(FileChannel channel, JsonParser<T> parser, Class<T> targetClass,
+                                 double recordSize, long[] offsets, long[] lines, boolean indexed,
+                                 int chunk, int chunkEnd, JsonLinesReader reader) {
+        this.channel = channel;
+        this.parser = parser;
+        this.targetClass = targetClass;
+        this.recordSize = recordSize;
+        this.offsets = offsets;
+        this.lines = lines;
+        this.indexed = indexed;
+        this.chunk = chunk;
+        this.chunkEnd = chunkEnd;
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+            while (true) {
+                if (reader == null) {
+                    if (chunk >= chunkEnd) {
+                        return false;
+                    }
+                    reader = JsonLinesReader.forChannel(channel, offsets[chunk], offsets[chunk + 1], lines[chunk]);
+                }
+                while (reader.nextLine()) {
+                    if (reader.isBlank()) {
+                        continue;
+                    }
+                    T item;
+                    try {
+                        item = parser.readLine(reader, targetClass);
+                    } catch (IOException e) {
+                        logger.debug("Error parsing JSON line {}: {}", reader.lineNumber(), e.getMessage());
+                        continue;
+                    }
+                    action.accept(item);
+                    return true;
+                }
+                reader = null;
+                chunk++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JSON line", e);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!indexed) {
+            if (reader != null) {
+                return null;
+            }
+            try {
+                JsonLinesIndex index = JsonLinesIndex.build(channel);
+                int count = index.chunkCount();
+                offsets = new long[count + 1];
+                lines = new long[count];
+                for (int i = 0; i < count; i++) {
+                    offsets[i] = index.start(i);
+                    lines[i] = index.line(i);
+                }
+                offsets[count] = index.end(count - 1);
+                chunkEnd = count;
+                indexed = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index JSON lines file", e);
+            }
+        }
+        if (chunkEnd - chunk < 2) {
+            return null;
+        }
+        int mid = (chunk + chunkEnd) >>> 1;
+        // The prefix takes over any chunk that is already being read
+        JsonLinesSpliterator<T> prefix = new JsonLinesSpliterator<>(channel, parser, targetClass,
+            recordSize, offsets, lines, true, chunk, mid, reader);
+        reader = null;
+        chunk = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long remaining = offsets[chunkEnd] - offsets[chunk];
+        return remaining <= 0 ? 0 : (long) Math.ceil(remaining / recordSize);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
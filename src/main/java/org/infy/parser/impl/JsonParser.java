@@ -1,23 +1,51 @@
 package org.infy.parser.impl;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser.Feature;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.infy.metrics.MetricsRecorder;
+import org.infy.metrics.Stage;
 import org.infy.model.*;
 import org.infy.parser.DataParser;
 import org.infy.validation.Schema;
+import org.infy.validation.SchemaValidator;
+import org.infy.validation.ValidationReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+/**
+ * Parses a top-level JSON array of objects, or newline-delimited JSON (JSON Lines) through
+ * the {@code parseLines} methods. The {@code JsonFactory} and {@code ObjectMapper} are
+ * configured once and are thread-safe, so instances can be shared between threads.
+ */
 public class JsonParser<T> implements DataParser<T> {
     private static final Logger logger = LoggerFactory.getLogger(JsonParser.class);
     private final ParserConfig config;
@@ -26,39 +54,406 @@ public class JsonParser<T> implements DataParser<T> {
 
     public JsonParser(ParserConfig config) {
         this.config = config;
-        this.objectMapper = new ObjectMapper();
         this.jsonFactory = new JsonFactory()
             .enable(Feature.ALLOW_COMMENTS)
             .disable(Feature.ALLOW_UNQUOTED_FIELD_NAMES)
             .disable(Feature.ALLOW_SINGLE_QUOTES);
+        this.objectMapper = new ObjectMapper(jsonFactory);
+    }
+
+    private JsonParser(ParserConfig config, JsonFactory jsonFactory, ObjectMapper objectMapper) {
+        this.config = config;
+        this.jsonFactory = jsonFactory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Shares this parser's Jackson factory and mapper, so it is cheap to call per parse.
+     */
+    @Override
+    public JsonParser<T> withProjection(Set<String> fields) {
+        return new JsonParser<>(config.withProjection(fields), jsonFactory, objectMapper);
     }
 
     @Override
     public ParseResult<T> parse(InputStream input, Class<T> targetClass) {
         Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(null);
+        List<T> parsedData = new ArrayList<>();
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+
+        readArray(metrics.count(input), targetClass, 1, metrics, parsedData::add, errors);
+        return toParseResult(parsedData, errors, start, metrics);
+    }
+
+    /**
+     * Parses a file holding one top-level JSON array on the fork-join common pool. A
+     * structural scan first builds a {@link JsonArrayIndex}; runs of elements are then bound
+     * concurrently by separate Jackson parsers and merged back in array order.
+     */
+    public ParseResult<T> parse(Path file, Class<T> targetClass) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(file);
+        try {
+            long indexStart = System.nanoTime();
+            JsonArrayIndex index = JsonArrayIndex.build(file);
+            metrics.addTime(Stage.READ, System.nanoTime() - indexStart);
+            return parse(file, index, targetClass, start, metrics);
+        } catch (IOException e) {
+            return toParseResult(new ArrayList<>(), failed("Failed to parse JSON", e), start, metrics);
+        }
+    }
+
+    /**
+     * Like {@link #parse(Path, Class)}, reusing an index built earlier for the same file.
+     */
+    public ParseResult<T> parse(Path file, JsonArrayIndex index, Class<T> targetClass) {
+        return parse(file, index, targetClass, Instant.now(), newRecorder(file));
+    }
+
+    private ParseResult<T> parse(Path file, JsonArrayIndex index, Class<T> targetClass, Instant start,
+                                 MetricsRecorder metrics) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int runs = index.runCount();
+            int chunks = Math.max(1, Math.min(runs, ForkJoinPool.getCommonPoolParallelism() * 4));
+            logger.debug("Parsing {} elements of {} in {} chunks", index.elementCount(), file, chunks);
+
+            List<List<T>> chunkRecords = new ArrayList<>();
+            ErrorCollector[] chunkErrors = new ErrorCollector[chunks];
+            MetricsRecorder[] chunkMetrics = new MetricsRecorder[chunks];
+            for (int i = 0; i < chunks; i++) {
+                chunkRecords.add(new ArrayList<>());
+            }
+            // This thread helps with the chunks, whose recorders count its allocations meanwhile
+            metrics.pauseAllocations();
+            IntStream.range(0, chunks).parallel().forEach(i -> {
+                int from = (int) ((long) runs * i / chunks);
+                int to = (int) ((long) runs * (i + 1) / chunks);
+                if (from == to) {
+                    return;
+                }
+                MetricsRecorder chunk = MetricsRecorder.forChunk(
+                    "json", file, i, index.start(from), index.end(to - 1), config.batchSize());
+                // A run of elements becomes a valid array once it is wrapped in brackets
+                InputStream input = new SequenceInputStream(Collections.enumeration(List.of(
+                    new ByteArrayInputStream(new byte[] {'['}),
+                    chunk.count(new ChannelInputStream(channel, index.start(from), index.end(to - 1))),
+                    new ByteArrayInputStream(new byte[] {']'})
+                )));
+                ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+                readArray(input, targetClass, index.firstElement(from) + 1, chunk, chunkRecords.get(i)::add, errors);
+                chunk.finish(chunkRecords.get(i).size(), errors.count());
+                chunkMetrics[i] = chunk;
+                chunkErrors[i] = errors;
+            });
+            metrics.resumeAllocations();
+
+            List<T> parsedData = new ArrayList<>(chunkRecords.stream().mapToInt(List::size).sum());
+            chunkRecords.forEach(parsedData::addAll);
+            merge(metrics, chunkMetrics);
+            return toParseResult(parsedData, merge(chunkErrors), start, metrics);
+        } catch (IOException e) {
+            return toParseResult(new ArrayList<>(), failed("Failed to parse JSON", e), start, metrics);
+        }
+    }
+
+    /**
+     * Parses newline-delimited JSON with one value per line. A line that fails to bind
+     * becomes an error for that line number and parsing continues with the next line.
+     */
+    public ParseResult<T> parseLines(InputStream input, Class<T> targetClass) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = MetricsRecorder.forFile("ndjson", null, config.batchSize());
         List<T> parsedData = new ArrayList<>();
-        List<ParseError> errors = new ArrayList<>();
-        int lineNumber = 1;
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+
+        try (JsonLinesReader reader = JsonLinesReader.forStream(metrics.count(input))) {
+            readLines(reader, targetClass, metrics, parsedData::add, errors);
+        } catch (IOException e) {
+            errors.add(new ParseError("Failed to read JSON lines", 0, "", ErrorSeverity.FATAL, e));
+        }
+        return toParseResult(parsedData, errors, start, metrics);
+    }
+
+    /**
+     * Parses a newline-delimited JSON file on the fork-join common pool. The file is split
+     * into line-aligned chunks that are bound concurrently, each with its own Jackson parser,
+     * and merged back in file order with the same line numbers as a sequential parse.
+     */
+    public ParseResult<T> parseLines(Path file, Class<T> targetClass) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = MetricsRecorder.forFile("ndjson", file, config.batchSize());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long indexStart = System.nanoTime();
+            JsonLinesIndex index = JsonLinesIndex.build(channel);
+            metrics.addTime(Stage.READ, System.nanoTime() - indexStart);
+            logger.debug("Parsing {} in {} chunks", file, index.chunkCount());
+
+            List<List<T>> chunkRecords = new ArrayList<>();
+            ErrorCollector[] chunkErrors = new ErrorCollector[index.chunkCount()];
+            MetricsRecorder[] chunkMetrics = new MetricsRecorder[index.chunkCount()];
+            for (int i = 0; i < index.chunkCount(); i++) {
+                chunkRecords.add(new ArrayList<>());
+            }
+            // This thread helps with the chunks, whose recorders count its allocations meanwhile
+            metrics.pauseAllocations();
+            IntStream.range(0, index.chunkCount()).parallel().forEach(i -> {
+                MetricsRecorder chunk = MetricsRecorder.forChunk(
+                    "ndjson", file, i, index.start(i), index.end(i), config.batchSize());
+                chunk.addBytes(index.end(i) - index.start(i));
+                ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+                try (JsonLinesReader reader = JsonLinesReader.forChannel(
+                        channel, index.start(i), index.end(i), index.line(i))) {
+                    readLines(reader, targetClass, chunk, chunkRecords.get(i)::add, errors);
+                } catch (IOException e) {
+                    errors.add(new ParseError("Failed to read JSON lines", 0, "", ErrorSeverity.FATAL, e));
+                }
+                chunk.finish(chunkRecords.get(i).size(), errors.count());
+                chunkMetrics[i] = chunk;
+                chunkErrors[i] = errors;
+            });
+            metrics.resumeAllocations();
+
+            List<T> parsedData = new ArrayList<>(chunkRecords.stream().mapToInt(List::size).sum());
+            chunkRecords.forEach(parsedData::addAll);
+            merge(metrics, chunkMetrics);
+            return toParseResult(parsedData, merge(chunkErrors), start, metrics);
+        } catch (IOException e) {
+            return toParseResult(new ArrayList<>(), failed("Failed to read JSON lines", e), start, metrics);
+        }
+    }
+
+    /**
+     * Parses only the lines appended to a newline-delimited JSON file since the last call
+     * with the same {@code checkpoint}, and moves the checkpoint past the last complete line.
+     * A last line without its line feed is left for the next call. If the file was truncated
+     * or replaced since the checkpoint was taken, it is parsed from the start again.
+     * @throws UncheckedIOException if the file or the checkpoint cannot be read or written
+     */
+    public TailParseResult<T> parseLinesTail(Path file, Path checkpoint, Class<T> targetClass) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = MetricsRecorder.forFile("ndjson", file, config.batchSize());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            TailCheckpoint previous = TailCheckpoint.read(checkpoint, TailCheckpoint.JSON_LINES);
+            if (previous != null && !previous.matches(channel)) {
+                logger.info("{} was truncated or replaced, parsing it from the start", file);
+                previous = null;
+            }
+            long from = previous == null ? 0 : previous.offset();
+            long line = previous == null ? 1 : previous.nextLine();
+            long end = TailCheckpoint.lastLineEnd(channel, from, size);
+
+            List<T> parsedData = new ArrayList<>();
+            ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+            try (JsonLinesReader reader = JsonLinesReader.forChannel(channel, from, end, line)) {
+                readLines(reader, targetClass, metrics, parsedData::add, errors);
+                line = reader.lineNumber() + 1;
+                if (errors.aborted()) {
+                    // Resume after the line that crossed the error limit, not at the end of the data
+                    end = reader.nextLineOffset();
+                }
+            }
+            metrics.addBytes(end - from);
+
+            long validRecords = parsedData.size();
+            long invalidRecords = errors.count();
+            if (previous != null) {
+                validRecords += previous.validRecords();
+                invalidRecords += previous.invalidRecords();
+            }
+            int fingerprintLength = TailCheckpoint.fingerprintLength(end);
+            new TailCheckpoint(TailCheckpoint.JSON_LINES, end, line, fingerprintLength,
+                TailCheckpoint.fingerprint(channel, fingerprintLength), validRecords + invalidRecords,
+                validRecords, invalidRecords, 0, null, null).write(checkpoint);
+
+            ParseResult<T> delta = toParseResult(parsedData, errors, start, metrics);
+            ParsingStats cumulative = new ParsingStats(
+                validRecords + invalidRecords,
+                validRecords,
+                invalidRecords,
+                delta.stats().processingTime(),
+                delta.stats().memoryUsed()
+            );
+            return new TailParseResult<>(delta, cumulative, null, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse the tail of " + file, e);
+        }
+    }
+
+    /**
+     * Streams a newline-delimited JSON file. The stream's spliterator splits the file into
+     * line-aligned chunks, so {@code parseLinesStream(file, type).parallel()} binds on all
+     * cores. The returned stream must be closed.
+     */
+    public Stream<T> parseLinesStream(Path file, Class<T> targetClass) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                JsonLinesSpliterator<T> spliterator = new JsonLinesSpliterator<>(channel, this, targetClass);
+                return StreamSupport.stream(spliterator, false).onClose(() -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create JSON lines stream", e);
+        }
+    }
+
+    private ParseResult<T> toParseResult(List<T> parsedData, ErrorCollector errors, Instant start,
+                                         MetricsRecorder metrics) {
+        ParsingStats stats = new ParsingStats(
+            parsedData.size() + errors.count(),
+            parsedData.size(),
+            errors.count(),
+            Duration.between(start, Instant.now()),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            metrics.finish(parsedData.size(), errors.count()),
+            errors.counts()
+        );
+
+        return new ParseResult<>(parsedData, errors.errors(), stats);
+    }
+
+    private ErrorCollector failed(String message, IOException e) {
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+        errors.add(new ParseError(message, 0, "", ErrorSeverity.FATAL, e));
+        return errors;
+    }
+
+    /**
+     * The errors of the chunks in input order; chunks without elements have none.
+     */
+    private ErrorCollector merge(ErrorCollector[] chunks) {
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+        for (ErrorCollector chunk : chunks) {
+            if (chunk != null) {
+                errors.merge(chunk);
+            }
+        }
+        return errors;
+    }
+
+    private MetricsRecorder newRecorder(Path file) {
+        return MetricsRecorder.forFile("json", file, config.batchSize());
+    }
+
+    private static void merge(MetricsRecorder metrics, MetricsRecorder[] chunks) {
+        for (MetricsRecorder chunk : chunks) {
+            if (chunk != null) {
+                metrics.merge(chunk);
+            }
+        }
+    }
+
+    private void readLines(JsonLinesReader reader, Class<T> targetClass, MetricsRecorder metrics,
+                           Consumer<T> records, ErrorCollector errors) throws IOException {
+        for (long mark = metrics.mark(); !errors.aborted() && reader.nextLine(); mark = metrics.mark()) {
+            mark = metrics.lap(Stage.TOKENIZE, mark);
+            if (reader.isBlank()) {
+                if (!config.skipEmptyLines()) {
+                    errors.add(new ParseError(
+                        "Empty JSON line", (int) reader.lineNumber(), "", ErrorSeverity.ERROR, null,
+                        reader.lineOffset(), reader.lineLength()));
+                }
+                continue;
+            }
+            T item;
+            try {
+                item = readLine(reader, targetClass);
+            } catch (IOException | RuntimeException e) {
+                errors.add("Failed to parse JSON line", (int) reader.lineNumber(), ErrorSeverity.ERROR, e,
+                    reader.lineOffset(), reader.lineLength(), reader::lineText);
+                metrics.recordDone();
+                continue;
+            }
+            records.accept(item);
+            errors.recordParsed();
+            metrics.lap(Stage.BIND, mark);
+            metrics.recordDone();
+        }
+    }
+
+    /**
+     * Binds the reader's current line, which must hold exactly one non-null JSON value.
+     */
+    T readLine(JsonLinesReader reader, Class<T> targetClass) throws IOException {
+        try (com.fasterxml.jackson.core.JsonParser parser =
+                 jsonFactory.createParser(reader.buffer(), reader.lineStart(), reader.lineLength())) {
+            T item = JsonRecordBinder.readValue(parser, objectMapper, targetClass, config.projection());
+            if (item == null) {
+                throw new JsonParseException(parser, "Expected a JSON value but got null");
+            }
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after JSON value");
+            }
+            return item;
+        }
+    }
+
+    @Override
+    public ParsingStats parseBatches(InputStream input, Class<T> targetClass, Consumer<RecordBatch<T>> sink) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(null);
+        BatchCollector<T> batches = new BatchCollector<>(config.batchSize(), sink);
+        ErrorCollector errors = ErrorCollector.streaming(config.errorPolicy(), batches::error);
+
+        readArray(metrics.count(input), targetClass, 1, metrics, batches::add, errors);
+        batches.flush();
+
+        return new ParsingStats(
+            batches.recordCount() + errors.count(),
+            batches.recordCount(),
+            errors.count(),
+            Duration.between(start, Instant.now()),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            metrics.finish(batches.recordCount(), errors.count()),
+            errors.counts()
+        );
+    }
+
+    /**
+     * Reads the elements of an array; {@code firstElement} is the number reported for the
+     * first one when the input is a slice of a larger array.
+     */
+    private void readArray(InputStream input, Class<T> targetClass, int firstElement, MetricsRecorder metrics,
+                           Consumer<T> records, ErrorCollector errors) {
+        int lineNumber = firstElement;
 
         try (com.fasterxml.jackson.core.JsonParser parser = jsonFactory.createParser(input)) {
             // Check if input starts with an array
             if (parser.nextToken() != JsonToken.START_ARRAY) {
                 throw new IllegalStateException("Expected content to be an array");
             }
+            JsonStreamContext arrayContext = parser.getParsingContext();
 
-            while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonToken token;
+            // Jackson tokenizes an element while binding it, so all of its time counts as binding
+            for (long mark = metrics.mark();
+                    !errors.aborted() && (token = parser.nextToken()) != JsonToken.END_ARRAY;
+                    mark = metrics.mark()) {
+                if (token == null) {
+                    throw new IllegalStateException("Unexpected end of input inside array");
+                }
                 try {
-                    T item = objectMapper.readValue(parser, targetClass);
-                    parsedData.add(item);
-                } catch (Exception e) {
-                    errors.add(new ParseError(
-                        "Failed to parse JSON object",
-                        lineNumber,
-                        parser.getCurrentLocation().toString(),
-                        ErrorSeverity.ERROR,
-                        e
-                    ));
+                    T item = JsonRecordBinder.readValue(parser, objectMapper, targetClass, config.projection());
+                    records.accept(item);
+                    errors.recordParsed();
+                } catch (DatabindException e) {
+                    errors.add("Failed to parse JSON object", lineNumber, ErrorSeverity.ERROR, e, -1, 0,
+                        () -> parser.getCurrentLocation().toString());
+                    // Continue with the next element rather than the middle of this one
+                    JsonSpliterator.skipRestOfElement(parser, arrayContext);
                 }
+                metrics.lap(Stage.BIND, mark);
+                metrics.recordDone();
                 lineNumber++;
             }
         } catch (Exception e) {
@@ -70,16 +465,6 @@ public class JsonParser<T> implements DataParser<T> {
                 e
             ));
         }
-
-        ParsingStats stats = new ParsingStats(
-            parsedData.size() + errors.size(),
-            parsedData.size(),
-            errors.size(),
-            Duration.between(start, Instant.now()),
-            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()
-        );
-
-        return new ParseResult<>(parsedData, errors, stats);
     }
 
     @Override
@@ -87,7 +472,7 @@ public class JsonParser<T> implements DataParser<T> {
         try {
             com.fasterxml.jackson.core.JsonParser parser = jsonFactory.createParser(input);
             return StreamSupport.stream(
-                new JsonSpliterator<>(parser, objectMapper, targetClass),
+                new JsonSpliterator<>(parser, objectMapper, targetClass, config.projection()),
                 false
             );
         } catch (Exception e) {
@@ -95,8 +480,116 @@ public class JsonParser<T> implements DataParser<T> {
         }
     }
 
+    /**
+     * Streams the elements of a file holding one top-level JSON array. The first split of
+     * the stream indexes the file, so {@code parseStream(file, type).parallel()} binds on all
+     * cores. The returned stream must be closed.
+     */
+    public Stream<T> parseStream(Path file, Class<T> targetClass) {
+        return parseStream(file, null, targetClass);
+    }
+
+    /**
+     * Like {@link #parseStream(Path, Class)}, reusing an index built earlier for the same file.
+     */
+    public Stream<T> parseStream(Path file, JsonArrayIndex index, Class<T> targetClass) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            return StreamSupport.stream(
+                new JsonSpliterator<>(channel, index, jsonFactory, objectMapper, targetClass, config.projection()),
+                false
+            ).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create JSON stream", e);
+        }
+    }
+
     @Override
-    public void validate(InputStream input, Schema schema) {
-        throw new UnsupportedOperationException("JSON schema validation not implemented yet");
+    public ValidationReport validate(InputStream input, Schema schema, int errorBudget) {
+        SchemaValidator validator = new SchemaValidator(schema, errorBudget, config::reads);
+        // Elements of a top-level array are records, as are top-level objects (one per line in JSON Lines)
+        try (com.fasterxml.jackson.core.JsonParser parser = jsonFactory.createParser(input)) {
+            JsonToken token;
+            while (!validator.isExhausted() && (token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_ARRAY) {
+                    validateElement(parser, token, validator);
+                    continue;
+                }
+                while (!validator.isExhausted() && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of input inside array");
+                    }
+                    validateElement(parser, token, validator);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            validator.fatal(e.getLocation() != null ? e.getLocation().getLineNr() : 0,
+                "Failed to parse JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            validator.fatal(0, "Failed to read JSON: " + e.getMessage());
+        }
+        return validator.report();
+    }
+
+    /**
+     * Checks one record from the token stream; only values with a custom validation are
+     * materialized, everything else is checked by token type and length or skipped.
+     */
+    private void validateElement(com.fasterxml.jackson.core.JsonParser parser, JsonToken token,
+                                 SchemaValidator validator) throws IOException {
+        validator.startRecord(parser.getTokenLocation().getLineNr());
+        if (token != JsonToken.START_OBJECT) {
+            validator.recordError("Expected a JSON object but found " + token);
+            parser.skipChildren();
+            validator.endRecord();
+            return;
+        }
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            token = parser.nextToken();
+            int field = validator.indexOf(name);
+            if (field < 0) {
+                parser.skipChildren();
+                continue;
+            }
+            boolean needsValue = validator.needsValue(field);
+            switch (token) {
+                case VALUE_STRING -> validator.checkValue(field, String.class, parser.getTextLength(),
+                    needsValue ? parser.getText() : null);
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> validator.checkValue(field,
+                    numberClass(parser.getNumberType()), -1, needsValue ? parser.getNumberValue() : null);
+                case VALUE_TRUE, VALUE_FALSE -> validator.checkValue(field, Boolean.class, -1,
+                    token == JsonToken.VALUE_TRUE);
+                case START_OBJECT, START_ARRAY -> {
+                    Class<?> type = token == JsonToken.START_OBJECT ? Map.class : List.class;
+                    if (needsValue) {
+                        validator.checkValue(field, type, -1, objectMapper.readValue(parser, Object.class));
+                    } else {
+                        parser.skipChildren();
+                        validator.checkValue(field, type, -1, null);
+                    }
+                }
+                case VALUE_NULL -> validator.checkValue(field, null, -1, null);
+                default -> parser.skipChildren();
+            }
+        }
+        validator.endRecord();
+    }
+
+    private static Class<?> numberClass(com.fasterxml.jackson.core.JsonParser.NumberType numberType) {
+        return switch (numberType) {
+            case INT -> Integer.class;
+            case LONG -> Long.class;
+            case BIG_INTEGER -> BigInteger.class;
+            case FLOAT -> Float.class;
+            case DOUBLE -> Double.class;
+            case BIG_DECIMAL -> BigDecimal.class;
+        };
     }
 } 
\ No newline at end of file
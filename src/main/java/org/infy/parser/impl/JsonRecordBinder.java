@@ -0,0 +1,195 @@
+package org.infy.parser.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.infy.binding.RecordBinder;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.RecordComponent;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads a JSON object straight from the token stream into a record's constructor slots,
+ * instead of going through {@code ObjectMapper.readValue} for every element.
+ * <p>
+ * Used for records without Jackson annotations. Scalars are converted like Jackson's
+ * defaults do: numbers and strings are coerced to the component type, nulls give the
+ * component default and unknown properties are an error. Components of types the
+ * {@link RecordBinder} cannot convert are read with the {@code ObjectMapper}.
+ * <p>
+ * With a projection, the subtrees of other top-level properties are skipped without being
+ * bound; for the {@code ObjectMapper} the projected properties are buffered first.
+ */
+final class JsonRecordBinder<T> {
+    private static final ClassValue<Optional<JsonRecordBinder<?>>> CACHE = new ClassValue<>() {
+        @Override
+        protected Optional<JsonRecordBinder<?>> computeValue(Class<?> type) {
+            return supports(type) ? Optional.of(new JsonRecordBinder<>(RecordBinder.of(type))) : Optional.empty();
+        }
+    };
+
+    private final RecordBinder<T> binder;
+
+    private JsonRecordBinder(RecordBinder<T> binder) {
+        this.binder = binder;
+    }
+
+    /**
+     * @return the binder for {@code type}, or null if it has to be read by the ObjectMapper
+     */
+    @SuppressWarnings("unchecked")
+    static <T> JsonRecordBinder<T> forClass(Class<T> type) {
+        return (JsonRecordBinder<T>) CACHE.get(type).orElse(null);
+    }
+
+    /**
+     * Reads one value with the binder for {@code type} if there is one, or the ObjectMapper.
+     * @param projection the top-level properties to read, or null for all
+     */
+    static <T> T readValue(JsonParser parser, ObjectMapper objectMapper, Class<T> type, Set<String> projection)
+            throws IOException {
+        JsonRecordBinder<T> binder = forClass(type);
+        if (binder == null && projection == null) {
+            return objectMapper.readValue(parser, type);
+        }
+        if (parser.currentToken() == null && parser.nextToken() == null) {
+            throw MismatchedInputException.from(parser, type, "No content to map due to end-of-input");
+        }
+        if (binder == null) {
+            return parser.currentToken() == JsonToken.START_OBJECT
+                ? objectMapper.readValue(project(parser, projection), type)
+                : objectMapper.readValue(parser, type);
+        }
+        return binder.read(parser, objectMapper, projection);
+    }
+
+    /**
+     * Buffers the projected properties of the object at the parser's current token and skips
+     * the others, leaving the parser on the object's end.
+     */
+    private static JsonParser project(JsonParser parser, Set<String> projection) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.writeStartObject();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if (projection.contains(name)) {
+                buffer.writeFieldName(name);
+                buffer.copyCurrentStructure(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        buffer.writeEndObject();
+        JsonParser projected = buffer.asParser(parser);
+        projected.nextToken();
+        return projected;
+    }
+
+    /**
+     * Reads the value at the parser's current token, which is left on the value's last token.
+     * @param projection the properties to read, or null for all; others keep their default
+     */
+    T read(JsonParser parser, ObjectMapper objectMapper, Set<String> projection) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, binder.type(),
+                "Cannot deserialize " + binder.type().getSimpleName() + " from " + token);
+        }
+        Object[] slots = binder.newSlots();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            if (projection != null && !projection.contains(name)) {
+                parser.nextToken();
+                parser.skipChildren();
+                continue;
+            }
+            int component = binder.indexOf(name);
+            if (component < 0) {
+                throw MismatchedInputException.from(parser, binder.type(),
+                    "Unrecognized field \"" + name + "\" for " + binder.type().getSimpleName());
+            }
+            token = parser.nextToken();
+            slots[component] = readComponent(parser, objectMapper, token, component);
+        }
+        try {
+            return binder.bind(slots);
+        } catch (RuntimeException e) {
+            throw MismatchedInputException.from(parser, binder.type(),
+                "Cannot construct " + binder.type().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private Object readComponent(JsonParser parser, ObjectMapper objectMapper, JsonToken token, int component)
+            throws IOException {
+        Class<?> type = binder.componentType(component);
+        if (!binder.canConvert(component)) {
+            return objectMapper.readValue(parser, type);
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return binder.defaultValue(component);
+        }
+        if (!token.isScalarValue()) {
+            throw MismatchedInputException.from(parser, type,
+                "Cannot deserialize " + type.getSimpleName() + " from " + token + " for field \"" + binder.componentName(component) + "\"");
+        }
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                if (type == int.class || type == Integer.class) {
+                    return parser.getIntValue();
+                }
+                if (type == long.class || type == Long.class) {
+                    return parser.getLongValue();
+                }
+                if (type == double.class || type == Double.class) {
+                    return parser.getDoubleValue();
+                }
+            } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                if (type == double.class || type == Double.class) {
+                    return parser.getDoubleValue();
+                }
+                if (type == int.class || type == Integer.class) {
+                    return (int) parser.getDoubleValue();
+                }
+                if (type == long.class || type == Long.class) {
+                    return (long) parser.getDoubleValue();
+                }
+            }
+            return binder.convert(component, parser.getText());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw MismatchedInputException.from(parser, type,
+                "Invalid value for field \"" + binder.componentName(component) + "\": " + e.getMessage());
+        }
+    }
+
+    private static boolean supports(Class<?> type) {
+        if (!type.isRecord() || hasJacksonAnnotation(type.getAnnotations())) {
+            return false;
+        }
+        for (RecordComponent component : type.getRecordComponents()) {
+            if (hasJacksonAnnotation(component.getAnnotations())
+                    || (component.getAccessor() != null && hasJacksonAnnotation(component.getAccessor().getAnnotations()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasJacksonAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType().getName().startsWith("com.fasterxml.jackson.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,64 +1,222 @@
 package org.infy.parser.impl;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 
+/**
+ * Spliterator over the elements of a top-level JSON array.
+ * <p>
+ * Over a plain stream the array is read sequentially. Over a file the spliterator can split:
+ * the first {@link #trySplit()} builds a {@link JsonArrayIndex} (unless one was given), and
+ * from then on every spliterator covers a sequence of the index's runs of elements, which it
+ * binds with its own Jackson parser. Elements that fail to bind are skipped and logged at debug level; malformed JSON
+ * ends the stream.
+ */
 public class JsonSpliterator<T> implements Spliterator<T> {
     private static final Logger logger = LoggerFactory.getLogger(JsonSpliterator.class);
-    private final JsonParser parser;
+    private static final byte[] OPEN = {'['};
+    private static final byte[] CLOSE = {']'};
     private final ObjectMapper objectMapper;
     private final Class<T> targetClass;
+    private final Set<String> projection;
+    private final FileChannel channel;
+    private final JsonFactory jsonFactory;
+    private JsonParser parser;
+    private JsonStreamContext arrayContext;
     private boolean started = false;
+    private JsonArrayIndex index;
+    // Runs [run, endRun) of the index, holding elements [next, end)
+    private int run;
+    private int endRun;
+    private int next;
+    private int end;
 
     public JsonSpliterator(JsonParser parser, ObjectMapper objectMapper, Class<T> targetClass) {
-        this.parser = parser;
+        this(parser, objectMapper, targetClass, null);
+    }
+
+    /**
+     * @param projection the top-level properties to bind, or null for all
+     */
+    JsonSpliterator(JsonParser parser, ObjectMapper objectMapper, Class<T> targetClass, Set<String> projection) {
+        this(objectMapper, targetClass, projection, null, null, parser, null, 0, 0, 0, 0);
+    }
+
+    /**
+     * Splittable spliterator over a file; {@code index} may be null to build it on the first split.
+     */
+    public JsonSpliterator(FileChannel channel, JsonArrayIndex index, JsonFactory jsonFactory,
+                           ObjectMapper objectMapper, Class<T> targetClass) {
+        this(channel, index, jsonFactory, objectMapper, targetClass, null);
+    }
+
+    JsonSpliterator(FileChannel channel, JsonArrayIndex index, JsonFactory jsonFactory,
+                    ObjectMapper objectMapper, Class<T> targetClass, Set<String> projection) {
+        this(objectMapper, targetClass, projection, channel, jsonFactory, null, index, 0,
+            index == null ? 0 : index.runCount(), 0, index == null ? 0 : index.elementCount());
+    }
+
+    private JsonSpliterator(ObjectMapper objectMapper, Class<T> targetClass, Set<String> projection,
+                            FileChannel channel, JsonFactory jsonFactory, JsonParser parser, JsonArrayIndex index,
+                            int run, int endRun, int next, int end) {
         this.objectMapper = objectMapper;
         this.targetClass = targetClass;
+        this.projection = projection;
+        this.channel = channel;
+        this.jsonFactory = jsonFactory;
+        this.parser = parser;
+        this.index = index;
+        this.run = run;
+        this.endRun = endRun;
+        this.next = next;
+        this.end = end;
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super T> action) {
         try {
-            if (!started) {
+            while (true) {
+                if (index != null && next >= end) {
+                    close();
+                    return false;
+                }
+                if (!started) {
+                    start();
+                }
+
                 JsonToken token = parser.nextToken();
-                if (token != JsonToken.START_ARRAY) {
-                    throw new IllegalStateException("Expected content to be an array");
+                if (token == JsonToken.END_ARRAY || token == null) {
+                    close();
+                    return false;
                 }
-                started = true;
-            }
+                next++;
 
-            JsonToken token = parser.nextToken();
-            if (token == JsonToken.END_ARRAY) {
-                return false;
+                T item;
+                try {
+                    item = JsonRecordBinder.readValue(parser, objectMapper, targetClass, projection);
+                } catch (DatabindException e) {
+                    logger.debug("Error binding JSON element {}: {}", next, e.getOriginalMessage());
+                    skipRestOfElement(parser, arrayContext);
+                    continue;
+                }
+                action.accept(item);
+                return true;
             }
-
-            T item = objectMapper.readValue(parser, targetClass);
-            action.accept(item);
-            return true;
         } catch (Exception e) {
             logger.error("Error reading JSON stream", e);
+            close();
             return false;
         }
     }
 
+    private void start() throws IOException {
+        if (parser == null) {
+            InputStream input;
+            if (index == null) {
+                input = new ChannelInputStream(channel, 0, channel.size());
+            } else {
+                // A run of elements becomes a valid array once it is wrapped in brackets
+                input = new SequenceInputStream(Collections.enumeration(List.of(
+                    new ByteArrayInputStream(OPEN),
+                    new ChannelInputStream(channel, index.start(run), index.end(endRun - 1)),
+                    new ByteArrayInputStream(CLOSE)
+                )));
+            }
+            parser = jsonFactory.createParser(input);
+        }
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalStateException("Expected content to be an array");
+        }
+        arrayContext = parser.getParsingContext();
+        started = true;
+    }
+
+    /**
+     * After an element failed to bind, skips the rest of it so the parser is back in the array.
+     */
+    static void skipRestOfElement(JsonParser parser, JsonStreamContext arrayContext) throws IOException {
+        while (parser.getParsingContext() != arrayContext) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
     @Override
     public Spliterator<T> trySplit() {
-        return null; // JSON parsing is sequential in this implementation
+        if (channel == null) {
+            return null; // a plain stream can only be read sequentially
+        }
+        if (index == null) {
+            if (started) {
+                return null;
+            }
+            try {
+                index = JsonArrayIndex.build(channel, 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index JSON array", e);
+            }
+            endRun = index.runCount();
+            end = index.elementCount();
+        }
+        // Runs whose elements the parser has already reached stay with the prefix
+        int unread = run;
+        while (unread < endRun && index.firstElement(unread) < next) {
+            unread++;
+        }
+        int mid = Math.max(run + 1, (unread + endRun) >>> 1);
+        if (mid >= endRun) {
+            return null;
+        }
+        // The prefix takes over any parser that is already reading these runs
+        JsonSpliterator<T> prefix = new JsonSpliterator<>(objectMapper, targetClass, projection, channel,
+            jsonFactory, parser, index, run, mid, next, index.firstElement(mid));
+        prefix.started = started;
+        prefix.arrayContext = arrayContext;
+        parser = null;
+        arrayContext = null;
+        started = false;
+        run = mid;
+        next = index.firstElement(mid);
+        return prefix;
     }
 
     @Override
     public long estimateSize() {
-        return Long.MAX_VALUE;
+        return index == null ? Long.MAX_VALUE : end - next;
     }
 
     @Override
     public int characteristics() {
+        // Not SIZED: elements that fail to bind are skipped
         return ORDERED | NONNULL;
     }
-} 
\ No newline at end of file
+
+    private void close() {
+        if (parser != null && channel != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close JSON parser", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.infy.parser.impl;
+
+import org.infy.binding.RecordBinder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the child elements of each record element to the components of a record class with
+ * the same names, through a {@link RecordBinder} instead of hand-written per-type code.
+ * The component names are the mapper's {@link #getPaths() paths}, so parsers read only those
+ * child elements.
+ * <p>
+ * A missing or blank value of a primitive component is an error, like text that does not
+ * convert; a component of a wrapper type is null then. Components outside a projection get
+ * their default.
+ */
+public class RecordXmlMapper<T extends Record> implements XmlPathMapper<T> {
+    private final RecordBinder<T> binder;
+    private final String rootElement;
+    private final List<String> paths;
+    // Components that must have a value: the primitive ones that are read
+    private final boolean[] required;
+
+    public RecordXmlMapper(Class<T> type, String rootElement) {
+        this(type, rootElement, null);
+    }
+
+    private RecordXmlMapper(Class<T> type, String rootElement, Set<String> projection) {
+        this.binder = RecordBinder.of(type);
+        this.rootElement = rootElement;
+        List<String> names = new ArrayList<>(binder.componentCount());
+        this.required = new boolean[binder.componentCount()];
+        for (int i = 0; i < binder.componentCount(); i++) {
+            String name = binder.componentName(i);
+            names.add(name);
+            required[i] = binder.componentType(i).isPrimitive() && (projection == null || projection.contains(name));
+        }
+        this.paths = Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public RecordXmlMapper<T> withProjection(Set<String> fields) {
+        return new RecordXmlMapper<>(binder.type(), rootElement, fields);
+    }
+
+    @Override
+    public T mapToObject(Map<String, String> elements, Class<T> targetClass) {
+        for (int i = 0; i < required.length; i++) {
+            if (required[i]) {
+                checkPresent(i, elements.get(binder.componentName(i)));
+            }
+        }
+        return binder.bind(elements);
+    }
+
+    @Override
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public T mapToObject(String[] values, Class<T> targetClass) {
+        Object[] slots = binder.newSlots();
+        for (int i = 0; i < values.length; i++) {
+            if (required[i]) {
+                checkPresent(i, values[i]);
+            }
+            if (values[i] != null) {
+                slots[i] = binder.convert(i, values[i]);
+            }
+        }
+        return binder.bind(slots);
+    }
+
+    @Override
+    public String getRootElement() {
+        return rootElement;
+    }
+
+    private void checkPresent(int component, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing value for " + binder.componentName(component));
+        }
+    }
+}
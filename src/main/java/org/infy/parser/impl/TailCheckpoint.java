@@ -0,0 +1,172 @@
+package org.infy.parser.impl;
+
+import org.infy.model.CsvHeader;
+import org.infy.stats.TableStatistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Where an incremental parse of an append-only file stopped, and what it had seen by then.
+ * <p>
+ * Besides the offset and line number of the next record, a checkpoint holds a CRC-32 of the
+ * first bytes of the file. A file that is shorter than the offset, or whose first bytes
+ * changed, has been truncated or replaced and is parsed from the start again.
+ */
+record TailCheckpoint(
+    int format,
+    long offset,
+    long nextLine,
+    int fingerprintLength,
+    long fingerprint,
+    long totalRecords,
+    long validRecords,
+    long invalidRecords,
+    long totalRows,
+    CsvHeader header,
+    TableStatistics statistics
+) {
+    static final int CSV = 0;
+    static final int JSON_LINES = 1;
+    private static final int MAGIC = 0x54434B31; // "TCK1"
+    private static final int FINGERPRINT_LENGTH = 4096;
+
+    /**
+     * @return the checkpoint, or null if there is none yet
+     * @throws IOException if the checkpoint cannot be read or is of another format
+     */
+    static TailCheckpoint read(Path file, int format) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != format) {
+                throw new IOException("Not a checkpoint of this format: " + file);
+            }
+            long offset = in.readLong();
+            long nextLine = in.readLong();
+            int fingerprintLength = in.readInt();
+            long fingerprint = in.readLong();
+            long totalRecords = in.readLong();
+            long validRecords = in.readLong();
+            long invalidRecords = in.readLong();
+            long totalRows = in.readLong();
+            CsvHeader header = null;
+            TableStatistics statistics = null;
+            if (in.readBoolean()) {
+                String[] names = new String[in.readInt()];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = in.readUTF();
+                }
+                header = CsvHeader.of(names);
+                statistics = TableStatistics.readFrom(in);
+            }
+            return new TailCheckpoint(format, offset, nextLine, fingerprintLength, fingerprint,
+                totalRecords, validRecords, invalidRecords, totalRows, header, statistics);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the checkpoint file atomically, so a run that fails halfway leaves the previous
+     * checkpoint in place.
+     */
+    void write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(format);
+                out.writeLong(offset);
+                out.writeLong(nextLine);
+                out.writeInt(fingerprintLength);
+                out.writeLong(fingerprint);
+                out.writeLong(totalRecords);
+                out.writeLong(validRecords);
+                out.writeLong(invalidRecords);
+                out.writeLong(totalRows);
+                out.writeBoolean(header != null);
+                if (header != null) {
+                    out.writeInt(header.size());
+                    for (String name : header.names()) {
+                        out.writeUTF(name);
+                    }
+                    statistics.writeTo(out);
+                }
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Whether {@code channel} is still the file this checkpoint was taken of, grown or not.
+     */
+    boolean matches(FileChannel channel) throws IOException {
+        return channel.size() >= offset && fingerprint(channel, fingerprintLength) == fingerprint;
+    }
+
+    static int fingerprintLength(long offset) {
+        return (int) Math.min(offset, FINGERPRINT_LENGTH);
+    }
+
+    static long fingerprint(FileChannel channel, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, bytes.position()) < 0) {
+                return -1;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.flip());
+        return crc.getValue();
+    }
+
+    /**
+     * Offset just past the last line feed in {@code [from, size)}, or {@code from} if there
+     * is none; everything after it is a line still being written.
+     */
+    static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(64 * 1024);
+        long end = size;
+        while (end > from) {
+            int length = (int) Math.min(block.capacity(), end - from);
+            block.clear().limit(length);
+            while (block.hasRemaining()) {
+                if (channel.read(block, end - length + block.position()) < 0) {
+                    throw new IOException("File shrank while reading it");
+                }
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if (block.get(i) == '\n') {
+                    return end - length + i + 1;
+                }
+            }
+            end -= length;
+        }
+        return from;
+    }
+
+    /**
+     * Whether the file ends with a line feed, so its last record is complete; a record after
+     * the last line feed may still be being written.
+     */
+    static boolean endsWithNewline(FileChannel channel, long size) throws IOException {
+        if (size == 0) {
+            return true;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        return channel.read(last, size - 1) == 1 && last.get(0) == '\n';
+    }
+}
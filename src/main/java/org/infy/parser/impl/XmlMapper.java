@@ -1,8 +1,18 @@
 package org.infy.parser.impl;
 
 import java.util.Map;
+import java.util.Set;
 
 public interface XmlMapper<T> {
     T mapToObject(Map<String, String> elements, Class<T> targetClass);
     String getRootElement();
+
+    /**
+     * The mapper a parser uses when it reads only {@code fields}, as set by
+     * {@link org.infy.model.ParserConfig#withProjection}, or all fields if null; fields outside
+     * the projection are then always absent. This mapper by default.
+     */
+    default XmlMapper<T> withProjection(Set<String> fields) {
+        return this;
+    }
 } 
\ No newline at end of file
@@ -1,8 +1,12 @@
 package org.infy.parser.impl;
 
+import org.infy.metrics.MetricsRecorder;
+import org.infy.metrics.Stage;
 import org.infy.model.*;
 import org.infy.parser.DataParser;
 import org.infy.validation.Schema;
+import org.infy.validation.SchemaValidator;
+import org.infy.validation.ValidationReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,51 +14,256 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+/**
+ * Parses XML records with StAX. {@code XMLInputFactory} is not guaranteed to be thread-safe,
+ * so each thread gets its own configured factory; instances can be shared between threads as
+ * long as the {@link XmlMapper} is stateless.
+ */
 public class XmlParser<T> implements DataParser<T> {
     private static final Logger logger = LoggerFactory.getLogger(XmlParser.class);
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(XmlParser::newInputFactory);
     private final ParserConfig config;
-    private final XMLInputFactory xmlInputFactory;
     private final XmlMapper<T> xmlMapper;
+    // Compiled paths of an XmlPathMapper, or null to collect every element into a map
+    private final XmlPathTree paths;
 
     public XmlParser(ParserConfig config, XmlMapper<T> xmlMapper) {
         this.config = config;
-        this.xmlMapper = xmlMapper;
-        this.xmlInputFactory = XMLInputFactory.newInstance();
+        this.xmlMapper = xmlMapper.withProjection(config.projection());
+        this.paths = this.xmlMapper instanceof XmlPathMapper<T> pathMapper
+            ? XmlPathTree.compile(pathMapper.getRootElement(), pathMapper.getPaths(), config.projection())
+            : null;
+    }
+
+    @Override
+    public XmlParser<T> withProjection(Set<String> fields) {
+        return new XmlParser<>(config.withProjection(fields), xmlMapper);
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
         // Disable external entity processing for security
-        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+
+    static XMLStreamReader createReader(InputStream input) throws XMLStreamException {
+        return INPUT_FACTORY.get().createXMLStreamReader(input);
+    }
+
+    /**
+     * The depth below the record element of an element starting inside one at {@code depth},
+     * or -1 outside a record.
+     */
+    static int enterElement(String name, int depth, String rootElement) {
+        return depth >= 0 ? depth + 1 : name.equals(rootElement) ? 0 : -1;
+    }
+
+    /**
+     * Whether the element {@code name} at {@code depth} is read in map mode; only the children
+     * of the record element are projected, anything inside them is read with them.
+     */
+    static boolean readsElement(Set<String> projection, int depth, String name) {
+        return projection == null || depth != 1 || projection.contains(name);
+    }
+
+    /**
+     * Whether the attribute {@code name} of an element at {@code depth} is read in map mode;
+     * attributes of the record element are projected as {@code @name}.
+     */
+    static boolean readsAttribute(Set<String> projection, int depth, String name) {
+        return projection == null || depth != 0 || projection.contains("@" + name);
+    }
+
+    /**
+     * Reads past the end of the element the reader is on the start of.
+     */
+    static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
     }
 
     @Override
     public ParseResult<T> parse(InputStream input, Class<T> targetClass) {
-        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(null);
+        return parse(metrics.count(input), targetClass, Instant.now(), metrics);
+    }
+
+    private ParseResult<T> parse(InputStream input, Class<T> targetClass, Instant start, MetricsRecorder metrics) {
         List<T> parsedData = new ArrayList<>();
-        List<ParseError> errors = new ArrayList<>();
-        int lineNumber = 1;
+        ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+
+        readElements(input, targetClass, 0, metrics, parsedData::add, errors);
+        return toParseResult(parsedData, errors, start, metrics);
+    }
+
+    /**
+     * Parses a file on the fork-join common pool when it is a flat list of record elements,
+     * like {@code <people><person>...</person>...</people>}. A byte-level scan first finds the
+     * records; runs of them are then read concurrently by separate StAX readers and merged
+     * back in document order. Other documents are parsed sequentially.
+     */
+    public ParseResult<T> parse(Path file, Class<T> targetClass) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long indexStart = System.nanoTime();
+            XmlRecordIndex index = XmlRecordIndex.build(channel, xmlMapper.getRootElement());
+            metrics.addTime(Stage.READ, System.nanoTime() - indexStart);
+            if (index == null) {
+                logger.debug("{} is not a flat list of {} elements, parsing it sequentially", file, xmlMapper.getRootElement());
+                metrics.addBytes(channel.size());
+                return parse(new ChannelInputStream(channel, 0, channel.size()), targetClass, start, metrics);
+            }
+            int records = index.recordCount();
+            int chunks = Math.max(1, Math.min(records, ForkJoinPool.getCommonPoolParallelism() * 4));
+            logger.debug("Parsing {} records of {} in {} chunks", records, file, chunks);
+
+            List<List<T>> chunkRecords = new ArrayList<>();
+            ErrorCollector[] chunkErrors = new ErrorCollector[chunks];
+            MetricsRecorder[] chunkMetrics = new MetricsRecorder[chunks];
+            for (int i = 0; i < chunks; i++) {
+                chunkRecords.add(new ArrayList<>());
+            }
+            // This thread helps with the chunks, whose recorders count its allocations meanwhile
+            metrics.pauseAllocations();
+            IntStream.range(0, chunks).parallel().forEach(i -> {
+                int from = (int) ((long) records * i / chunks);
+                int to = (int) ((long) records * (i + 1) / chunks);
+                if (from == to) {
+                    return;
+                }
+                MetricsRecorder chunk = MetricsRecorder.forChunk(
+                    "xml", file, i, index.start(from), index.end(to - 1), config.batchSize());
+                chunk.addBytes(index.end(to - 1) - index.start(from));
+                ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+                readElements(index.open(from, to), targetClass, index.lineOffset(from), chunk,
+                    chunkRecords.get(i)::add, errors);
+                chunk.finish(chunkRecords.get(i).size(), errors.count());
+                chunkMetrics[i] = chunk;
+                chunkErrors[i] = errors;
+            });
+            metrics.resumeAllocations();
+
+            List<T> parsedData = new ArrayList<>(chunkRecords.stream().mapToInt(List::size).sum());
+            ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+            chunkRecords.forEach(parsedData::addAll);
+            for (int i = 0; i < chunks; i++) {
+                if (chunkMetrics[i] != null) {
+                    metrics.merge(chunkMetrics[i]);
+                    errors.merge(chunkErrors[i]);
+                }
+            }
+            return toParseResult(parsedData, errors, start, metrics);
+        } catch (IOException e) {
+            ErrorCollector errors = new ErrorCollector(config.errorPolicy());
+            errors.add(new ParseError("Failed to parse XML", 0, "", ErrorSeverity.FATAL, e));
+            return toParseResult(new ArrayList<>(), errors, start, metrics);
+        }
+    }
+
+    private ParseResult<T> toParseResult(List<T> parsedData, ErrorCollector errors, Instant start,
+                                         MetricsRecorder metrics) {
+        ParsingStats stats = new ParsingStats(
+            parsedData.size() + errors.count(),
+            parsedData.size(),
+            errors.count(),
+            Duration.between(start, Instant.now()),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            metrics.finish(parsedData.size(), errors.count()),
+            errors.counts()
+        );
+        return new ParseResult<>(parsedData, errors.errors(), stats);
+    }
+
+    private MetricsRecorder newRecorder(Path file) {
+        return MetricsRecorder.forFile("xml", file, config.batchSize());
+    }
+
+    @Override
+    public ParsingStats parseBatches(InputStream input, Class<T> targetClass, Consumer<RecordBatch<T>> sink) {
+        Instant start = Instant.now();
+        MetricsRecorder metrics = newRecorder(null);
+        BatchCollector<T> batches = new BatchCollector<>(config.batchSize(), sink);
+        ErrorCollector errors = ErrorCollector.streaming(config.errorPolicy(), batches::error);
+
+        readElements(metrics.count(input), targetClass, 0, metrics, batches::add, errors);
+        batches.flush();
+
+        return new ParsingStats(
+            batches.recordCount() + errors.count(),
+            batches.recordCount(),
+            errors.count(),
+            Duration.between(start, Instant.now()),
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            metrics.finish(batches.recordCount(), errors.count()),
+            errors.counts()
+        );
+    }
+
+    private void readElements(InputStream input, Class<T> targetClass, int lineOffset, MetricsRecorder metrics,
+                              Consumer<T> records, ErrorCollector errors) {
+        if (paths != null) {
+            readPaths(input, targetClass, lineOffset, metrics, records, errors);
+            return;
+        }
+        // Line of the current record's start tag, as readPaths reports it
+        int lineNumber = 1 + lineOffset;
 
         try {
-            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(input);
+            XMLStreamReader reader = createReader(input);
             Map<String, String> currentElement = new HashMap<>();
             String currentTag = "";
+            // Depth below the current record element, or -1 outside a record
+            int depth = -1;
+            Set<String> projection = config.projection();
+            // Reading the events of a record counts as tokenizing, mapping them as binding
+            long mark = metrics.mark();
 
-            while (reader.hasNext()) {
+            while (!errors.aborted() && reader.hasNext()) {
                 int event = reader.next();
                 switch (event) {
                     case XMLStreamConstants.START_ELEMENT:
                         currentTag = reader.getLocalName();
+                        depth = enterElement(currentTag, depth, xmlMapper.getRootElement());
+                        if (depth == 0) {
+                            lineNumber = reader.getLocation().getLineNumber() + lineOffset;
+                        }
+                        if (!readsElement(projection, depth, currentTag)) {
+                            skipElement(reader);
+                            depth--;
+                            currentTag = "";
+                            break;
+                        }
                         // Handle attributes
                         for (int i = 0; i < reader.getAttributeCount(); i++) {
-                            currentElement.put(
-                                currentTag + "@" + reader.getAttributeLocalName(i),
-                                reader.getAttributeValue(i)
-                            );
+                            String attribute = reader.getAttributeLocalName(i);
+                            if (readsAttribute(projection, depth, attribute)) {
+                                currentElement.put(currentTag + "@" + attribute, reader.getAttributeValue(i));
+                            }
                         }
                         break;
 
@@ -65,53 +274,78 @@ public class XmlParser<T> implements DataParser<T> {
                         break;
 
                     case XMLStreamConstants.END_ELEMENT:
+                        if (depth >= 0) {
+                            depth--;
+                        }
                         if (reader.getLocalName().equals(xmlMapper.getRootElement())) {
+                            depth = -1;
+                            mark = metrics.lap(Stage.TOKENIZE, mark);
                             try {
                                 T mapped = xmlMapper.mapToObject(currentElement, targetClass);
-                                parsedData.add(mapped);
+                                records.accept(mapped);
+                                errors.recordParsed();
                                 currentElement = new HashMap<>();
                             } catch (Exception e) {
-                                errors.add(new ParseError(
-                                    "Failed to map XML element to object",
-                                    lineNumber,
-                                    currentElement.toString(),
-                                    ErrorSeverity.ERROR,
-                                    e
-                                ));
+                                Map<String, String> element = currentElement;
+                                errors.add("Failed to map XML element to object", lineNumber, ErrorSeverity.ERROR,
+                                    e, -1, 0, element::toString);
                             }
+                            metrics.lap(Stage.BIND, mark);
+                            metrics.recordDone();
+                            mark = metrics.mark();
                         }
                         break;
                 }
-                lineNumber++;
             }
             reader.close();
         } catch (XMLStreamException e) {
             errors.add(new ParseError(
                 "Failed to parse XML",
-                lineNumber,
+                e.getLocation() != null ? e.getLocation().getLineNumber() + lineOffset : lineNumber,
                 "",
                 ErrorSeverity.FATAL,
                 e
             ));
         }
+    }
 
-        ParsingStats stats = new ParsingStats(
-            parsedData.size() + errors.size(),
-            parsedData.size(),
-            errors.size(),
-            Duration.between(start, Instant.now()),
-            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()
-        );
-
-        return new ParseResult<>(parsedData, errors, stats);
+    private void readPaths(InputStream input, Class<T> targetClass, int lineOffset, MetricsRecorder metrics,
+                           Consumer<T> records, ErrorCollector errors) {
+        XmlPathMapper<T> pathMapper = (XmlPathMapper<T>) xmlMapper;
+        XmlPathReader pathReader = null;
+        try {
+            XMLStreamReader reader = createReader(input);
+            pathReader = new XmlPathReader(reader, paths, lineOffset);
+            for (long mark = metrics.mark(); !errors.aborted() && pathReader.next(); mark = metrics.mark()) {
+                mark = metrics.lap(Stage.TOKENIZE, mark);
+                try {
+                    records.accept(pathMapper.mapToObject(pathReader.values(), targetClass));
+                    errors.recordParsed();
+                } catch (Exception e) {
+                    errors.add("Failed to map XML element to object", pathReader.lineNumber(), ErrorSeverity.ERROR,
+                        e, -1, 0, pathReader::describe);
+                }
+                metrics.lap(Stage.BIND, mark);
+                metrics.recordDone();
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            errors.add(new ParseError(
+                "Failed to parse XML",
+                e.getLocation() != null ? e.getLocation().getLineNumber() + lineOffset : pathReader == null ? 1 : pathReader.lineNumber(),
+                "",
+                ErrorSeverity.FATAL,
+                e
+            ));
+        }
     }
 
     @Override
     public Stream<T> parseStream(InputStream input, Class<T> targetClass) {
         try {
-            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(input);
+            XMLStreamReader reader = createReader(input);
             return StreamSupport.stream(
-                new XmlSpliterator<>(reader, xmlMapper, targetClass),
+                new XmlSpliterator<>(reader, xmlMapper, targetClass, config.projection()),
                 false
             );
         } catch (XMLStreamException e) {
@@ -119,8 +353,101 @@ public class XmlParser<T> implements DataParser<T> {
         }
     }
 
+    /**
+     * Streams the records of a file. The first split of the stream indexes the file, so
+     * {@code parseStream(file, type).parallel()} reads a flat list of records on all cores.
+     * The returned stream must be closed.
+     */
+    public Stream<T> parseStream(Path file, Class<T> targetClass) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            return StreamSupport.stream(
+                new XmlSpliterator<>(channel, xmlMapper, targetClass, config.projection()),
+                false
+            ).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create XML stream", e);
+        }
+    }
+
     @Override
-    public void validate(InputStream input, Schema schema) {
-        throw new UnsupportedOperationException("XML schema validation not implemented yet");
+    public ValidationReport validate(InputStream input, Schema schema, int errorBudget) {
+        String rootElement = xmlMapper.getRootElement();
+        // Fields are named like the keys of the map mode: child elements by local name and
+        // attributes as element@attribute
+        SchemaValidator validator = new SchemaValidator(schema, errorBudget, key -> {
+            int at = key.indexOf('@');
+            String element = at < 0 ? key : key.substring(0, at);
+            return config.reads(element.equals(rootElement) && at >= 0 ? key.substring(at) : element);
+        });
+        boolean attributeFields = false;
+        for (int field = 0; field < validator.fieldCount(); field++) {
+            attributeFields |= validator.fieldName(field).indexOf('@') >= 0;
+        }
+        // Field and text start of every open element of the current record
+        int[] fields = new int[16];
+        int[] marks = new int[16];
+        int depth = 0;
+        StringBuilder text = new StringBuilder();
+
+        try {
+            XMLStreamReader reader = createReader(input);
+            while (!validator.isExhausted() && reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (depth == 0) {
+                        if (!name.equals(rootElement)) {
+                            continue;
+                        }
+                        validator.startRecord(reader.getLocation().getLineNumber());
+                    } else if (depth == 1 && !config.reads(name)) {
+                        skipElement(reader);
+                        continue;
+                    }
+                    if (attributeFields) {
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            int field = validator.indexOf(name + "@" + reader.getAttributeLocalName(i));
+                            if (field >= 0) {
+                                validator.checkText(field, reader.getAttributeValue(i));
+                            }
+                        }
+                    }
+                    if (depth == fields.length) {
+                        fields = Arrays.copyOf(fields, depth * 2);
+                        marks = Arrays.copyOf(marks, depth * 2);
+                    }
+                    fields[depth] = depth == 0 ? -1 : validator.indexOf(name);
+                    marks[depth] = text.length();
+                    depth++;
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE) {
+                    if (depth > 0 && fields[depth - 1] >= 0) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && depth > 0) {
+                    depth--;
+                    if (fields[depth] >= 0) {
+                        String value = text.substring(marks[depth]).trim();
+                        validator.checkText(fields[depth], value.isEmpty() ? null : value);
+                        text.setLength(marks[depth]);
+                    }
+                    if (depth == 0) {
+                        validator.endRecord();
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            validator.fatal(e.getLocation() != null ? e.getLocation().getLineNumber() : 0,
+                "Failed to parse XML: " + e.getMessage());
+        }
+        return validator.report();
     }
 } 
\ No newline at end of file
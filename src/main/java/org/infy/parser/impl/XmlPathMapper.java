@@ -0,0 +1,25 @@
+package org.infy.parser.impl;
+
+import java.util.List;
+
+/**
+ * An {@link XmlMapper} that declares up front which values of a record element it needs.
+ * <p>
+ * The paths are compiled once into slots, and the parser reads each record straight into a
+ * reused slot array instead of a map: element and attribute names are matched against the
+ * compiled paths and subtrees that no path refers to are skipped without reading their text.
+ */
+public interface XmlPathMapper<T> extends XmlMapper<T> {
+    /**
+     * Paths relative to the record element: {@code "name"} for the text of a child element,
+     * {@code "address/city"} for a nested one, {@code "@id"} for an attribute of the record
+     * element and {@code "name@lang"} for an attribute of a child.
+     */
+    List<String> getPaths();
+
+    /**
+     * Maps one record; {@code values[i]} holds the value of {@code getPaths().get(i)}, with
+     * element text trimmed, or null if the record has no such element, attribute or text.
+     */
+    T mapToObject(String[] values, Class<T> targetClass);
+}
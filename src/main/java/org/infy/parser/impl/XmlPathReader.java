@@ -0,0 +1,140 @@
+package org.infy.parser.impl;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
+
+/**
+ * Reads the record elements of a StAX stream into the slots of an {@link XmlPathTree}.
+ * <p>
+ * The slot array and the text buffer are reused for every record, so apart from the values
+ * themselves nothing is allocated per record. Text is only copied out of the reader for
+ * elements that have a slot, and elements no path refers to are skipped event by event.
+ */
+final class XmlPathReader {
+    private final XMLStreamReader reader;
+    private final XmlPathTree tree;
+    private final String[] values;
+    private final StringBuilder text = new StringBuilder();
+    private final int lineOffset;
+    private int recordLine;
+
+    XmlPathReader(XMLStreamReader reader, XmlPathTree tree) {
+        this(reader, tree, 0);
+    }
+
+    /**
+     * @param lineOffset added to the reader's line numbers, for readers over part of a file
+     */
+    XmlPathReader(XMLStreamReader reader, XmlPathTree tree, int lineOffset) {
+        this.reader = reader;
+        this.tree = tree;
+        this.values = new String[tree.slotCount()];
+        this.lineOffset = lineOffset;
+    }
+
+    /**
+     * Moves to the next record element and reads it into {@link #values()}.
+     * @return false at the end of the document
+     */
+    boolean next() throws XMLStreamException {
+        XmlPathTree.Node root = tree.root();
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT
+                    && XmlPathTree.sameName(reader.getLocalName(), root.name)) {
+                recordLine = reader.getLocation().getLineNumber() + lineOffset;
+                Arrays.fill(values, null);
+                text.setLength(0);
+                readElement(root);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The values of the current record, valid until the next call to {@link #next()}.
+     */
+    String[] values() {
+        return values;
+    }
+
+    /**
+     * Line of the start tag of the current record.
+     */
+    int lineNumber() {
+        return recordLine;
+    }
+
+    String describe() {
+        return tree.describe(values);
+    }
+
+    /**
+     * Reads the element the reader is on up to and including its end tag.
+     */
+    private void readElement(XmlPathTree.Node node) throws XMLStreamException {
+        if (node.attributes.length > 0) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                int slot = node.attributeSlot(reader.getAttributeLocalName(i));
+                if (slot >= 0) {
+                    values[slot] = reader.getAttributeValue(i);
+                }
+            }
+        }
+        // Text of nested elements is appended after the mark and cut off again when they end
+        int mark = text.length();
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    XmlPathTree.Node child = node.child(reader.getLocalName());
+                    if (child == null) {
+                        skipElement();
+                    } else {
+                        readElement(child);
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (node.slot >= 0) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (node.slot >= 0) {
+                        values[node.slot] = trimmedText(mark);
+                        text.setLength(mark);
+                    }
+                    return;
+                }
+                default -> {
+                    // Comments and processing instructions carry no values
+                }
+            }
+        }
+    }
+
+    private String trimmedText(int from) {
+        int start = from;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return start == end ? null : text.substring(start, end);
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
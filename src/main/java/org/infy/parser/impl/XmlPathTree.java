@@ -0,0 +1,159 @@
+package org.infy.parser.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The paths of an {@link XmlPathMapper} compiled into a tree of element names, with the slot
+ * of every path on its element node. Names are interned so they can be compared to the
+ * (usually interned) names reported by the StAX reader by reference first.
+ */
+final class XmlPathTree {
+    private final Node root;
+    private final String[] paths;
+
+    private XmlPathTree(Node root, String[] paths) {
+        this.root = root;
+        this.paths = paths;
+    }
+
+    /**
+     * @param projection the fields to read, or null for all: a path belongs to the field of its
+     *                   first element, or to {@code @name} for an attribute of the record element.
+     *                   Other paths keep their slot but are not read, so their value is null.
+     * @throws IllegalArgumentException if a path is empty, malformed or declared twice
+     */
+    static XmlPathTree compile(String rootElement, List<String> paths, Set<String> projection) {
+        if (projection != null) {
+            // Paths outside the projection are checked all the same
+            compile(rootElement, paths, null);
+        }
+        Node root = new Node(rootElement.intern());
+        for (int slot = 0; slot < paths.size(); slot++) {
+            String path = paths.get(slot);
+            int at = path.indexOf('@');
+            String elements = at < 0 ? path : path.substring(0, at);
+            if (projection != null && !projection.contains(field(path, elements))) {
+                continue;
+            }
+            Node node = root;
+            if (!elements.isEmpty()) {
+                for (String segment : elements.split("/", -1)) {
+                    if (segment.isEmpty()) {
+                        throw new IllegalArgumentException("Invalid XML path: " + path);
+                    }
+                    node = node.addChild(segment.intern());
+                }
+            }
+            if (at < 0) {
+                if (node == root || node.slot >= 0) {
+                    throw new IllegalArgumentException(node == root ? "Invalid XML path: " + path : "Duplicate XML path: " + path);
+                }
+                node.slot = slot;
+            } else {
+                String attribute = path.substring(at + 1);
+                if (attribute.isEmpty() || attribute.indexOf('@') >= 0 || attribute.indexOf('/') >= 0) {
+                    throw new IllegalArgumentException("Invalid XML path: " + path);
+                }
+                if (node.attributeSlot(attribute) >= 0) {
+                    throw new IllegalArgumentException("Duplicate XML path: " + path);
+                }
+                node.addAttribute(attribute.intern(), slot);
+            }
+        }
+        return new XmlPathTree(root, paths.toArray(new String[0]));
+    }
+
+    private static String field(String path, String elements) {
+        if (elements.isEmpty()) {
+            return path;
+        }
+        int slash = elements.indexOf('/');
+        return slash < 0 ? elements : elements.substring(0, slash);
+    }
+
+    Node root() {
+        return root;
+    }
+
+    int slotCount() {
+        return paths.length;
+    }
+
+    /**
+     * The values of one record by path, for error messages.
+     */
+    String describe(String[] values) {
+        StringBuilder description = new StringBuilder("{");
+        for (int slot = 0; slot < paths.length; slot++) {
+            if (values[slot] != null) {
+                if (description.length() > 1) {
+                    description.append(", ");
+                }
+                description.append(paths[slot]).append('=').append(values[slot]);
+            }
+        }
+        return description.append('}').toString();
+    }
+
+    static boolean sameName(String name, String interned) {
+        return name == interned || name.equals(interned);
+    }
+
+    static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final String[] NO_ATTRIBUTES = new String[0];
+
+        final String name;
+        int slot = -1;
+        Node[] children = NO_CHILDREN;
+        String[] attributes = NO_ATTRIBUTES;
+        int[] attributeSlots = new int[0];
+
+        private Node(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the child element node called {@code name}, or null if no path goes there
+         */
+        Node child(String name) {
+            for (Node child : children) {
+                if (sameName(name, child.name)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the slot of attribute {@code name} of this element, or -1
+         */
+        int attributeSlot(String name) {
+            for (int i = 0; i < attributes.length; i++) {
+                if (sameName(name, attributes[i])) {
+                    return attributeSlots[i];
+                }
+            }
+            return -1;
+        }
+
+        private Node addChild(String name) {
+            Node child = child(name);
+            if (child == null) {
+                child = new Node(name);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        private void addAttribute(String name, int slot) {
+            attributes = Arrays.copyOf(attributes, attributes.length + 1);
+            attributes[attributes.length - 1] = name;
+            attributeSlots = Arrays.copyOf(attributeSlots, attributeSlots.length + 1);
+            attributeSlots[attributeSlots.length - 1] = slot;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package org.infy.parser.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Byte offsets of the record elements of an XML document that is a flat list of records:
+ * a document element whose children are all record elements, like
+ * {@code <people><person>...</person>...</people>}.
+ * <p>
+ * The index is built by a byte-level scan that only recognizes tags, attribute quoting,
+ * comments, CDATA sections and processing instructions. Record elements are matched by local
+ * name, so {@code <p:person>} counts as {@code person}. Any run of records can then be read
+ * by its own StAX reader: the bytes up to the end of the document element's start tag (the
+ * XML declaration and any namespace declarations) are put in front of the run and a closing
+ * tag for the document element after it.
+ */
+final class XmlRecordIndex {
+    private static final int SCAN_WINDOW = 8 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final byte[] prolog;
+    private final byte[] epilog;
+    private final int prologLine;
+    private final int count;
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] lines;
+
+    private XmlRecordIndex(FileChannel channel, Scanner scanner) throws IOException {
+        this.channel = channel;
+        ByteBuffer prologBytes = ByteBuffer.allocate((int) scanner.prologEnd);
+        while (prologBytes.hasRemaining()) {
+            if (channel.read(prologBytes, prologBytes.position()) < 0) {
+                throw new EOFException("File shrank while indexing");
+            }
+        }
+        this.prolog = prologBytes.array();
+        this.epilog = ("</" + scanner.documentElement + ">").getBytes(StandardCharsets.UTF_8);
+        this.prologLine = scanner.prologLine;
+        this.count = scanner.count;
+        this.starts = scanner.starts;
+        this.ends = scanner.ends;
+        this.lines = scanner.lines;
+    }
+
+    /**
+     * @return the index, or null if the document is not a flat list of {@code recordElement}
+     *         elements (or is not well-formed enough to tell), in which case it has to be read
+     *         sequentially
+     */
+    static XmlRecordIndex build(FileChannel channel, String recordElement) throws IOException {
+        long size = channel.size();
+        Scanner scanner = new Scanner(recordElement.getBytes(StandardCharsets.UTF_8));
+        for (long windowStart = 0; windowStart < size && scanner.state != Scanner.FAILED && !scanner.done;
+             windowStart += SCAN_WINDOW) {
+            int length = (int) Math.min(SCAN_WINDOW, size - windowStart);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            scanner.scan(bytes, windowStart, length);
+        }
+        if (scanner.state == Scanner.FAILED || !scanner.done) {
+            return null;
+        }
+        return new XmlRecordIndex(channel, scanner);
+    }
+
+    int recordCount() {
+        return count;
+    }
+
+    /**
+     * Offset of the first byte of record {@code i}.
+     */
+    long start(int i) {
+        return starts[i];
+    }
+
+    /**
+     * Offset just past the end tag of record {@code i}.
+     */
+    long end(int i) {
+        return ends[i];
+    }
+
+    /**
+     * A well-formed document holding records {@code [from, to)}.
+     */
+    InputStream open(int from, int to) {
+        return new SequenceInputStream(Collections.enumeration(List.of(
+            new ByteArrayInputStream(prolog),
+            new ChannelInputStream(channel, starts[from], ends[to - 1]),
+            new ByteArrayInputStream(epilog)
+        )));
+    }
+
+    /**
+     * What to add to the line numbers reported while reading {@link #open(int, int)} to get
+     * line numbers in the file.
+     */
+    int lineOffset(int from) {
+        return lines[from] - prologLine;
+    }
+
+    /**
+     * Scanner state, kept across mapped windows.
+     */
+    private static final class Scanner {
+        private static final int TEXT = 0;
+        private static final int TAG_OPEN = 1;
+        private static final int START_NAME = 2;
+        private static final int IN_START_TAG = 3;
+        private static final int ATTRIBUTE_VALUE = 4;
+        private static final int END_NAME = 5;
+        private static final int IN_END_TAG = 6;
+        private static final int DECLARATION = 7;
+        private static final int COMMENT_OPEN = 8;
+        private static final int CDATA_OPEN = 9;
+        private static final int COMMENT = 10;
+        private static final int CDATA = 11;
+        private static final int PROCESSING_INSTRUCTION = 12;
+        private static final int FAILED = 13;
+        private static final byte[] CDATA_MARKER = "[CDATA[".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+        private final byte[] recordName;
+        private long[] starts = new long[1024];
+        private long[] ends = new long[1024];
+        private int[] lines = new int[1024];
+        private int count;
+        private int state = TEXT;
+        private int depth;
+        private boolean done;
+        private int line = 1;
+        // Name of the tag being read and where it started
+        private byte[] name = new byte[64];
+        private int nameLength;
+        private long tagStart;
+        private int tagLine;
+        private byte quote;
+        private byte previous;
+        private byte beforePrevious;
+        private int matched;
+        private long prologEnd;
+        private int prologLine;
+        private String documentElement;
+
+        Scanner(byte[] recordName) {
+            this.recordName = recordName;
+        }
+
+        void scan(MappedByteBuffer bytes, long base, int length) {
+            for (int p = 0; p < length && state != FAILED && !done; p++) {
+                byte c = bytes.get(p);
+                if (c == '\n') {
+                    line++;
+                }
+                switch (state) {
+                    case TEXT -> {
+                        // Skip ordinary text without going through the state switch
+                        while (c != '<' && p + 1 < length && (depth > 1 || isWhitespace(c))) {
+                            c = bytes.get(++p);
+                            if (c == '\n') {
+                                line++;
+                            }
+                        }
+                        if (c == '<') {
+                            state = TAG_OPEN;
+                            tagStart = base + p;
+                            tagLine = line;
+                        } else if (!isWhitespace(c) && depth <= 1
+                                && !(depth == 0 && base + p < BOM.length && c == BOM[(int) (base + p)])) {
+                            // Text outside the records would be lost between chunks
+                            state = FAILED;
+                        }
+                    }
+                    case TAG_OPEN -> {
+                        if (c == '/') {
+                            state = END_NAME;
+                            nameLength = 0;
+                        } else if (c == '!') {
+                            state = DECLARATION;
+                        } else if (c == '?') {
+                            state = PROCESSING_INSTRUCTION;
+                        } else {
+                            state = START_NAME;
+                            nameLength = 0;
+                            appendName(c);
+                        }
+                    }
+                    case START_NAME -> {
+                        if (c == '>') {
+                            startTag(false, base + p + 1);
+                        } else if (c == '/' || isWhitespace(c)) {
+                            state = IN_START_TAG;
+                        } else {
+                            appendName(c);
+                        }
+                    }
+                    case IN_START_TAG -> {
+                        if (c == '"' || c == '\'') {
+                            quote = c;
+                            state = ATTRIBUTE_VALUE;
+                        } else if (c == '>') {
+                            startTag(previous == '/', base + p + 1);
+                        }
+                    }
+                    case ATTRIBUTE_VALUE -> {
+                        while (c != quote && p + 1 < length) {
+                            c = bytes.get(++p);
+                            if (c == '\n') {
+                                line++;
+                            }
+                        }
+                        if (c == quote) {
+                            state = IN_START_TAG;
+                        }
+                    }
+                    case END_NAME -> {
+                        if (c == '>') {
+                            endTag(base + p + 1);
+                        } else if (isWhitespace(c)) {
+                            state = IN_END_TAG;
+                        } else {
+                            appendName(c);
+                        }
+                    }
+                    case IN_END_TAG -> {
+                        if (c == '>') {
+                            endTag(base + p + 1);
+                        }
+                    }
+                    case DECLARATION -> {
+                        if (c == '-') {
+                            state = COMMENT_OPEN;
+                        } else if (c == '[') {
+                            state = CDATA_OPEN;
+                            matched = 1;
+                        } else {
+                            // A DOCTYPE may declare entities that the records use
+                            state = FAILED;
+                        }
+                    }
+                    case COMMENT_OPEN -> state = c == '-' ? COMMENT : FAILED;
+                    case CDATA_OPEN -> {
+                        if (c != CDATA_MARKER[matched]) {
+                            state = FAILED;
+                        } else if (++matched == CDATA_MARKER.length) {
+                            state = depth >= 2 ? CDATA : FAILED;
+                        }
+                    }
+                    case COMMENT -> {
+                        if (c == '>' && previous == '-' && beforePrevious == '-') {
+                            state = TEXT;
+                        }
+                    }
+                    case CDATA -> {
+                        if (c == '>' && previous == ']' && beforePrevious == ']') {
+                            state = TEXT;
+                        }
+                    }
+                    case PROCESSING_INSTRUCTION -> {
+                        if (c == '>' && previous == '?') {
+                            state = TEXT;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                beforePrevious = previous;
+                previous = c;
+            }
+        }
+
+        private void startTag(boolean empty, long end) {
+            state = TEXT;
+            if (depth == 0) {
+                documentElement = new String(name, 0, nameLength, StandardCharsets.UTF_8);
+                prologEnd = end;
+                prologLine = line;
+                if (empty) {
+                    done = true;
+                } else {
+                    depth = 1;
+                }
+                return;
+            }
+            if (depth == 1) {
+                if (!isRecordName()) {
+                    state = FAILED;
+                    return;
+                }
+                ensureCapacity();
+                starts[count] = tagStart;
+                lines[count] = tagLine;
+                if (empty) {
+                    ends[count++] = end;
+                    return;
+                }
+            }
+            if (!empty) {
+                depth++;
+            }
+        }
+
+        private void endTag(long end) {
+            state = TEXT;
+            depth--;
+            if (depth == 1) {
+                ends[count++] = end;
+            } else if (depth == 0) {
+                done = true;
+            } else if (depth < 0) {
+                state = FAILED;
+            }
+        }
+
+        private boolean isRecordName() {
+            int colon = -1;
+            for (int i = 0; i < nameLength; i++) {
+                if (name[i] == ':') {
+                    colon = i;
+                }
+            }
+            int localStart = colon + 1;
+            return nameLength - localStart == recordName.length
+                && Arrays.equals(name, localStart, nameLength, recordName, 0, recordName.length);
+        }
+
+        private void appendName(byte c) {
+            if (nameLength == name.length) {
+                name = Arrays.copyOf(name, nameLength * 2);
+            }
+            name[nameLength++] = c;
+        }
+
+        private void ensureCapacity() {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                lines = Arrays.copyOf(lines, count * 2);
+            }
+        }
+
+        private static boolean isWhitespace(byte c) {
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+    }
+}
@@ -3,75 +3,229 @@ package org.infy.parser.impl;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 
+/**
+ * Spliterator over the record elements of an XML document.
+ * <p>
+ * Over a plain reader the document is read sequentially. Over a file the spliterator can
+ * split: the first {@link #trySplit()} builds an {@link XmlRecordIndex}, and if the document
+ * is a flat list of records every spliterator from then on covers a run of records that it
+ * reads with its own StAX reader. Other documents are read sequentially.
+ */
 public class XmlSpliterator<T> implements Spliterator<T> {
-    private final XMLStreamReader reader;
     private final XmlMapper<T> mapper;
     private final Class<T> targetClass;
+    private final Set<String> projection;
+    // Compiled paths when the mapper declares them; records are read into slots instead of a map
+    private final XmlPathTree paths;
+    private final FileChannel channel;
+    private XMLStreamReader reader;
+    private XmlPathReader pathReader;
     private String currentTag = "";
+    // Depth below the current record element, or -1 outside a record
+    private int depth = -1;
+    private XmlRecordIndex index;
+    private boolean indexed = false;
+    private int next;
+    private int end;
 
     public XmlSpliterator(XMLStreamReader reader, XmlMapper<T> mapper, Class<T> targetClass) {
-        this.reader = reader;
+        this(reader, mapper, targetClass, null);
+    }
+
+    /**
+     * @param projection the fields to read, as in {@link org.infy.model.ParserConfig#projection()},
+     *                   or null for all
+     */
+    XmlSpliterator(XMLStreamReader reader, XmlMapper<T> mapper, Class<T> targetClass, Set<String> projection) {
+        this(mapper, targetClass, projection, null, reader);
+    }
+
+    /**
+     * Splittable spliterator over a file; the file is indexed on the first split.
+     */
+    public XmlSpliterator(FileChannel channel, XmlMapper<T> mapper, Class<T> targetClass) {
+        this(channel, mapper, targetClass, null);
+    }
+
+    XmlSpliterator(FileChannel channel, XmlMapper<T> mapper, Class<T> targetClass, Set<String> projection) {
+        this(mapper, targetClass, projection, channel, null);
+    }
+
+    private XmlSpliterator(XmlMapper<T> mapper, Class<T> targetClass, Set<String> projection, FileChannel channel,
+                           XMLStreamReader reader) {
         this.mapper = mapper;
         this.targetClass = targetClass;
+        this.projection = projection;
+        this.paths = mapper instanceof XmlPathMapper<T> pathMapper
+            ? XmlPathTree.compile(pathMapper.getRootElement(), pathMapper.getPaths(), projection)
+            : null;
+        this.channel = channel;
+        this.reader = reader;
+        if (reader != null && paths != null) {
+            this.pathReader = new XmlPathReader(reader, paths);
+        }
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super T> action) {
         try {
-            Map<String, String> currentElement = new HashMap<>();
-            
-            while (reader.hasNext()) {
-                int event = reader.next();
-                
-                switch (event) {
-                    case XMLStreamConstants.START_ELEMENT:
-                        currentTag = reader.getLocalName();
-                        for (int i = 0; i < reader.getAttributeCount(); i++) {
-                            currentElement.put(
-                                currentTag + "@" + reader.getAttributeLocalName(i),
-                                reader.getAttributeValue(i)
-                            );
-                        }
-                        break;
+            if (index != null && next >= end) {
+                close();
+                return false;
+            }
+            if (reader == null) {
+                open();
+            }
+            T mapped = paths != null ? readPaths() : readMap();
+            if (mapped == null) {
+                close();
+                return false;
+            }
+            next++;
+            action.accept(mapped);
+            return true;
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Error reading XML stream", e);
+        }
+    }
 
-                    case XMLStreamConstants.CHARACTERS:
-                        if (!reader.isWhiteSpace() && !currentTag.isEmpty()) {
-                            currentElement.put(currentTag, reader.getText().trim());
-                        }
-                        break;
+    private void open() throws XMLStreamException {
+        try {
+            if (index == null) {
+                reader = XmlParser.createReader(new ChannelInputStream(channel, 0, channel.size()));
+                if (paths != null) {
+                    pathReader = new XmlPathReader(reader, paths);
+                }
+            } else {
+                reader = XmlParser.createReader(index.open(next, end));
+                if (paths != null) {
+                    pathReader = new XmlPathReader(reader, paths, index.lineOffset(next));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read XML file", e);
+        }
+    }
 
-                    case XMLStreamConstants.END_ELEMENT:
-                        if (reader.getLocalName().equals(mapper.getRootElement())) {
-                            T mapped = mapper.mapToObject(currentElement, targetClass);
-                            action.accept(mapped);
-                            return true;
-                        }
+    private T readPaths() throws XMLStreamException {
+        if (!pathReader.next()) {
+            return null;
+        }
+        return ((XmlPathMapper<T>) mapper).mapToObject(pathReader.values(), targetClass);
+    }
+
+    private T readMap() throws XMLStreamException {
+        Map<String, String> currentElement = new HashMap<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    currentTag = reader.getLocalName();
+                    depth = XmlParser.enterElement(currentTag, depth, mapper.getRootElement());
+                    if (!XmlParser.readsElement(projection, depth, currentTag)) {
+                        XmlParser.skipElement(reader);
+                        depth--;
+                        currentTag = "";
                         break;
-                }
+                    }
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        String attribute = reader.getAttributeLocalName(i);
+                        if (XmlParser.readsAttribute(projection, depth, attribute)) {
+                            currentElement.put(currentTag + "@" + attribute, reader.getAttributeValue(i));
+                        }
+                    }
+                    break;
+
+                case XMLStreamConstants.CHARACTERS:
+                    if (!reader.isWhiteSpace() && !currentTag.isEmpty()) {
+                        currentElement.put(currentTag, reader.getText().trim());
+                    }
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth >= 0) {
+                        depth--;
+                    }
+                    if (reader.getLocalName().equals(mapper.getRootElement())) {
+                        depth = -1;
+                        return mapper.mapToObject(currentElement, targetClass);
+                    }
+                    break;
             }
-            return false;
-        } catch (XMLStreamException e) {
-            throw new RuntimeException("Error reading XML stream", e);
         }
+        return null;
     }
 
     @Override
     public Spliterator<T> trySplit() {
-        return null; // XML parsing is inherently sequential
+        if (channel == null) {
+            return null; // a plain reader can only be read sequentially
+        }
+        if (!indexed) {
+            if (reader != null) {
+                return null;
+            }
+            indexed = true;
+            try {
+                index = XmlRecordIndex.build(channel, mapper.getRootElement());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index XML file", e);
+            }
+            if (index == null) {
+                return null; // not a flat list of records
+            }
+            end = index.recordCount();
+        }
+        if (index == null || end - next < 2) {
+            return null;
+        }
+        int mid = (next + end) >>> 1;
+        // The prefix takes over any reader that is already reading this run of records
+        XmlSpliterator<T> prefix = new XmlSpliterator<>(mapper, targetClass, projection, channel, null);
+        prefix.reader = reader;
+        prefix.pathReader = pathReader;
+        prefix.currentTag = currentTag;
+        prefix.depth = depth;
+        prefix.index = index;
+        prefix.indexed = true;
+        prefix.next = next;
+        prefix.end = mid;
+        reader = null;
+        pathReader = null;
+        currentTag = "";
+        depth = -1;
+        next = mid;
+        return prefix;
     }
 
     @Override
     public long estimateSize() {
-        return Long.MAX_VALUE;
+        return index == null ? Long.MAX_VALUE : end - next;
     }
 
     @Override
     public int characteristics() {
         return ORDERED | NONNULL;
     }
-} 
\ No newline at end of file
+
+    private void close() {
+        if (reader != null && channel != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                throw new RuntimeException("Failed to close XML reader", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.infy.pipeline;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded queue of record batches between two pipeline threads. Producers block while it is
+ * full, which is what propagates backpressure up to the parser. The depth is sampled on every
+ * put, by the single producer thread.
+ */
+final class BatchQueue {
+    // Marks the end of the stream; compared by identity
+    static final List<Object> END = List.of();
+
+    private final String name;
+    private final int capacity;
+    private final BlockingQueue<List<Object>> queue;
+    private long batches;
+    private long depthSum;
+    private int maxDepth;
+
+    BatchQueue(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void put(List<Object> batch) throws InterruptedException {
+        int depth = queue.size();
+        queue.put(batch);
+        if (batch != END) {
+            batches++;
+            depthSum += depth;
+            maxDepth = Math.max(maxDepth, Math.min(capacity, depth + 1));
+        }
+    }
+
+    List<Object> take() throws InterruptedException {
+        return queue.take();
+    }
+
+    /**
+     * Only valid once the producer has finished.
+     */
+    QueueStats stats() {
+        return new QueueStats(name, capacity, batches, maxDepth, batches == 0 ? 0 : (double) depthSum / batches);
+    }
+}
@@ -0,0 +1,403 @@
+package org.infy.pipeline;
+
+import org.infy.model.ParseError;
+import org.infy.model.ParsingStats;
+import org.infy.model.RecordBatch;
+import org.infy.parser.DataParser;
+import org.infy.transformer.DataTransformer;
+import org.infy.validation.DataValidator;
+import org.infy.validation.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Streams the records of a {@link DataParser} through validation and transformation stages
+ * into a sink, without materializing the whole input between stages.
+ * <p>
+ * The parser runs on its own thread and hands over batches of the configured
+ * {@code batchSize}. Adjacent stages are fused: one thread runs every record of a batch
+ * through all of them in a single loop. {@link #async()} starts a new group of stages on
+ * another thread. Threads are connected by bounded queues, so parsing, the stage groups and
+ * the sink overlap on different cores, and a slow consumer blocks its producers instead of
+ * letting batches pile up. The sink runs on the thread that calls {@link #run}.
+ * <pre>{@code
+ * PipelineStats stats = Pipeline.from(parser, input, Person.class)
+ *     .validate(validator)
+ *     .transform(transformer)
+ *     .run(writer::write);
+ * }</pre>
+ * A pipeline runs once; stage objects must be safe to call from a thread other than the one
+ * that built the pipeline.
+ */
+public final class Pipeline<T> {
+    private static final Logger logger = LoggerFactory.getLogger(Pipeline.class);
+    private static final int DEFAULT_QUEUE_CAPACITY = 16;
+    // Every stage is timed on one record in this many, to split the busy time of fused stages
+    private static final int SAMPLE_INTERVAL = 64;
+
+    private final DataParser<Object> parser;
+    private final InputStream input;
+    private final Class<Object> type;
+    // Stage groups, each fused into one loop on one thread; the last group is still open
+    private final List<List<NamedStage>> groups = new ArrayList<>();
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private Consumer<ParseError> errorSink = error -> { };
+    private int stageCount;
+
+    private record NamedStage(String name, Stage stage, boolean validation) {}
+
+    @SuppressWarnings("unchecked")
+    private Pipeline(DataParser<?> parser, InputStream input, Class<?> type) {
+        this.parser = (DataParser<Object>) parser;
+        this.input = input;
+        this.type = (Class<Object>) type;
+        groups.add(new ArrayList<>());
+    }
+
+    public static <S> Pipeline<S> from(DataParser<S> parser, InputStream input, Class<S> type) {
+        return new Pipeline<>(parser, input, type);
+    }
+
+    /**
+     * Drops records the validator rejects.
+     */
+    public Pipeline<T> validate(DataValidator<? super T> validator) {
+        return validate(validator, null);
+    }
+
+    /**
+     * Drops records the validator rejects and hands them to {@code rejected}, on the thread
+     * of the stage.
+     */
+    @SuppressWarnings("unchecked")
+    public Pipeline<T> validate(DataValidator<? super T> validator, BiConsumer<? super T, ValidationResult> rejected) {
+        DataValidator<Object> check = (DataValidator<Object>) validator;
+        BiConsumer<Object, ValidationResult> reject = (BiConsumer<Object, ValidationResult>) rejected;
+        return addStage("validate", true, record -> {
+            ValidationResult result = check.validate(record);
+            if (result.valid()) {
+                return record;
+            }
+            if (reject != null) {
+                reject.accept(record, result);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Replaces every record by its transformation; a null result drops the record.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<R> transform(DataTransformer<? super T, R> transformer) {
+        DataTransformer<Object, Object> function = (DataTransformer<Object, Object>) transformer;
+        return (Pipeline<R>) addStage("transform", false, function::transform);
+    }
+
+    /**
+     * Runs the following stages on a new thread, behind another queue, instead of fusing them
+     * with the previous ones. Worth it when the stages on both sides are expensive.
+     */
+    public Pipeline<T> async() {
+        if (!groups.get(groups.size() - 1).isEmpty()) {
+            groups.add(new ArrayList<>());
+        }
+        return this;
+    }
+
+    /**
+     * Capacity of each queue, in batches.
+     */
+    public Pipeline<T> queueCapacity(int batches) {
+        if (batches < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.queueCapacity = batches;
+        return this;
+    }
+
+    /**
+     * Receives the parse errors, on the parser thread. By default they are only counted in
+     * the parsing statistics.
+     */
+    public Pipeline<T> onParseError(Consumer<ParseError> errorSink) {
+        this.errorSink = errorSink;
+        return this;
+    }
+
+    private Pipeline<T> addStage(String kind, boolean validation, Stage stage) {
+        groups.get(groups.size() - 1).add(new NamedStage(++stageCount + ":" + kind, stage, validation));
+        return this;
+    }
+
+    /**
+     * Runs the pipeline to the end of the input, handing every record that passes all stages
+     * to {@code sink}.
+     * @throws RuntimeException if a stage or the sink fails; the other threads are stopped
+     */
+    @SuppressWarnings("unchecked")
+    public PipelineStats run(Consumer<? super T> sink) {
+        long start = System.nanoTime();
+        List<List<NamedStage>> stageGroups = groups.stream().filter(group -> !group.isEmpty()).toList();
+        List<BatchQueue> queues = new ArrayList<>();
+        queues.add(new BatchQueue("source", queueCapacity));
+        for (int i = 0; i < stageGroups.size(); i++) {
+            queues.add(new BatchQueue("group-" + (i + 1), queueCapacity));
+        }
+
+        Run run = new Run(Thread.currentThread());
+        AtomicReference<ParsingStats> parsing = new AtomicReference<>();
+        run.start("pipeline-source", () -> parsing.set(readSource(run, queues.get(0))));
+        List<StageGroup> workers = new ArrayList<>();
+        for (int i = 0; i < stageGroups.size(); i++) {
+            StageGroup group = new StageGroup(stageGroups.get(i), queues.get(i), queues.get(i + 1));
+            workers.add(group);
+            run.start("pipeline-group-" + (i + 1), () -> group.run(run));
+        }
+
+        StageGroup sinkGroup = new StageGroup(List.of(new NamedStage("sink", record -> {
+            ((Consumer<Object>) sink).accept(record);
+            return record;
+        }, false)), queues.get(queues.size() - 1), null);
+        try {
+            sinkGroup.run(run);
+        } catch (InterruptedException e) {
+            // Either another thread failed, or the caller was interrupted and the run is cancelled
+            run.fail(e);
+        } catch (RuntimeException | Error e) {
+            run.fail(e);
+        }
+        run.join();
+
+        List<StageStats> stages = new ArrayList<>();
+        workers.forEach(group -> group.addStats(stages));
+        sinkGroup.addStats(stages);
+        List<QueueStats> queueStats = queues.stream().map(BatchQueue::stats).toList();
+        return new PipelineStats(withStageTimes(parsing.get(), workers, sinkGroup), stages, queueStats,
+            Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * The parse metrics completed with the time spent validating and in the sink, which is
+     * where the records are written.
+     */
+    private ParsingStats withStageTimes(ParsingStats parsing, List<StageGroup> workers, StageGroup sink) {
+        if (parsing == null) {
+            return null;
+        }
+        long validateNanos = 0;
+        for (StageGroup group : workers) {
+            validateNanos += group.validationNanos();
+        }
+        return parsing.withMetrics(parsing.metrics()
+            .withStageTime(org.infy.metrics.Stage.VALIDATE, Duration.ofNanos(validateNanos))
+            .withStageTime(org.infy.metrics.Stage.WRITE, Duration.ofNanos(sink.busyNanos)));
+    }
+
+    private ParsingStats readSource(Run run, BatchQueue out) throws InterruptedException {
+        ParsingStats stats = parser.parseBatches(input, type, batch -> handOver(run, batch, out));
+        if (!run.failed()) {
+            out.put(BatchQueue.END);
+        }
+        return stats;
+    }
+
+    private void handOver(Run run, RecordBatch<Object> batch, BatchQueue out) {
+        if (run.failed()) {
+            return; // the input is being closed; drop what the parser still delivers
+        }
+        batch.errors().forEach(errorSink);
+        if (batch.records().isEmpty()) {
+            return;
+        }
+        try {
+            // Parser batches are reused, so the queue gets a copy
+            out.put(new ArrayList<>(batch.records()));
+        } catch (InterruptedException e) {
+            // Parsers treat exceptions from the sink as record errors, so stop by closing the input
+            Thread.currentThread().interrupt();
+            closeInput();
+        }
+    }
+
+    private void closeInput() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close pipeline input", e);
+        }
+    }
+
+    /**
+     * Fused stages on one thread: takes batches, runs each record through all stages and
+     * puts the survivors on the next queue.
+     */
+    private final class StageGroup {
+        private final String[] names;
+        private final Stage[] stages;
+        private final boolean[] validation;
+        private final BatchQueue in;
+        private final BatchQueue out;
+        private final long[] recordsIn;
+        private final long[] recordsOut;
+        private final long[] sampledNanos;
+        private long busyNanos;
+        private long seen;
+
+        StageGroup(List<NamedStage> group, BatchQueue in, BatchQueue out) {
+            this.names = group.stream().map(NamedStage::name).toArray(String[]::new);
+            this.stages = group.stream().map(NamedStage::stage).toArray(Stage[]::new);
+            this.validation = new boolean[stages.length];
+            for (int s = 0; s < stages.length; s++) {
+                validation[s] = group.get(s).validation();
+            }
+            this.in = in;
+            this.out = out;
+            this.recordsIn = new long[stages.length];
+            this.recordsOut = new long[stages.length];
+            this.sampledNanos = new long[stages.length];
+        }
+
+        void run(Run run) throws InterruptedException {
+            while (true) {
+                List<Object> batch = in.take();
+                if (batch == BatchQueue.END) {
+                    if (out != null) {
+                        out.put(BatchQueue.END);
+                    }
+                    return;
+                }
+                long start = System.nanoTime();
+                List<Object> survivors = out == null ? null : new ArrayList<>(batch.size());
+                for (Object record : batch) {
+                    Object value = record;
+                    boolean sampled = seen++ % SAMPLE_INTERVAL == 0;
+                    for (int s = 0; s < stages.length && value != null; s++) {
+                        recordsIn[s]++;
+                        long begin = sampled ? System.nanoTime() : 0;
+                        value = stages[s].apply(value);
+                        if (sampled) {
+                            sampledNanos[s] += System.nanoTime() - begin;
+                        }
+                        if (value != null) {
+                            recordsOut[s]++;
+                        }
+                    }
+                    if (value != null && survivors != null) {
+                        survivors.add(value);
+                    }
+                }
+                busyNanos += System.nanoTime() - start;
+                if (survivors != null && !survivors.isEmpty()) {
+                    out.put(survivors);
+                }
+                if (run.failed()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Estimated time of the validation stages, scaled up from the sampled records.
+         */
+        long validationNanos() {
+            long nanos = 0;
+            for (int s = 0; s < stages.length; s++) {
+                if (validation[s]) {
+                    nanos += sampledNanos[s] * SAMPLE_INTERVAL;
+                }
+            }
+            // A GC pause in a sampled record is scaled up with it
+            return Math.min(nanos, busyNanos);
+        }
+
+        void addStats(List<StageStats> stats) {
+            for (int s = 0; s < stages.length; s++) {
+                stats.add(new StageStats(names[s], recordsIn[s], recordsOut[s], Duration.ofNanos(busyNanos)));
+            }
+        }
+    }
+
+    /**
+     * The threads of one run; the first failure stops all of them.
+     */
+    private final class Run {
+        private final Thread caller;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Run(Thread caller) {
+            this.caller = caller;
+        }
+
+        void start(String name, Task task) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } catch (InterruptedException e) {
+                    // Stopped because another thread failed
+                } catch (Throwable e) {
+                    fail(e);
+                }
+            }, name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean failed() {
+            return failure.get() != null;
+        }
+
+        void fail(Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                logger.error("Pipeline failed", e);
+                closeInput();
+                threads.forEach(Thread::interrupt);
+                if (Thread.currentThread() != caller) {
+                    caller.interrupt();
+                }
+            }
+        }
+
+        void join() {
+            boolean interrupted = false;
+            for (Thread thread : threads) {
+                while (true) {
+                    try {
+                        thread.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            // A failure elsewhere interrupts the caller; that interrupt is not meant for its code
+            if (interrupted || failed()) {
+                Thread.interrupted();
+            }
+            Throwable e = failure.get();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Pipeline interrupted", e);
+            }
+            if (e != null) {
+                throw new RuntimeException("Pipeline failed", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,22 @@
+package org.infy.pipeline;
+
+import org.infy.model.ParsingStats;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a pipeline run: the statistics of the parsing source, the counters of every
+ * stage (the sink last) and of every queue, and the wall time of the whole run.
+ */
+public record PipelineStats(
+    ParsingStats parsing,
+    List<StageStats> stages,
+    List<QueueStats> queues,
+    Duration elapsed
+) {
+    public PipelineStats {
+        stages = List.copyOf(stages);
+        queues = List.copyOf(queues);
+    }
+}
@@ -0,0 +1,14 @@
+package org.infy.pipeline;
+
+/**
+ * Depth counters of the bounded queue between two pipeline threads, in batches. A queue that
+ * is often full means the stage after it is the bottleneck; one that is often empty means the
+ * stage before it is.
+ */
+public record QueueStats(
+    String name,
+    int capacity,
+    long batches,
+    int maxDepth,
+    double averageDepth
+) {}
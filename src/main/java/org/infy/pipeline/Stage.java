@@ -0,0 +1,8 @@
+package org.infy.pipeline;
+
+/**
+ * A stateless per-record step of a pipeline. Returning null drops the record.
+ */
+interface Stage {
+    Object apply(Object record);
+}
@@ -0,0 +1,19 @@
+package org.infy.pipeline;
+
+import java.time.Duration;
+
+/**
+ * Counters of one pipeline stage. Fused stages run in one loop on one thread, so they share
+ * the busy time of that thread.
+ */
+public record StageStats(
+    String name,
+    long recordsIn,
+    long recordsOut,
+    Duration busyTime
+) {
+    public double recordsPerSecond() {
+        long nanos = busyTime.toNanos();
+        return nanos == 0 ? 0 : recordsIn * 1_000_000_000.0 / nanos;
+    }
+}
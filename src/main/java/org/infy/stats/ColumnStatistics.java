@@ -0,0 +1,251 @@
+package org.infy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass profile of one column: blank rate, numeric and text min/max, approximate
+ * distinct count and approximate quantiles of the numeric values.
+ * <p>
+ * Memory use is fixed regardless of the number of rows. Profiles of the same column built
+ * over different chunks can be {@link #merge merged}, and a profile can be saved with
+ * {@link #writeTo} to be merged with one of later rows. Instances are not thread-safe; build
+ * one per thread and merge them.
+ */
+public final class ColumnStatistics {
+    private final String name;
+    private final HyperLogLog distinct;
+    private final QuantileSketch quantiles;
+    private long count;
+    private long blankCount;
+    private String minText;
+    private String maxText;
+
+    public ColumnStatistics(String name) {
+        this(name, new HyperLogLog(), new QuantileSketch());
+    }
+
+    private ColumnStatistics(String name, HyperLogLog distinct, QuantileSketch quantiles) {
+        this.name = name;
+        this.distinct = distinct;
+        this.quantiles = quantiles;
+    }
+
+    /**
+     * Adds one value; null and whitespace-only values count as blank.
+     */
+    public void add(String value) {
+        count++;
+        if (value == null || isBlank(value)) {
+            blankCount++;
+            return;
+        }
+        distinct.add(value);
+        if (minText == null || value.compareTo(minText) < 0) {
+            minText = value;
+        }
+        if (maxText == null || value.compareTo(maxText) > 0) {
+            maxText = value;
+        }
+        double number = parseNumber(value);
+        if (!Double.isNaN(number)) {
+            quantiles.add(number);
+        }
+    }
+
+    /**
+     * Counts {@code blanks} more blank values, e.g. for rows that lacked this column.
+     */
+    public void addBlanks(long blanks) {
+        count += blanks;
+        blankCount += blanks;
+    }
+
+    public void merge(ColumnStatistics other) {
+        count += other.count;
+        blankCount += other.blankCount;
+        distinct.merge(other.distinct);
+        quantiles.merge(other.quantiles);
+        if (other.minText != null && (minText == null || other.minText.compareTo(minText) < 0)) {
+            minText = other.minText;
+        }
+        if (other.maxText != null && (maxText == null || other.maxText.compareTo(maxText) > 0)) {
+            maxText = other.maxText;
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        writeText(name, out);
+        out.writeLong(count);
+        out.writeLong(blankCount);
+        out.writeBoolean(minText != null);
+        if (minText != null) {
+            writeText(minText, out);
+            writeText(maxText, out);
+        }
+        distinct.writeTo(out);
+        quantiles.writeTo(out);
+    }
+
+    public static ColumnStatistics readFrom(DataInput in) throws IOException {
+        String name = readText(in);
+        long count = in.readLong();
+        long blankCount = in.readLong();
+        String minText = null;
+        String maxText = null;
+        if (in.readBoolean()) {
+            minText = readText(in);
+            maxText = readText(in);
+        }
+        ColumnStatistics column = new ColumnStatistics(name, HyperLogLog.readFrom(in), QuantileSketch.readFrom(in));
+        column.count = count;
+        column.blankCount = blankCount;
+        column.minText = minText;
+        column.maxText = maxText;
+        return column;
+    }
+
+    // Unlike writeUTF, not limited to 64 KB
+    private static void writeText(String text, DataOutput out) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid text length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long blankCount() {
+        return blankCount;
+    }
+
+    public double blankRate() {
+        return count == 0 ? 0 : (double) blankCount / count;
+    }
+
+    /**
+     * Number of non-blank values that are plain decimal numbers.
+     */
+    public long numericCount() {
+        return quantiles.count();
+    }
+
+    /**
+     * @return the smallest numeric value, or NaN if there were none
+     */
+    public double min() {
+        return quantiles.min();
+    }
+
+    /**
+     * @return the largest numeric value, or NaN if there were none
+     */
+    public double max() {
+        return quantiles.max();
+    }
+
+    /**
+     * @return the lexicographically smallest non-blank value, or null if all were blank
+     */
+    public String minText() {
+        return minText;
+    }
+
+    public String maxText() {
+        return maxText;
+    }
+
+    public long distinctCount() {
+        return distinct.estimate();
+    }
+
+    /**
+     * Approximate quantile of the numeric values, within 1% relative error.
+     * @return NaN if there were no numeric values
+     */
+    public double quantile(double quantile) {
+        return quantiles.quantile(quantile);
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d values, %d blank, ~%d distinct", name, count, blankCount, distinctCount());
+    }
+
+    private static boolean isBlank(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses plain decimal notation only, without throwing for text.
+     * @return the number, or NaN if the value is not a decimal number
+     */
+    static double parseNumber(String value) {
+        int i = 0;
+        int length = value.length();
+        if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        boolean dot = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        boolean exponent = digits > 0 && i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E');
+        if (exponent) {
+            i++;
+            if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                digits = 0;
+            }
+        }
+        if (digits == 0 || i != length) {
+            return Double.NaN;
+        }
+        if (!dot && !exponent && length <= 18) {
+            // Integers of up to 18 characters fit a long and need no floating point parse
+            return Long.parseLong(value);
+        }
+        return Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,226 @@
+package org.infy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Mergeable quantile sketch with relative error guarantees, after DDSketch.
+ * <p>
+ * Values are counted in logarithmically sized buckets, so every quantile is returned within
+ * 1% of the true value. Positive and negative values have their own bucket stores of at most
+ * 2048 counters each; if a store would grow beyond that, its buckets closest to zero are
+ * folded together, which only affects the accuracy of the lowest quantiles. Sketches merge by
+ * adding bucket counts, and are saved and restored with {@link #writeTo} and {@link #readFrom}.
+ */
+public final class QuantileSketch {
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MAX_BUCKETS = 2048;
+    // Magnitudes below this are counted as zero so bucket indexes stay in int range
+    private static final double MIN_MAGNITUDE = 1e-300;
+
+    private final BucketStore positive = new BucketStore();
+    private final BucketStore negative = new BucketStore();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value >= MIN_MAGNITUDE) {
+            positive.add(index(value), 1);
+        } else if (value <= -MIN_MAGNITUDE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(zeroCount);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        positive.writeTo(out);
+        negative.writeTo(out);
+    }
+
+    public static QuantileSketch readFrom(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.zeroCount = in.readLong();
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        sketch.positive.readFrom(in);
+        sketch.negative.readFrom(in);
+        return sketch;
+    }
+
+    /**
+     * @return the exact smallest value, or NaN if the sketch is empty
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the approximate value at that quantile, or NaN if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        double value;
+        if (rank < negative.total) {
+            // Negative buckets are ordered by magnitude, so walk them from the top down
+            value = -negative.valueAtRank(negative.total - 1 - rank);
+        } else if (rank < negative.total + zeroCount) {
+            value = 0;
+        } else {
+            value = positive.valueAtRank(rank - negative.total - zeroCount);
+        }
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * Dense counters for the bucket indexes {@code [low, high]}, stored from {@code offset}.
+     */
+    private static final class BucketStore {
+        private long[] counts;
+        private int offset;
+        private int low;
+        private int high;
+        private long total;
+
+        void add(int index, long count) {
+            if (total == 0) {
+                low = index;
+                high = index;
+                ensureRange(index, index);
+            } else {
+                int newLow = Math.min(low, index);
+                int newHigh = Math.max(high, index);
+                if (newHigh - newLow + 1 > MAX_BUCKETS) {
+                    newLow = newHigh - MAX_BUCKETS + 1;
+                    index = Math.max(index, newLow);
+                }
+                long folded = 0;
+                for (int i = low; i < Math.min(newLow, high + 1); i++) {
+                    folded += counts[i - offset];
+                    counts[i - offset] = 0;
+                }
+                ensureRange(newLow, newHigh);
+                counts[newLow - offset] += folded;
+                low = newLow;
+                high = newHigh;
+            }
+            counts[index - offset] += count;
+            total += count;
+        }
+
+        void merge(BucketStore other) {
+            for (int i = other.low; other.total > 0 && i <= other.high; i++) {
+                long count = other.counts[i - other.offset];
+                if (count > 0) {
+                    add(i, count);
+                }
+            }
+        }
+
+        /**
+         * Writes the buckets in {@code [low, high]}; empty stores write no buckets.
+         */
+        void writeTo(DataOutput out) throws IOException {
+            if (total == 0) {
+                out.writeInt(0);
+                return;
+            }
+            out.writeInt(high - low + 1);
+            out.writeInt(low);
+            for (int i = low; i <= high; i++) {
+                out.writeLong(counts[i - offset]);
+            }
+        }
+
+        void readFrom(DataInput in) throws IOException {
+            int buckets = in.readInt();
+            if (buckets < 0 || buckets > MAX_BUCKETS) {
+                throw new IOException("Invalid bucket count: " + buckets);
+            }
+            int first = buckets == 0 ? 0 : in.readInt();
+            for (int i = 0; i < buckets; i++) {
+                long count = in.readLong();
+                if (count > 0) {
+                    add(first + i, count);
+                }
+            }
+        }
+
+        double valueAtRank(long rank) {
+            long seen = 0;
+            for (int i = low; i <= high; i++) {
+                seen += counts[i - offset];
+                if (seen > rank) {
+                    return value(i);
+                }
+            }
+            return value(high);
+        }
+
+        private void ensureRange(int from, int to) {
+            if (counts != null && from >= offset && to < offset + counts.length) {
+                return;
+            }
+            int needed = to - from + 1;
+            int length = Math.min(MAX_BUCKETS, Math.max(needed + 32, counts == null ? 0 : counts.length * 2));
+            int newOffset = from - (length - needed) / 2;
+            long[] grown = new long[length];
+            if (counts != null && total > 0) {
+                // Only the buckets in [from, high] can be non-zero at this point
+                for (int i = Math.max(low, from); i <= high; i++) {
+                    grown[i - newOffset] = counts[i - offset];
+                }
+            }
+            counts = grown;
+            offset = newOffset;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.infy.stats;
+
+import org.infy.model.CsvHeader;
+import org.infy.model.CsvRecord;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * {@link ColumnStatistics} for every column of a set of records, built in one pass.
+ * <p>
+ * Columns are added as they are first seen; a row without a value for a column counts as a
+ * blank for it. Statistics of separate chunks or threads are combined with {@link #merge},
+ * and {@link #collector()} profiles a (parallel) record stream without keeping the records.
+ * Statistics saved with {@link #writeTo} can be restored and merged with those of rows read
+ * later, such as rows appended to a file since it was last profiled.
+ */
+public final class TableStatistics {
+    private final List<ColumnStatistics> columns = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+    private long rowCount;
+    // Column positions of the last CsvRecord header seen, -1 for duplicate names
+    private CsvHeader mappedHeader;
+    private int[] mapping;
+
+    public TableStatistics() {
+    }
+
+    /**
+     * Starts with the columns of {@code header}, so they are reported even if no rows follow.
+     */
+    public TableStatistics(CsvHeader header) {
+        for (String name : header.names()) {
+            columnIndex(name);
+        }
+    }
+
+    public static Collector<Map<String, String>, ?, TableStatistics> collector() {
+        return Collector.of(
+            TableStatistics::new,
+            TableStatistics::add,
+            (left, right) -> {
+                left.merge(right);
+                return left;
+            },
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    public void add(Map<String, String> record) {
+        if (record instanceof CsvRecord csvRecord) {
+            add(csvRecord);
+            return;
+        }
+        record.forEach((name, value) -> columns.get(columnIndex(name)).add(value));
+        rowCount++;
+    }
+
+    public void add(CsvRecord record) {
+        CsvHeader header = record.header();
+        if (header != mappedHeader) {
+            mapping = new int[header.size()];
+            for (int i = 0; i < mapping.length; i++) {
+                // Like the record's Map view, the last of several equally named columns wins
+                mapping[i] = header.indexOf(header.name(i)) == i ? columnIndex(header.name(i)) : -1;
+            }
+            mappedHeader = header;
+        }
+        for (int i = 0; i < mapping.length; i++) {
+            if (mapping[i] >= 0) {
+                columns.get(mapping[i]).add(record.get(i));
+            }
+        }
+        rowCount++;
+    }
+
+    public void merge(TableStatistics other) {
+        other.fillMissing();
+        fillMissing();
+        for (ColumnStatistics column : other.columns) {
+            columns.get(columnIndex(column.name())).merge(column);
+        }
+        rowCount += other.rowCount;
+        fillMissing();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        fillMissing();
+        out.writeLong(rowCount);
+        out.writeInt(columns.size());
+        for (ColumnStatistics column : columns) {
+            column.writeTo(out);
+        }
+    }
+
+    public static TableStatistics readFrom(DataInput in) throws IOException {
+        TableStatistics statistics = new TableStatistics();
+        statistics.rowCount = in.readLong();
+        int columnCount = in.readInt();
+        for (int i = 0; i < columnCount; i++) {
+            ColumnStatistics column = ColumnStatistics.readFrom(in);
+            statistics.index.put(column.name(), statistics.columns.size());
+            statistics.columns.add(column);
+        }
+        return statistics;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public List<ColumnStatistics> columns() {
+        fillMissing();
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * @return the statistics of the named column, or null if it was never seen
+     */
+    public ColumnStatistics column(String name) {
+        Integer position = index.get(name);
+        if (position == null) {
+            return null;
+        }
+        fillMissing();
+        return columns.get(position);
+    }
+
+    private int columnIndex(String name) {
+        Integer position = index.get(name);
+        if (position != null) {
+            return position;
+        }
+        ColumnStatistics column = new ColumnStatistics(name);
+        // Rows before this column first appeared had no value for it
+        column.addBlanks(rowCount);
+        columns.add(column);
+        index.put(name, columns.size() - 1);
+        return columns.size() - 1;
+    }
+
+    private void fillMissing() {
+        for (ColumnStatistics column : columns) {
+            if (column.count() < rowCount) {
+                column.addBlanks(rowCount - column.count());
+            }
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package org.infy.transformer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface DataTransformer<T, R> {
     R transform(T input);
-    List<R> transformBatch(List<T> input);
-} 
\ No newline at end of file
+
+    default List<R> transformBatch(List<T> input) {
+        List<R> output = new ArrayList<>(input.size());
+        for (T item : input) {
+            output.add(transform(item));
+        }
+        return output;
+    }
+} 
@@ -0,0 +1,94 @@
+package org.infy.util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens input files that may be gzip-compressed, recognized by their magic bytes rather than
+ * their name, and decompresses them while they are read. Files of a few segments are
+ * decompressed by a {@link GZIPInputStream}; larger ones by a
+ * {@link ParallelGzipInputStream}, which uses every core when the file has many members.
+ */
+public final class CompressedInput {
+    private static final Set<String> SUFFIXES = Set.of("gz", "gzip");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Assumed for files of many members, whose trailer only gives the size of the last one
+    private static final int TYPICAL_RATIO = 4;
+
+    private CompressedInput() {
+    }
+
+    public static boolean isGzip(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            while (magic.hasRemaining() && channel.read(magic, magic.position()) >= 0) {
+                // read until two bytes or the end of the file
+            }
+            return magic.position() == 2 && magic.get(0) == (byte) 0x1F && magic.get(1) == (byte) 0x8B;
+        }
+    }
+
+    /**
+     * Opens {@code file} for reading, decompressing it if it is gzip.
+     */
+    public static InputStream open(Path file) throws IOException {
+        if (!isGzip(file)) {
+            return Files.newInputStream(file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > 2L * ParallelGzipInputStream.SEGMENT_SIZE
+                    && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                return new ParallelGzipInputStream(channel);
+            }
+            channel.close();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    /**
+     * Roughly how many bytes reading {@code file} yields: its size, or for gzip the larger of
+     * the length in the trailer of its last member and {@value #TYPICAL_RATIO} times its size.
+     */
+    public static long estimatedSize(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer bytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(bytes, 0);
+            if (size < 18 || bytes.get(0) != (byte) 0x1F || bytes.get(1) != (byte) 0x8B) {
+                return size;
+            }
+            bytes.clear();
+            while (bytes.hasRemaining() && channel.read(bytes, size - 4 + bytes.position()) >= 0) {
+                // read the four trailer bytes
+            }
+            return Math.max(Integer.toUnsignedLong(bytes.getInt(0)), size * TYPICAL_RATIO);
+        }
+    }
+
+    /**
+     * The file name without a compression suffix, so {@code data.csv.gz} becomes
+     * {@code data.csv}.
+     */
+    public static String stripSuffix(String fileName) {
+        int lastDotIndex = fileName.lastIndexOf('.');
+        if (lastDotIndex > 0 && SUFFIXES.contains(fileName.substring(lastDotIndex + 1).toLowerCase(Locale.ROOT))) {
+            return fileName.substring(0, lastDotIndex);
+        }
+        return fileName;
+    }
+}
@@ -0,0 +1,169 @@
+package org.infy.util;
+
+import org.infy.metrics.ParseMetrics;
+import org.infy.model.FileParseResult;
+import org.infy.model.ParseResult;
+import org.infy.model.ParsingStats;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Parses many files concurrently, one task per file, and hands the results to the caller's
+ * thread as the files finish.
+ * <p>
+ * Tasks run on virtual threads when the runtime has them (Java 21 and later), otherwise on a
+ * small pool of platform threads. Either way the number of files parsed at once is bounded
+ * twice: by {@link IngestOptions#maxOpenFiles()}, and by the total size of the files being
+ * parsed or waiting to be handed on, so a directory of large files does not hold all of
+ * them in memory together.
+ */
+final class DirectoryIngester<T> {
+    // Sizes are counted in kilobytes so a large budget fits the permits of a semaphore
+    private static final int UNIT = 1024;
+
+    private final IngestOptions options;
+    private final Function<Path, ParseResult<T>> parser;
+
+    DirectoryIngester(IngestOptions options, Function<Path, ParseResult<T>> parser) {
+        this.options = options;
+        this.parser = parser;
+    }
+
+    ParsingStats run(List<Path> files, Consumer<? super FileParseResult<T>> onResult) {
+        long start = System.nanoTime();
+        Semaphore openFiles = new Semaphore(options.maxOpenFiles());
+        int budget = (int) Math.max(1, Math.min(Integer.MAX_VALUE, options.maxInFlightBytes() / UNIT));
+        // Fair, so a large file waiting for the budget is not overtaken forever by small ones
+        Semaphore inFlight = new Semaphore(budget, true);
+        BlockingQueue<Finished<T>> finished = new LinkedBlockingQueue<>();
+        ExecutorService executor = newExecutor(options.maxOpenFiles());
+        long totalRecords = 0;
+        long validRecords = 0;
+        long invalidRecords = 0;
+        List<ParseMetrics> metrics = new ArrayList<>();
+        Map<String, Long> errorCounts = new HashMap<>();
+        try {
+            for (Path file : files) {
+                // A file larger than the whole budget is parsed on its own
+                int permits = (int) Math.min(budget, Math.max(1, size(file) / UNIT));
+                executor.execute(() -> finished.add(parse(file, permits, openFiles, inFlight)));
+            }
+            for (int i = 0; i < files.size(); i++) {
+                Finished<T> next = finished.take();
+                FileParseResult<T> result = next.result();
+                if (result.succeeded()) {
+                    ParsingStats stats = result.result().stats();
+                    totalRecords += stats.totalRecords();
+                    validRecords += stats.validRecords();
+                    invalidRecords += stats.invalidRecords();
+                    metrics.add(stats.metrics());
+                    stats.errorCounts().forEach((type, count) -> errorCounts.merge(type, count, Long::sum));
+                }
+                try {
+                    onResult.accept(result);
+                } finally {
+                    inFlight.release(next.permits());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while parsing files", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new ParsingStats(
+            totalRecords,
+            validRecords,
+            invalidRecords,
+            elapsed,
+            Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(),
+            ParseMetrics.combine(metrics, elapsed),
+            errorCounts
+        );
+    }
+
+    /**
+     * Parses {@code file} once {@code permits} of the byte budget are free. The permits stay
+     * taken until the caller's thread has handed the result on, so results waiting for a slow
+     * consumer still count against the budget.
+     */
+    private Finished<T> parse(Path file, int permits, Semaphore openFiles, Semaphore inFlight) {
+        try {
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Finished<>(new FileParseResult<>(file, null, e), 0);
+        }
+        return new Finished<>(parse(file, openFiles), permits);
+    }
+
+    private FileParseResult<T> parse(Path file, Semaphore openFiles) {
+        try {
+            openFiles.acquire();
+            try {
+                return new FileParseResult<>(file, parser.apply(file), null);
+            } finally {
+                openFiles.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FileParseResult<>(file, null, e);
+        } catch (Exception e) {
+            return new FileParseResult<>(file, null, e);
+        } catch (Error e) {
+            // Still report the file, or the caller would wait for it forever
+            return new FileParseResult<>(file, null, new ExecutionException(e));
+        }
+    }
+
+    /**
+     * A parsed file and the permits of the byte budget it holds until it is handed on.
+     */
+    private record Finished<T>(FileParseResult<T> result, int permits) {}
+
+    private static long size(Path file) {
+        try {
+            // Compressed files are counted at their decompressed size, which is what is parsed
+            return CompressedInput.estimatedSize(file);
+        } catch (IOException e) {
+            return 0; // the parser reports the problem
+        }
+    }
+
+    /**
+     * A virtual thread per task if the runtime supports it; parsing mostly waits on the file
+     * system for small files, so there is no point in sizing a pool. Otherwise a pool of
+     * platform threads, which the limits of the options keep busy.
+     */
+    private static ExecutorService newExecutor(int maxOpenFiles) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            int threads = Math.min(maxOpenFiles, Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "file-parser-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package org.infy.util;
 
+import org.infy.cache.SnapshotCache;
+import org.infy.metrics.Stage;
+import org.infy.model.DirectoryParseResult;
+import org.infy.model.FileParseResult;
+import org.infy.model.ParseError;
 import org.infy.model.ParseResult;
 import org.infy.model.ParserConfig;
-import org.infy.model.Person;
+import org.infy.model.ParsingStats;
+import org.infy.output.OutputFormat;
+import org.infy.output.OutputStats;
+import org.infy.output.ResultWriter;
 import org.infy.parser.DataParser;
 import org.infy.parser.impl.*;
 import org.slf4j.Logger;
@@ -11,54 +19,249 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class FileParserUtil {
     private static final Logger logger = LoggerFactory.getLogger(FileParserUtil.class);
+    private static final int MAX_PARSERS = 16;
+    // Parsers are thread-safe, so one instance per extension and config is reused across files.
+    // The projection is applied per call, and the least recently used configs are dropped.
+    private static final Map<ParserKey, DataParser<?>> PARSERS = Collections.synchronizedMap(
+        new LinkedHashMap<>(MAX_PARSERS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ParserKey, DataParser<?>> eldest) {
+                return size() > MAX_PARSERS;
+            }
+        });
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("csv", "json", "ndjson", "jsonl", "xml");
     
-    @SuppressWarnings("unchecked")
     public static <T> ParseResult<T> parseFile(String filePath, ParserConfig config, Class<T> targetClass) {
         Path path = Paths.get(filePath);
         String fileName = path.getFileName().toString();
-        String extension = getFileExtension(fileName).toLowerCase();
+        if (getFileExtension(fileName).equalsIgnoreCase("csv") && targetClass.isRecord()) {
+            return parse(path, config, targetClass);
+        }
+        
+        Path outputPath = outputPath(fileName, OutputFormat.TEXT);
+        ResultWriter<T> writer = ResultWriter.open(outputPath, OutputFormat.TEXT);
+        ParseResult<T> result;
+        try {
+            writer.writeText("=== Parsed Data ===\n");
+            result = parse(path, config, targetClass, writer, true);
+            writer.writeText(summary(result));
+        } finally {
+            writer.close();
+        }
+        logger.info("Results written to file: {} ({})", outputPath, writer.stats());
+        return new ParseResult<>(result.parsedData(), result.errors(), withWriteTime(result.stats(), writer));
+    }
+    
+    /**
+     * Parses a file straight into {@code output}, encoded as {@code format}. Records are
+     * written while the file is parsed, where the parser allows it, and not kept in memory.
+     * Parse errors are only counted.
+     */
+    public static <T> OutputStats parseToFile(String filePath, Path output, OutputFormat format, ParserConfig config,
+                                              Class<T> targetClass) {
+        Path path = Paths.get(filePath);
+        ResultWriter<T> writer = ResultWriter.open(output, format);
+        ParseResult<T> result;
+        try {
+            result = parse(path, config, targetClass, writer, false);
+        } finally {
+            writer.close();
+        }
+        if (!result.errors().isEmpty()) {
+            logger.warn("Found {} errors while parsing {}", result.errors().size(), filePath);
+        }
+        return new OutputStats(withWriteTime(result.stats(), writer), writer.stats());
+    }
+
+    private static ParsingStats withWriteTime(ParsingStats stats, ResultWriter<?> writer) {
+        return stats.withMetrics(stats.metrics().withStageTime(Stage.WRITE, writer.stats().busyTime()));
+    }
+    
+    /**
+     * Parses a file, or loads its result from {@code cache} if the file has not changed since
+     * it was last parsed with the same config into the same class. No result file is written.
+     */
+    public static <T> ParseResult<T> parseCached(String filePath, ParserConfig config, Class<T> targetClass,
+                                                 SnapshotCache cache) {
+        Path path = Paths.get(filePath);
+        return cache.get(path, config, targetClass, () -> parse(path, config, targetClass));
+    }
+    
+    /**
+     * Parses the files of {@code directory} concurrently and collects their results in the
+     * order they finished.
+     * @param glob matched against file paths relative to {@code directory}, so {@code "*.csv"}
+     *             only selects files at the top level; null selects every file with a supported
+     *             extension, in all subdirectories
+     */
+    public static <T> DirectoryParseResult<T> parseDirectory(Path directory, String glob, ParserConfig config,
+                                                             Class<T> targetClass) {
+        List<FileParseResult<T>> files = new ArrayList<>();
+        ParsingStats stats = parseDirectory(directory, glob, config, targetClass, IngestOptions.defaults(), files::add);
+        return new DirectoryParseResult<>(files, stats);
+    }
+    
+    /**
+     * Parses the files of {@code directory} concurrently and hands each result to
+     * {@code onResult} as soon as the file is done, on the calling thread, so results of
+     * finished files need not be kept. A file that cannot be parsed at all is reported as a
+     * failed {@link FileParseResult}.
+     * @return statistics summed over all files, with the wall time of the whole directory
+     */
+    public static <T> ParsingStats parseDirectory(Path directory, String glob, ParserConfig config, Class<T> targetClass,
+                                                  IngestOptions options, Consumer<? super FileParseResult<T>> onResult) {
+        List<Path> files = listFiles(directory, glob);
+        logger.info("Parsing {} files in {}", files.size(), directory);
+        return new DirectoryIngester<T>(options, file -> parse(file, config, targetClass)).run(files, onResult);
+    }
+    
+    private static List<Path> listFiles(Path directory, String glob) {
+        PathMatcher matcher = glob == null ? null : directory.getFileSystem().getPathMatcher("glob:" + glob);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            // Largest files first, so the small ones fill in around them instead of a large one finishing last
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(file -> matcher == null ? isSupported(file) : matcher.matches(directory.relativize(file)))
+                .map(file -> Map.entry(file, size(file)))
+                .sorted(Map.Entry.<Path, Long>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error listing directory: " + directory, e);
+        }
+    }
+    
+    private static boolean isSupported(Path file) {
+        String fileName = CompressedInput.stripSuffix(file.getFileName().toString());
+        int lastDotIndex = fileName.lastIndexOf('.');
+        return lastDotIndex > 0 && SUPPORTED_EXTENSIONS.contains(fileName.substring(lastDotIndex + 1).toLowerCase());
+    }
+    
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> ParseResult<T> parse(Path path, ParserConfig config, Class<T> targetClass) {
+        String extension = getFileExtension(path.getFileName().toString()).toLowerCase();
+        
+        if (isGzip(path)) {
+            return parseCompressed(path, extension, config, targetClass);
+        }
         
-        try (InputStream inputStream = new FileInputStream(filePath)) {
-            if (extension.equals("csv") && targetClass == Person.class) {
-                // Special handling for CSV to Person mapping
-                CsvParser csvParser = new CsvParser(config);
-                ParseResult<Map<String, String>> csvResult = csvParser.parse(
-                    inputStream, 
-                    (Class<Map<String, String>>) (Class<?>) Map.class
-                );
-                
-                // Convert the CSV result to Person objects
-                List<Person> persons = csvResult.parsedData().stream()
-                    .map(CsvPersonMapper::mapToPerson)
-                    .collect(Collectors.toList());
-                
-                // Create new ParseResult with Person objects
-                return (ParseResult<T>) new ParseResult<>(
-                    persons,
-                    csvResult.errors(),
-                    csvResult.stats()
-                );
-            } else {
-                DataParser<T> parser = getParser(extension, config);
-                ParseResult<T> result = parser.parse(inputStream, targetClass);
-                writeResultToFile(result, fileName);
-                return result;
+        if (extension.equals("csv") && targetClass.isRecord()) {
+            // Bind CSV rows straight into the record class, without a map per row
+            CsvParser csvParser = (CsvParser) FileParserUtil.<Map<String, String>>getParser(extension, config);
+            return (ParseResult<T>) csvParser.parseAs(path, targetClass.asSubclass(Record.class));
+        }
+        
+        if (extension.equals("ndjson") || extension.equals("jsonl")) {
+            // Newline-delimited JSON is split into line-aligned chunks and parsed in parallel
+            JsonParser<T> jsonParser = (JsonParser<T>) FileParserUtil.<T>getParser("json", config);
+            return jsonParser.parseLines(path, targetClass);
+        }
+        
+        if (extension.equals("xml")) {
+            // Flat lists of records are split on the record elements and parsed in parallel
+            XmlParser<T> xmlParser = (XmlParser<T>) FileParserUtil.<T>getParser(extension, config);
+            return xmlParser.parse(path, targetClass);
+        }
+        
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            DataParser<T> parser = getParser(extension, config);
+            return parser.parse(inputStream, targetClass);
+        } catch (IOException e) {
+            throw new RuntimeException("Error processing file: " + path, e);
+        }
+    }
+    
+    /**
+     * Parses a gzip file while it is decompressed. The parsers cannot split compressed data
+     * into chunks, so each reads the decompressed stream in one piece.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ParseResult<T> parseCompressed(Path path, String extension, ParserConfig config,
+                                                      Class<T> targetClass) {
+        try (InputStream inputStream = CompressedInput.open(path)) {
+            if (extension.equals("csv") && targetClass.isRecord()) {
+                CsvParser csvParser = (CsvParser) FileParserUtil.<Map<String, String>>getParser(extension, config);
+                return (ParseResult<T>) csvParser.parseAs(inputStream, targetClass.asSubclass(Record.class));
+            }
+            if (extension.equals("ndjson") || extension.equals("jsonl")) {
+                JsonParser<T> jsonParser = (JsonParser<T>) FileParserUtil.<T>getParser("json", config);
+                return jsonParser.parseLines(inputStream, targetClass);
             }
+            DataParser<T> parser = getParser(extension, config);
+            return parser.parse(inputStream, targetClass);
         } catch (IOException e) {
-            throw new RuntimeException("Error processing file: " + filePath, e);
+            throw new RuntimeException("Error processing file: " + path, e);
         }
     }
     
+    private static boolean isGzip(Path path) {
+        try {
+            return CompressedInput.isGzip(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Error processing file: " + path, e);
+        }
+    }
+    
+    /**
+     * Parses a file and hands its records to {@code writer}. Files the parsers read in one
+     * piece are streamed batch by batch, so the writer thread encodes while parsing goes on;
+     * files parsed in parallel chunks are written once parsed.
+     */
+    private static <T> ParseResult<T> parse(Path path, ParserConfig config, Class<T> targetClass,
+                                            ResultWriter<T> writer, boolean keepRecords) {
+        String extension = getFileExtension(path.getFileName().toString()).toLowerCase();
+        boolean streamed = extension.equals("json") || extension.equals("csv") && !targetClass.isRecord();
+        if (!streamed) {
+            ParseResult<T> result = parse(path, config, targetClass);
+            writer.writeAll(result.parsedData());
+            return keepRecords ? result : new ParseResult<>(List.of(), result.errors(), result.stats());
+        }
+        
+        List<T> records = new ArrayList<>();
+        List<ParseError> errors = new ArrayList<>();
+        try (InputStream inputStream = CompressedInput.open(path)) {
+            DataParser<T> parser = getParser(extension, config);
+            ParsingStats stats = parser.parseBatches(inputStream, targetClass, batch -> {
+                if (keepRecords) {
+                    records.addAll(batch.records());
+                }
+                errors.addAll(batch.errors());
+                writer.writeAll(batch.records());
+            });
+            return new ParseResult<>(records, errors, stats);
+        } catch (IOException e) {
+            throw new RuntimeException("Error processing file: " + path, e);
+        }
+    }
+    
+    /**
+     * The extension of the file name, ignoring a compression suffix.
+     */
     private static String getFileExtension(String fileName) {
+        fileName = CompressedInput.stripSuffix(fileName);
         int lastDotIndex = fileName.lastIndexOf('.');
         if (lastDotIndex > 0) {
             return fileName.substring(lastDotIndex + 1);
@@ -68,64 +271,63 @@ public class FileParserUtil {
     
     @SuppressWarnings("unchecked")
     private static <T> DataParser<T> getParser(String extension, ParserConfig config) {
-        return switch (extension) {
-            case "csv" -> (DataParser<T>) new CsvParser(config);
-            case "json" -> (DataParser<T>) new JsonParser<>(config);
-            case "xml" -> (DataParser<T>) new XmlParser<>(config, new PersonXmlMapper());
-            default -> throw new IllegalArgumentException("Unsupported file extension: " + extension);
+        DataParser<T> parser = (DataParser<T>) PARSERS.computeIfAbsent(
+            new ParserKey(extension, config.withProjection(null)), FileParserUtil::createParser);
+        return config.projection() == null ? parser : parser.withProjection(config.projection());
+    }
+
+    private static DataParser<?> createParser(ParserKey key) {
+        return switch (key.extension()) {
+            case "csv" -> new CsvParser(key.config());
+            case "json" -> new JsonParser<>(key.config());
+            case "xml" -> new XmlParser<>(key.config(), new PersonXmlMapper());
+            default -> throw new IllegalArgumentException("Unsupported file extension: " + key.extension());
         };
     }
+
+    private record ParserKey(String extension, ParserConfig config) {}
     
-    private static <T> void writeResultToFile(ParseResult<T> result, String originalFileName) {
+    private static Path outputPath(String originalFileName, OutputFormat format) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String outputFileName = "parsed_" + originalFileName + "_" + timestamp + ".txt";
-        Path outputPath = Paths.get("output", outputFileName);
+        return Paths.get("output", "parsed_" + originalFileName + "_" + timestamp + "." + format.extension());
+    }
+    
+    /**
+     * The errors and statistics written after the records of a text result file.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> String summary(ParseResult<T> result) {
+        StringBuilder summary = new StringBuilder();
         
-        try {
-            Files.createDirectories(outputPath.getParent());
-            
-            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(outputPath))) {
-                // Write parsing statistics
-                writer.println("=== Parsing Statistics ===");
-                writer.println("Total Records: " + result.stats().totalRecords());
-                writer.println("Valid Records: " + result.stats().validRecords());
-                writer.println("Invalid Records: " + result.stats().invalidRecords());
-                writer.println("Processing Time: " + result.stats().processingTime().toMillis() + "ms");
-                writer.println("Memory Used: " + result.stats().memoryUsed() + " bytes");
-                writer.println();
-                
-                // Write CSV-specific stats if available
-                if (result instanceof ParseResult<?> && result.parsedData() instanceof List<?> && 
-                    !result.parsedData().isEmpty() && result.parsedData().get(0) instanceof Map) {
-                    writer.println("=== CSV Field Analysis ===");
-                    Map<String, String> firstRecord = (Map<String, String>) result.parsedData().get(0);
-                    writer.println("Fields: " + String.join(", ", firstRecord.keySet()));
-                    writer.println("Total Rows: " + result.parsedData().size());
-                    writer.println();
+        // Write errors if any
+        if (!result.errors().isEmpty()) {
+            summary.append("\n=== Parsing Errors ===\n");
+            result.errors().forEach(error -> {
+                summary.append("Line ").append(error.lineNumber()).append(": ").append(error.message()).append('\n');
+                summary.append("Content: ").append(error.rawContent()).append('\n');
+                summary.append("Severity: ").append(error.severity()).append('\n');
+                if (error.cause() != null) {
+                    summary.append("Cause: ").append(error.cause().getMessage()).append('\n');
                 }
-                
-                // Write parsed data
-                writer.println("=== Parsed Data ===");
-                result.parsedData().forEach(item -> writer.println(item));
-                
-                // Write errors if any
-                if (!result.errors().isEmpty()) {
-                    writer.println("\n=== Parsing Errors ===");
-                    result.errors().forEach(error -> {
-                        writer.println("Line " + error.lineNumber() + ": " + error.message());
-                        writer.println("Content: " + error.rawContent());
-                        writer.println("Severity: " + error.severity());
-                        if (error.cause() != null) {
-                            writer.println("Cause: " + error.cause().getMessage());
-                        }
-                        writer.println();
-                    });
-                }
-            }
-            
-            logger.info("Results written to file: {}", outputPath);
-        } catch (IOException e) {
-            logger.error("Error writing results to file", e);
+                summary.append('\n');
+            });
+        }
+        
+        // Write parsing statistics
+        summary.append("\n=== Parsing Statistics ===\n");
+        summary.append("Total Records: ").append(result.stats().totalRecords()).append('\n');
+        summary.append("Valid Records: ").append(result.stats().validRecords()).append('\n');
+        summary.append("Invalid Records: ").append(result.stats().invalidRecords()).append('\n');
+        summary.append("Processing Time: ").append(result.stats().processingTime().toMillis()).append("ms\n");
+        summary.append("Memory Used: ").append(result.stats().memoryUsed()).append(" bytes\n");
+        
+        // Write CSV-specific stats if available
+        if (!result.parsedData().isEmpty() && result.parsedData().get(0) instanceof Map) {
+            summary.append("\n=== CSV Field Analysis ===\n");
+            Map<String, String> firstRecord = (Map<String, String>) result.parsedData().get(0);
+            summary.append("Fields: ").append(String.join(", ", firstRecord.keySet())).append('\n');
+            summary.append("Total Rows: ").append(result.parsedData().size()).append('\n');
         }
+        return summary.toString();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package org.infy.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses the gzip members of a file one after another, starting at a member header at
+ * a given offset, with positional reads of the channel. A read never crosses the end of a
+ * member, so the caller can tell where members end: {@link #read} returns 0 on reaching one,
+ * and {@link #position()} is then the offset of the next member.
+ * <p>
+ * Every member's CRC-32 and length are checked. Data after the last member that is not a
+ * gzip header is ignored, as {@link java.util.zip.GZIPInputStream} does. Not thread-safe.
+ */
+final class GzipMemberReader implements AutoCloseable {
+    private static final int INPUT_SIZE = 64 * 1024;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final FileChannel channel;
+    private final long size;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] input = new byte[INPUT_SIZE];
+    private final ByteBuffer inputView = ByteBuffer.wrap(input);
+    // Offset of the next member header while between members, else of the next unread input byte
+    private long position;
+    private boolean inMember;
+    private boolean ended;
+    private long memberStart;
+    private long memberSize;
+    private int members;
+
+    GzipMemberReader(FileChannel channel, long size, long start) {
+        this.channel = channel;
+        this.size = size;
+        this.position = start;
+    }
+
+    /**
+     * Whether {@code header} at {@code offset} looks like the start of a gzip member: the magic
+     * bytes, deflate, no reserved flags and a known XFL and OS.
+     */
+    static boolean isHeader(byte[] header, int offset) {
+        int xfl = header[offset + 8] & 0xFF;
+        int os = header[offset + 9] & 0xFF;
+        return header[offset] == (byte) 0x1F && header[offset + 1] == (byte) 0x8B && header[offset + 2] == 8
+            && (header[offset + 3] & 0xE0) == 0 && (xfl == 0 || xfl == 2 || xfl == 4) && (os <= 13 || os == 255);
+    }
+
+    /**
+     * Decompresses into {@code target}.
+     * @return the number of bytes decompressed, 0 if a member just ended, or -1 after the last
+     *         member
+     * @throws ZipException if the data is not gzip or a member is damaged
+     */
+    int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!inMember && !startMember()) {
+            return -1;
+        }
+        try {
+            while (true) {
+                int n = inflater.inflate(target, offset, length);
+                if (n > 0) {
+                    crc.update(target, offset, n);
+                    memberSize += n;
+                    return n;
+                }
+                if (inflater.finished()) {
+                    endMember();
+                    return 0;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new ZipException("Deflate stream needs a preset dictionary");
+                }
+                if (inflater.needsInput()) {
+                    fill();
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid gzip member at offset " + memberStart + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Offset of the next member in the file while between members.
+     */
+    long position() {
+        return position;
+    }
+
+    boolean atMemberEnd() {
+        return !inMember;
+    }
+
+    /**
+     * Members completely read so far.
+     */
+    int members() {
+        return members;
+    }
+
+    private boolean startMember() throws IOException {
+        if (ended || position >= size) {
+            ended = true;
+            return false;
+        }
+        byte[] header = new byte[10];
+        if (readFully(header, position) < header.length || !isHeader(header, 0)) {
+            if (position == 0) {
+                throw new ZipException("Not in gzip format");
+            }
+            ended = true;
+            return false;
+        }
+        memberStart = position;
+        long p = position + header.length;
+        int flags = header[3];
+        if ((flags & FEXTRA) != 0) {
+            byte[] extraLength = new byte[2];
+            requireFully(extraLength, p);
+            p += 2 + ((extraLength[0] & 0xFF) | (extraLength[1] & 0xFF) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            p = skipString(p);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            p = skipString(p);
+        }
+        if ((flags & FHCRC) != 0) {
+            p += 2;
+        }
+        position = p;
+        inflater.reset();
+        crc.reset();
+        memberSize = 0;
+        inMember = true;
+        return true;
+    }
+
+    private void endMember() throws IOException {
+        // The inflater may have been given input past the end of the deflate data
+        long trailer = position - inflater.getRemaining();
+        byte[] bytes = new byte[8];
+        requireFully(bytes, trailer);
+        ByteBuffer view = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (view.getInt(0) != (int) crc.getValue()) {
+            throw new ZipException("Corrupt gzip member at offset " + memberStart + ": CRC-32 mismatch");
+        }
+        if (view.getInt(4) != (int) memberSize) {
+            throw new ZipException("Corrupt gzip member at offset " + memberStart + ": length mismatch");
+        }
+        position = trailer + bytes.length;
+        inMember = false;
+        members++;
+    }
+
+    private void fill() throws IOException {
+        inputView.clear();
+        int n = channel.read(inputView, position);
+        if (n <= 0) {
+            throw new EOFException("Unexpected end of gzip member at offset " + memberStart);
+        }
+        position += n;
+        inflater.setInput(input, 0, n);
+    }
+
+    private long skipString(long p) throws IOException {
+        byte[] bytes = new byte[256];
+        while (true) {
+            int n = readFully(bytes, p);
+            for (int i = 0; i < n; i++) {
+                if (bytes[i] == 0) {
+                    return p + i + 1;
+                }
+            }
+            if (n < bytes.length) {
+                throw new EOFException("Unexpected end of gzip header");
+            }
+            p += n;
+        }
+    }
+
+    private void requireFully(byte[] bytes, long offset) throws IOException {
+        if (readFully(bytes, offset) < bytes.length) {
+            throw new EOFException("Unexpected end of gzip member at offset " + memberStart);
+        }
+    }
+
+    private int readFully(byte[] bytes, long offset) throws IOException {
+        ByteBuffer view = ByteBuffer.wrap(bytes);
+        while (view.hasRemaining()) {
+            int n = channel.read(view, offset + view.position());
+            if (n < 0) {
+                break;
+            }
+        }
+        return view.position();
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+}
@@ -0,0 +1,38 @@
+package org.infy.util;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * Limits for parsing the files of a directory concurrently: how many files may be open at
+ * once, and how many bytes of files may be parsed, or wait to be handed to the caller, at
+ * once. A file larger than the byte limit is parsed on its own.
+ */
+public record IngestOptions(
+    int maxOpenFiles,
+    long maxInFlightBytes
+) {
+    private static final int MAX_DEFAULT_OPEN_FILES = 256;
+
+    public IngestOptions {
+        if (maxOpenFiles < 1 || maxInFlightBytes < 1) {
+            throw new IllegalArgumentException("Ingest limits must be positive");
+        }
+    }
+
+    /**
+     * At most 256 open files and half of the free file descriptors, and a quarter of the
+     * maximum heap in flight.
+     */
+    public static IngestOptions defaults() {
+        int maxOpenFiles = MAX_DEFAULT_OPEN_FILES;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof UnixOperatingSystemMXBean unix) {
+            long free = unix.getMaxFileDescriptorCount() - unix.getOpenFileDescriptorCount();
+            maxOpenFiles = (int) Math.max(1, Math.min(MAX_DEFAULT_OPEN_FILES, free / 2));
+        }
+        return new IngestOptions(maxOpenFiles, Math.max(1, Runtime.getRuntime().maxMemory() / 4));
+    }
+}
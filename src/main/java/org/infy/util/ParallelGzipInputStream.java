@@ -0,0 +1,318 @@
+package org.infy.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decompresses a gzip file of many members, such as concatenated gzip files or BGZF, on
+ * several cores and reads the result in order.
+ * <p>
+ * The file is cut into segments of {@link #SEGMENT_SIZE} compressed bytes. A task per segment
+ * finds the first gzip header after the segment's start, decompresses whole members from it
+ * until it passes the start of the next segment, and keeps the output. Compressed data can
+ * look like a header, so the output of a segment is only used if it begins exactly where the
+ * output read so far ends; otherwise this thread decompresses up to the next segment that
+ * does. A segment's output is capped, so a single-member file is decompressed on this thread
+ * from where the first task stopped, in constant memory. At most one task per core runs
+ * ahead of the reader.
+ */
+final class ParallelGzipInputStream extends InputStream {
+    static final int SEGMENT_SIZE = 1024 * 1024;
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int MAX_SEGMENT_OUTPUT = 16 * 1024 * 1024;
+    private static final int HEADER_SIZE = 10;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int readAhead;
+    private final ArrayDeque<ForkJoinTask<Segment>> pending = new ArrayDeque<>();
+    private long nextSplit;
+    private volatile boolean closed;
+
+    private Segment segment;
+    private int blockIndex;
+    private int blockPosition;
+    // Decompresses on this thread where no segment output lines up, until reaching target
+    private GzipMemberReader reader;
+    private long target;
+    private boolean finished;
+
+    ParallelGzipInputStream(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.readAhead = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        for (int i = 0; i < readAhead; i++) {
+            submitNext();
+        }
+        segment = take();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n;
+        while ((n = read(one, 0, 1)) == 0) {
+            // a read of one byte only returns 0 between members
+        }
+        return n < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        while (!finished) {
+            if (reader != null) {
+                int n = reader.read(target, offset, length);
+                if (n > 0) {
+                    return n;
+                }
+                if (n < 0) {
+                    finished = true;
+                } else if (reader.position() >= this.target) {
+                    nextSegment(reader.position());
+                }
+                continue;
+            }
+            if (blockIndex < segment.blocks.size()) {
+                byte[] block = segment.blocks.get(blockIndex);
+                int available = segment.blockLength(blockIndex) - blockPosition;
+                if (available == 0) {
+                    blockIndex++;
+                    blockPosition = 0;
+                    continue;
+                }
+                int n = Math.min(length, available);
+                System.arraycopy(block, blockPosition, target, offset, n);
+                blockPosition += n;
+                return n;
+            }
+            if (segment.error != null) {
+                throw segment.error;
+            }
+            if (segment.last) {
+                finished = true;
+            } else if (segment.rest != null) {
+                // The segment stopped at its output cap; carry on with its reader
+                reader = segment.rest;
+                this.target = segment.limit;
+            } else {
+                nextSegment(segment.end);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves on from the member boundary {@code position}: to the segment whose output begins
+     * there, or else to decompressing on this thread up to the next segment's start.
+     */
+    private void nextSegment(long position) {
+        while (!pending.isEmpty()) {
+            Segment next = peek();
+            if (next.start >= 0 && next.start <= position) {
+                take();
+                if (next.start == position) {
+                    closeReader();
+                    segment = next;
+                    blockIndex = 0;
+                    blockPosition = 0;
+                    return;
+                }
+                // Began at something that looked like a header inside a member
+                next.discard();
+                continue;
+            }
+            if (next.start < 0) {
+                take();
+                continue;
+            }
+            continueFrom(position, next.start);
+            return;
+        }
+        continueFrom(position, size);
+    }
+
+    private void continueFrom(long position, long until) {
+        if (reader == null) {
+            reader = new GzipMemberReader(channel, size, position);
+        }
+        target = until;
+    }
+
+    private Segment peek() {
+        return pending.peekFirst().join();
+    }
+
+    private Segment take() {
+        Segment next = pending.pollFirst().join();
+        submitNext();
+        return next;
+    }
+
+    private void submitNext() {
+        if (nextSplit >= size || closed) {
+            return;
+        }
+        long start = nextSplit;
+        long end = Math.min(size, start + SEGMENT_SIZE);
+        nextSplit = end;
+        pending.addLast(ForkJoinPool.commonPool().submit(() -> decompress(start, end)));
+    }
+
+    /**
+     * Decompresses whole members from the first header at or after {@code split} until the
+     * first member end at or after {@code limit}, or until the output cap.
+     */
+    private Segment decompress(long split, long limit) {
+        long candidate = split == 0 ? 0 : findHeader(split, limit);
+        while (candidate >= 0 && !closed) {
+            Segment result = new Segment(candidate, limit);
+            GzipMemberReader member = new GzipMemberReader(channel, size, candidate);
+            try {
+                result.decompress(member, () -> closed);
+                return result;
+            } catch (IOException e) {
+                member.close();
+                if (split > 0 && member.members() == 0) {
+                    // Not a real header; try the next one in this segment
+                    candidate = findHeader(candidate + 1, limit);
+                    continue;
+                }
+                result.error = e;
+                return result;
+            }
+        }
+        return new Segment(-1, limit);
+    }
+
+    /**
+     * The offset of the first byte in {@code [from, to)} that starts a plausible gzip header,
+     * or -1.
+     */
+    private long findHeader(long from, long to) {
+        byte[] window = new byte[64 * 1024 + HEADER_SIZE];
+        try {
+            for (long p = from; p < to; p += window.length - HEADER_SIZE) {
+                ByteBuffer view = ByteBuffer.wrap(window, 0, (int) Math.min(window.length, size - p));
+                int n = 0;
+                while (view.hasRemaining()) {
+                    int read = channel.read(view, p + n);
+                    if (read < 0) {
+                        break;
+                    }
+                    n += read;
+                }
+                int scan = (int) Math.min(n - HEADER_SIZE + 1, to - p);
+                for (int i = 0; i < scan; i++) {
+                    if (window[i] == (byte) 0x1F && GzipMemberReader.isHeader(window, i)) {
+                        return p + i;
+                    }
+                }
+                if (n < window.length) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Treated as no header; this thread decompresses the range instead
+        }
+        return -1;
+    }
+
+    private void closeReader() {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeReader();
+        for (ForkJoinTask<Segment> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+        if (segment != null && segment.rest != null && segment.rest != reader) {
+            segment.rest.close();
+        }
+        channel.close();
+    }
+
+    /**
+     * The output of one task.
+     */
+    private static final class Segment {
+        // The member offset decompression began at, or -1 if the segment has no header
+        final long start;
+        final long limit;
+        final List<byte[]> blocks = new ArrayList<>();
+        int lastLength;
+        long end = -1;
+        boolean last;
+        GzipMemberReader rest;
+        IOException error;
+
+        Segment(long start, long limit) {
+            this.start = start;
+            this.limit = limit;
+        }
+
+        void decompress(GzipMemberReader member, BooleanSupplier cancelled) throws IOException {
+            long output = 0;
+            byte[] block = null;
+            while (!cancelled.getAsBoolean()) {
+                if (member.atMemberEnd() && member.members() > 0 && member.position() >= limit) {
+                    end = member.position();
+                    member.close();
+                    return;
+                }
+                if (output >= MAX_SEGMENT_OUTPUT) {
+                    rest = member;
+                    return;
+                }
+                if (block == null || lastLength == block.length) {
+                    block = new byte[BLOCK_SIZE];
+                    blocks.add(block);
+                    lastLength = 0;
+                }
+                int n = member.read(block, lastLength, block.length - lastLength);
+                if (n < 0) {
+                    last = true;
+                    member.close();
+                    return;
+                }
+                lastLength += n;
+                output += n;
+            }
+            member.close();
+        }
+
+        int blockLength(int index) {
+            return index == blocks.size() - 1 ? lastLength : BLOCK_SIZE;
+        }
+
+        void discard() {
+            if (rest != null) {
+                rest.close();
+            }
+            blocks.clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.infy.validation;
+
+import org.infy.model.CsvHeader;
+import org.infy.model.CsvRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link CsvSchema} compiled against the header of a file: one check per column, run by
+ * column index. Field values are text and have to be convertible to the constraint's type.
+ * <p>
+ * Valid records are checked without allocating; error messages are only built for fields
+ * that fail. Records with another header are checked by the schema compiled against theirs,
+ * which is kept for the records that follow. Instances are thread-safe, and
+ * {@link #validateBatch} checks large batches on the fork-join common pool.
+ */
+public final class CompiledCsvSchema implements DataValidator<CsvRecord> {
+    // Batches smaller than this are not worth splitting
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final CsvSchema schema;
+    private final CsvHeader header;
+    private final TextCheck[] columns;
+    // Required fields without a column, missing from every record
+    private final List<String> missingColumns;
+    // The schema compiled against the header of the last record with another header
+    private volatile CompiledCsvSchema other;
+
+    CompiledCsvSchema(CsvSchema schema, CsvHeader header, List<String> fields, List<SchemaConstraint> constraints) {
+        this.schema = schema;
+        this.header = header;
+        this.columns = new TextCheck[header.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            int column = header.indexOf(field);
+            if (column >= 0) {
+                columns[column] = new TextCheck(field, constraints.get(i));
+            } else if (constraints.get(i).required()) {
+                missing.add("Required field missing: " + field);
+            }
+        }
+        this.missingColumns = List.copyOf(missing);
+    }
+
+    public CsvHeader header() {
+        return header;
+    }
+
+    /**
+     * @return the errors of {@code record}, or an empty list if it is valid
+     */
+    public List<String> errors(CsvRecord record) {
+        if (!matchesHeader(record.header())) {
+            // Projected rows and rows of another file: checked the same way, by their own header
+            CompiledCsvSchema compiled = other;
+            if (compiled == null || !compiled.matchesHeader(record.header())) {
+                compiled = schema.compile(record.header());
+                other = compiled;
+            }
+            return compiled.errors(record);
+        }
+        List<String> errors = missingColumns.isEmpty() ? null : new ArrayList<>(missingColumns);
+        for (int column = 0; column < columns.length; column++) {
+            TextCheck check = columns[column];
+            if (check == null) {
+                continue;
+            }
+            int result = check.check(record.get(column));
+            if (result != TextCheck.VALID && (result != TextCheck.MISSING || check.required())) {
+                if (errors == null) {
+                    errors = new ArrayList<>();
+                }
+                check.messages(result, errors::add);
+            }
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    @Override
+    public ValidationResult validate(CsvRecord record) {
+        List<String> errors = errors(record);
+        return errors.isEmpty() ? ValidationResult.createValid() : ValidationResult.createInvalid(errors);
+    }
+
+    /**
+     * Validates the records in order; batches of a few thousand records or more are split
+     * across the fork-join common pool.
+     */
+    @Override
+    public List<ValidationResult> validateBatch(List<CsvRecord> data) {
+        IntStream indexes = IntStream.range(0, data.size());
+        if (data.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        return indexes.mapToObj(i -> validate(data.get(i))).toList();
+    }
+
+    /**
+     * Records of malformed rows carry a widened copy of the header, which starts with the
+     * same columns.
+     */
+    private boolean matchesHeader(CsvHeader other) {
+        if (other == header) {
+            return true;
+        }
+        if (other.size() < header.size()) {
+            return false;
+        }
+        for (int column = 0; column < header.size(); column++) {
+            if (!other.name(column).equals(header.name(column))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
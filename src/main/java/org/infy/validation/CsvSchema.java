@@ -1,5 +1,7 @@
 package org.infy.validation;
 
+import org.infy.model.CsvHeader;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -7,52 +9,75 @@ import java.util.Map;
 
 public class CsvSchema implements Schema {
     private final Map<String, SchemaConstraint> constraints;
+    // The constraints as arrays, so validation does not iterate the map for every record
+    private final String[] fields;
+    private final SchemaConstraint[] fieldConstraints;
     
     public CsvSchema(Map<String, SchemaConstraint> constraints) {
         this.constraints = new HashMap<>(constraints);
+        this.fields = this.constraints.keySet().toArray(new String[0]);
+        this.fieldConstraints = new SchemaConstraint[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fieldConstraints[i] = this.constraints.get(fields[i]);
+        }
     }
     
     @Override
     public List<String> validate(Object data) {
-        List<String> errors = new ArrayList<>();
         if (!(data instanceof Map<?, ?> record)) {
-            errors.add("Data must be a Map");
-            return errors;
+            return List.of("Data must be a Map");
         }
         
-        for (Map.Entry<String, SchemaConstraint> entry : constraints.entrySet()) {
-            String field = entry.getKey();
-            SchemaConstraint constraint = entry.getValue();
+        // Only allocated once a field fails
+        List<String> errors = null;
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i];
+            SchemaConstraint constraint = fieldConstraints[i];
             Object value = record.get(field);
             
             // Check required fields
             if (constraint.required() && value == null) {
-                errors.add("Required field missing: " + field);
+                errors = add(errors, "Required field missing: " + field);
                 continue;
             }
             
             if (value != null) {
                 // Type validation
                 if (!constraint.type().isInstance(value)) {
-                    errors.add("Invalid type for field " + field + ": expected " + 
+                    errors = add(errors, "Invalid type for field " + field + ": expected " + 
                              constraint.type().getSimpleName());
                 }
                 
                 // Length validation for strings
                 if (value instanceof String str && str.length() > constraint.maxLength()) {
-                    errors.add("Field " + field + " exceeds maximum length of " + 
+                    errors = add(errors, "Field " + field + " exceeds maximum length of " + 
                              constraint.maxLength());
                 }
                 
                 // Custom validation
                 if (constraint.customValidation() != null && 
                     !constraint.customValidation().test(value)) {
-                    errors.add("Custom validation failed for field " + field);
+                    errors = add(errors, "Custom validation failed for field " + field);
                 }
             }
         }
         
-        return errors;
+        return errors == null ? List.of() : errors;
+    }
+    
+    private static List<String> add(List<String> errors, String error) {
+        List<String> list = errors == null ? new ArrayList<>() : errors;
+        list.add(error);
+        return list;
+    }
+    
+    /**
+     * Compiles the schema against the header of a file, so records of that file are checked
+     * by column index. Unlike {@link #validate}, which checks the Java type of map values,
+     * the compiled schema checks that the text of each field converts to the field's type.
+     */
+    public CompiledCsvSchema compile(CsvHeader header) {
+        return new CompiledCsvSchema(this, header, List.of(fields), List.of(fieldConstraints));
     }
     
     @Override
@@ -1,8 +1,16 @@
 package org.infy.validation;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface DataValidator<T> {
     ValidationResult validate(T data);
-    List<ValidationResult> validateBatch(List<T> data);
-} 
\ No newline at end of file
+
+    default List<ValidationResult> validateBatch(List<T> data) {
+        List<ValidationResult> results = new ArrayList<>(data.size());
+        for (T item : data) {
+            results.add(validate(item));
+        }
+        return results;
+    }
+} 
@@ -0,0 +1,238 @@
+package org.infy.validation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Checks the values of a stream of records against the constraints of a {@link Schema} as a
+ * parser reads them, without binding records, and collects a {@link ValidationReport}.
+ * <p>
+ * The constraints are resolved to field positions once. A parser calls
+ * {@link #startRecord}, then {@link #checkValue} or {@link #checkText} for the fields it
+ * reads and {@link #endRecord}; memory stays constant apart from the issues, which are
+ * bounded by the error budget. Parsers stop reading once {@link #isExhausted()} is true.
+ * Instances are not thread-safe; use one per input.
+ */
+public final class SchemaValidator {
+    public static final int DEFAULT_ERROR_BUDGET = 1000;
+
+    private final String[] names;
+    private final SchemaConstraint[] constraints;
+    private final TextCheck[] textChecks;
+    private final Map<String, Integer> index;
+    private final boolean[] seen;
+    private final int errorBudget;
+    private final List<ValidationIssue> issues = new ArrayList<>();
+    private long recordCount;
+    private long invalidRecordCount;
+    private long lineNumber;
+    private boolean recordInvalid;
+    private boolean recordMalformed;
+
+    public SchemaValidator(Schema schema, int errorBudget) {
+        this(schema, errorBudget, field -> true);
+    }
+
+    /**
+     * Validates only the fields {@code reads} accepts, the others are neither checked nor
+     * required.
+     */
+    public SchemaValidator(Schema schema, int errorBudget, Predicate<String> reads) {
+        if (errorBudget < 1) {
+            throw new IllegalArgumentException("errorBudget must be positive");
+        }
+        this.errorBudget = errorBudget;
+        Map<String, SchemaConstraint> schemaConstraints = new LinkedHashMap<>(schema.getConstraints());
+        schemaConstraints.keySet().removeIf(reads.negate());
+        int size = schemaConstraints.size();
+        this.names = new String[size];
+        this.constraints = new SchemaConstraint[size];
+        this.textChecks = new TextCheck[size];
+        this.index = new HashMap<>(size * 2);
+        this.seen = new boolean[size];
+        int field = 0;
+        for (Map.Entry<String, SchemaConstraint> entry : schemaConstraints.entrySet()) {
+            names[field] = entry.getKey();
+            constraints[field] = entry.getValue();
+            textChecks[field] = new TextCheck(entry.getKey(), entry.getValue());
+            index.put(entry.getKey(), field);
+            field++;
+        }
+    }
+
+    /**
+     * @return the position of {@code field}, or -1 if the schema does not constrain it
+     */
+    public int indexOf(String field) {
+        Integer position = index.get(field);
+        return position == null ? -1 : position;
+    }
+
+    public int fieldCount() {
+        return names.length;
+    }
+
+    public String fieldName(int field) {
+        return names[field];
+    }
+
+    /**
+     * Whether {@link #checkValue} needs the actual value of the field, because it has a
+     * custom validation; otherwise the value's type and length are enough.
+     */
+    public boolean needsValue(int field) {
+        return constraints[field].customValidation() != null;
+    }
+
+    public void startRecord(long lineNumber) {
+        this.lineNumber = lineNumber;
+        recordInvalid = false;
+        recordMalformed = false;
+        Arrays.fill(seen, false);
+    }
+
+    /**
+     * Checks a typed value, like a JSON scalar.
+     * @param valueType the value's class, or null for a null value, which counts as missing
+     * @param length the length of a string value, or -1
+     * @param value the value itself if {@link #needsValue} is true, otherwise ignored
+     */
+    public void checkValue(int field, Class<?> valueType, int length, Object value) {
+        if (valueType == null) {
+            return;
+        }
+        seen[field] = true;
+        SchemaConstraint constraint = constraints[field];
+        if (!accepts(boxed(constraint.type()), valueType)) {
+            issue(field, "Invalid type for field " + names[field] + ": expected " + constraint.type().getSimpleName());
+            return;
+        }
+        if (length > constraint.maxLength()) {
+            issue(field, "Field " + names[field] + " exceeds maximum length of " + constraint.maxLength());
+        }
+        checkCustom(field, value);
+    }
+
+    /**
+     * Checks a textual value, like a CSV field or XML text, which has to be convertible to the
+     * field's type. Null, and blank text for non-text types, count as missing.
+     */
+    public void checkText(int field, String text) {
+        int result = textChecks[field].check(text);
+        if (result == TextCheck.MISSING) {
+            return;
+        }
+        seen[field] = true;
+        if (result != TextCheck.VALID) {
+            textChecks[field].messages(result, message -> issue(field, message));
+        }
+    }
+
+    /**
+     * Reports a problem with the current record as a whole, such as a value that is not an
+     * object; required fields are then not checked for it.
+     */
+    public void recordError(String message) {
+        recordMalformed = true;
+        issue(-1, message);
+    }
+
+    public void endRecord() {
+        if (!recordMalformed) {
+            for (int field = 0; field < names.length; field++) {
+                if (!seen[field] && constraints[field].required()) {
+                    issue(field, "Required field missing: " + names[field]);
+                }
+            }
+        }
+        recordCount++;
+        if (recordInvalid) {
+            invalidRecordCount++;
+        }
+    }
+
+    /**
+     * Reports a problem that ends validation, such as malformed input.
+     */
+    public void fatal(long lineNumber, String message) {
+        issues.add(new ValidationIssue(lineNumber, null, message));
+    }
+
+    public boolean isExhausted() {
+        return issues.size() >= errorBudget;
+    }
+
+    public ValidationReport report() {
+        return new ValidationReport(recordCount, invalidRecordCount, issues, isExhausted());
+    }
+
+    private void checkCustom(int field, Object value) {
+        Predicate<Object> customValidation = constraints[field].customValidation();
+        if (customValidation != null && !customValidation.test(value)) {
+            issue(field, "Custom validation failed for field " + names[field]);
+        }
+    }
+
+    private void issue(int field, String message) {
+        recordInvalid = true;
+        if (!isExhausted()) {
+            issues.add(new ValidationIssue(lineNumber, field < 0 ? null : names[field], message));
+        }
+    }
+
+    /**
+     * Whether a value of {@code actual} is valid for {@code expected}, allowing numbers to
+     * widen (an integer is a valid Long or Double) the way a parser would read them.
+     */
+    private static boolean accepts(Class<?> expected, Class<?> actual) {
+        if (expected.isAssignableFrom(actual)) {
+            return true;
+        }
+        if (actual == Integer.class) {
+            return expected == Long.class || expected == BigInteger.class
+                || expected == Double.class || expected == BigDecimal.class;
+        }
+        if (actual == Long.class || actual == BigInteger.class) {
+            return expected == BigInteger.class || expected == Double.class || expected == BigDecimal.class;
+        }
+        if (actual == Float.class || actual == Double.class) {
+            return expected == Double.class || expected == BigDecimal.class;
+        }
+        return false;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        return Character.class;
+    }
+}
@@ -0,0 +1,137 @@
+package org.infy.validation;
+
+import org.infy.binding.RecordBinder;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link SchemaConstraint} compiled for checking textual values, like CSV fields or XML
+ * text, which have to be convertible to the constraint's type.
+ * <p>
+ * {@link #check} reports failures as bits, so passing values allocate nothing: integers are
+ * parsed in place and a value object is only created for a custom validation. Messages are
+ * built by {@link #messages} only for values that failed.
+ */
+final class TextCheck {
+    static final int VALID = 0;
+    static final int MISSING = 1;
+    static final int INVALID_TYPE = 2;
+    static final int TOO_LONG = 4;
+    static final int CUSTOM_FAILED = 8;
+
+    private static final int TEXT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int CONVERTED = 4;
+
+    private final String field;
+    private final SchemaConstraint constraint;
+    private final int kind;
+    private final Function<String, Object> converter;
+    private final Predicate<Object> customValidation;
+
+    TextCheck(String field, SchemaConstraint constraint) {
+        this.field = field;
+        this.constraint = constraint;
+        this.customValidation = constraint.customValidation();
+        Class<?> type = constraint.type();
+        if (type == String.class || type == CharSequence.class || type == Object.class) {
+            kind = TEXT;
+        } else if (type == int.class || type == Integer.class) {
+            kind = INT;
+        } else if (type == long.class || type == Long.class) {
+            kind = LONG;
+        } else if (type == double.class || type == Double.class) {
+            kind = DOUBLE;
+        } else {
+            kind = CONVERTED;
+        }
+        this.converter = kind == CONVERTED ? RecordBinder.converter(type) : null;
+    }
+
+    String field() {
+        return field;
+    }
+
+    boolean required() {
+        return constraint.required();
+    }
+
+    /**
+     * @return {@link #VALID}, {@link #MISSING} for null (or, for non-text types, blank) text,
+     *         or the failure bits
+     */
+    int check(String text) {
+        if (text == null) {
+            return MISSING;
+        }
+        if (kind == TEXT) {
+            int result = text.length() > constraint.maxLength() ? TOO_LONG : VALID;
+            if (customValidation != null && !customValidation.test(text)) {
+                result |= CUSTOM_FAILED;
+            }
+            return result;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return MISSING;
+        }
+        Object value;
+        try {
+            switch (kind) {
+                case INT -> {
+                    int parsed = Integer.parseInt(text, start, end, 10);
+                    value = customValidation == null ? null : parsed;
+                }
+                case LONG -> {
+                    long parsed = Long.parseLong(text, start, end, 10);
+                    value = customValidation == null ? null : parsed;
+                }
+                case DOUBLE -> {
+                    double parsed = Double.parseDouble(text);
+                    value = customValidation == null ? null : parsed;
+                }
+                default -> {
+                    if (converter == null) {
+                        return INVALID_TYPE;
+                    }
+                    value = converter.apply(text.substring(start, end));
+                }
+            }
+        } catch (RuntimeException e) {
+            return INVALID_TYPE;
+        }
+        if (customValidation != null && !customValidation.test(value)) {
+            return CUSTOM_FAILED;
+        }
+        return VALID;
+    }
+
+    /**
+     * Adds the messages for the failure bits of {@link #check}.
+     */
+    void messages(int result, Consumer<String> sink) {
+        if ((result & MISSING) != 0 && constraint.required()) {
+            sink.accept("Required field missing: " + field);
+        }
+        if ((result & INVALID_TYPE) != 0) {
+            sink.accept("Invalid type for field " + field + ": expected " + constraint.type().getSimpleName());
+        }
+        if ((result & TOO_LONG) != 0) {
+            sink.accept("Field " + field + " exceeds maximum length of " + constraint.maxLength());
+        }
+        if ((result & CUSTOM_FAILED) != 0) {
+            sink.accept("Custom validation failed for field " + field);
+        }
+    }
+}
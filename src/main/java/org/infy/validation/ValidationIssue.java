@@ -0,0 +1,11 @@
+package org.infy.validation;
+
+/**
+ * One problem found while validating; {@code field} is null for problems that concern a
+ * whole record or the input itself.
+ */
+public record ValidationIssue(
+    long lineNumber,
+    String field,
+    String message
+) {}
@@ -0,0 +1,29 @@
+package org.infy.validation;
+
+import java.util.List;
+
+/**
+ * Outcome of validating a whole input against a {@link Schema}.
+ * <p>
+ * {@code issues} holds at most the error budget of the validation; once the budget is used
+ * up validation stops and {@code budgetExhausted} is set, so the counts then only cover the
+ * records read up to that point.
+ */
+public record ValidationReport(
+    long recordCount,
+    long invalidRecordCount,
+    List<ValidationIssue> issues,
+    boolean budgetExhausted
+) {
+    public ValidationReport {
+        issues = issues != null ? List.copyOf(issues) : List.of();
+    }
+
+    public boolean valid() {
+        return issues.isEmpty();
+    }
+
+    public int issueCount() {
+        return issues.size();
+    }
+}
@@ -1,19 +1,19 @@
 package org.infy.validation;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public record ValidationResult(
     boolean valid,
     List<String> errors
 ) {
+    private static final ValidationResult VALID = new ValidationResult(true, List.of());
+
     public ValidationResult {
-        errors = errors != null ? new ArrayList<>(errors) : new ArrayList<>();
+        errors = errors != null ? List.copyOf(errors) : List.of();
     }
 
     public static ValidationResult createValid() {
-        return new ValidationResult(true, Collections.emptyList());
+        return VALID;
     }
 
     public static ValidationResult createInvalid(List<String> errors) {
@@ -0,0 +1,66 @@
+package org.infy.cache;
+
+import org.infy.model.ParseResult;
+import org.infy.model.ParserConfig;
+import org.infy.parser.impl.CsvParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotCacheTest {
+
+    record Person(String name, int age) {}
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void configWithSeveralOptionsReloadsItsSnapshot() throws IOException {
+        Path file = Files.writeString(dir.resolve("people.csv"), "name,age\nAda,36\nAlan,41\n");
+        Path cacheDirectory = dir.resolve("cache");
+
+        // The same options inserted in opposite orders, as Map.of may iterate them in another run
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("delimiter", ",");
+        options.put("mode", "strict");
+        options.put("quote", "\"");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("quote", "\"");
+        reversed.put("mode", "strict");
+        reversed.put("delimiter", ",");
+        ParserConfig config = new ParserConfig(1000, false, StandardCharsets.UTF_8, true, options);
+        ParserConfig reordered = new ParserConfig(1000, false, StandardCharsets.UTF_8, true, reversed);
+        assertThat(reordered.toString()).isEqualTo(config.toString());
+
+        AtomicInteger parses = new AtomicInteger();
+        ParseResult<Person> stored = new SnapshotCache(cacheDirectory, 1 << 20)
+            .get(file, config, Person.class, parse(file, config, parses));
+        // A new cache over the same directory, as in a later run
+        ParseResult<Person> reloaded = new SnapshotCache(cacheDirectory, 1 << 20)
+            .get(file, reordered, Person.class, parse(file, reordered, parses));
+
+        assertThat(parses).hasValue(1);
+        assertThat(stored.parsedData()).containsExactly(new Person("Ada", 36), new Person("Alan", 41));
+        assertThat(reloaded.parsedData()).isEqualTo(stored.parsedData());
+        try (var snapshots = Files.list(cacheDirectory)) {
+            assertThat(snapshots.filter(path -> path.toString().endsWith(".snapshot"))).hasSize(1);
+        }
+    }
+
+    private static Supplier<ParseResult<Person>> parse(Path file, ParserConfig config, AtomicInteger parses) {
+        return () -> {
+            parses.incrementAndGet();
+            return new CsvParser(config).parseAs(file, Person.class);
+        };
+    }
+}
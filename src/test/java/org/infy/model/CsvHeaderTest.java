@@ -0,0 +1,30 @@
+package org.infy.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvHeaderTest {
+
+    @Test
+    void widenedHeadersOfFirstWidthsAreShared() {
+        CsvHeader header = CsvHeader.of("id", "name");
+
+        assertThat(header.widen(2)).isSameAs(header);
+        assertThat(header.widen(4)).isSameAs(header.widen(4));
+        assertThat(header.widen(4).names()).containsExactly("id", "name", "Column3", "Column4");
+    }
+
+    @Test
+    void widenedHeadersOfManyWidthsAreNotAllCached() {
+        CsvHeader header = CsvHeader.of("id", "name");
+        for (int width = 3; width < 1000; width++) {
+            assertThat(header.widen(width).size()).isEqualTo(width);
+        }
+
+        CsvHeader wide = header.widen(999);
+        assertThat(header.widen(999)).isNotSameAs(wide);
+        assertThat(header.widen(999).names()).isEqualTo(wide.names());
+        assertThat(header.widen(3)).isSameAs(header.widen(3));
+    }
+}
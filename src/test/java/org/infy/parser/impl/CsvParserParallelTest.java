@@ -0,0 +1,202 @@
+package org.infy.parser.impl;
+
+import org.infy.model.ParseError;
+import org.infy.model.ParseResult;
+import org.infy.model.ParserConfig;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvParserParallelTest {
+
+    private static final String HEADER = "id,text,n";
+    private static final int SEGMENT_SIZE = 1 << 20;
+
+    private final ParserConfig config = new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of());
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\n", "\r\n"})
+    void allEntryPointsAgreeAcrossChunkBoundaries(String eol) throws IOException {
+        assertThat(ForkJoinPool.getCommonPoolParallelism()).isGreaterThan(1);
+        Generated csv = new Generated(eol);
+        Path file = dir.resolve("data.csv");
+        Files.writeString(file, csv.text, StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long dataStart = HEADER.length() + eol.length();
+            assertThat(CsvChunkIndex.build(channel, dataStart, channel.size(), 2).chunkCount()).isGreaterThan(1);
+        }
+
+        CsvParser parser = new CsvParser(config);
+        ParseResult<Map<String, String>> streamed;
+        try (InputStream input = Files.newInputStream(file)) {
+            streamed = parser.parse(input, null);
+        }
+        ParseResult<Map<String, String>> mapped = parser.parse(file);
+        ParseResult<Map<String, String>> parallel = parser.parseParallel(file);
+        List<Map<String, String>> parallelStream;
+        try (Stream<Map<String, String>> records = parser.parseStream(file)) {
+            parallelStream = records.parallel().collect(Collectors.toList());
+        }
+
+        assertThat(streamed.parsedData()).isEqualTo(csv.records);
+        assertThat(errors(streamed)).isEqualTo(csv.errors);
+        assertThat(mapped.parsedData()).isEqualTo(csv.records);
+        assertThat(errors(mapped)).isEqualTo(csv.errors);
+        assertThat(parallel.parsedData()).isEqualTo(csv.records);
+        assertThat(errors(parallel)).isEqualTo(csv.errors);
+        assertThat(parallelStream).isEqualTo(csv.records);
+    }
+
+    private static List<String> errors(ParseResult<?> result) {
+        return result.errors().stream()
+            .map(error -> error.lineNumber() + ": " + error.message())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * About seven segments of records, with a quoted field placed across every segment
+     * boundary at a different position: inside a {@code ""} escape, around an embedded
+     * line break, on the opening or closing quote, or inside a malformed record.
+     */
+    private static final class Generated {
+        final String eol;
+        final StringBuilder text = new StringBuilder();
+        final List<Map<String, String>> records = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        long line = 1;
+        int id;
+
+        Generated(String eol) {
+            this.eol = eol;
+            append(HEADER + eol);
+            for (int k = 1; k <= 7; k++) {
+                long boundary = HEADER.length() + eol.length() + (long) k * SEGMENT_SIZE;
+                while (boundary - text.length() >= 400) {
+                    normal();
+                }
+                straddle(k - 1, boundary);
+            }
+            for (int i = 0; i < 50; i++) {
+                normal();
+            }
+            errors.add(line + ": Unterminated quoted field");
+            append((++id) + ",\"open" + eol + "never closed");
+        }
+
+        private void normal() {
+            int n = ++id;
+            String value = "line " + n;
+            if (n % 3 == 0) {
+                value += " with \"quote\"";
+            }
+            if (n % 4 == 0) {
+                value += eol + "second line";
+            }
+            if (n % 5 == 0) {
+                value += eol + "\"\"";
+            }
+            record(n + ",\"" + value.replace("\"", "\"\"") + "\"," + (n % 7) + eol, n, value, n % 7);
+            if (n % 50 == 0) {
+                append(eol);
+            }
+        }
+
+        private void straddle(int kind, long boundary) {
+            String value;
+            String raw;
+            int critical;
+            boolean valid = true;
+            String message = null;
+            switch (kind) {
+                case 0 -> {
+                    // Second quote of an escaped pair
+                    value = "ab\"cd";
+                    raw = "\"ab\"\"cd\"";
+                    critical = raw.indexOf("\"\"") + 1;
+                }
+                case 1 -> {
+                    // First quote of an escaped pair
+                    value = "ab\"cd";
+                    raw = "\"ab\"\"cd\"";
+                    critical = raw.indexOf("\"\"");
+                }
+                case 2 -> {
+                    // Just after an embedded line break
+                    value = "ab" + eol + "cd";
+                    raw = "\"" + value + "\"";
+                    critical = raw.indexOf(eol) + eol.length();
+                }
+                case 3 -> {
+                    // On the embedded line feed, between CR and LF for CRLF files
+                    value = "ab" + eol + "\"\"cd";
+                    raw = "\"ab" + eol + "\"\"\"\"cd\"";
+                    critical = raw.indexOf('\n');
+                }
+                case 4 -> {
+                    // On the opening quote
+                    value = "ab" + eol + "cd";
+                    raw = "\"" + value + "\"";
+                    critical = 0;
+                }
+                case 5 -> {
+                    valid = false;
+                    value = null;
+                    raw = "\"a\"b";
+                    critical = raw.length() - 1;
+                    message = "Unexpected character after closing quote";
+                }
+                default -> {
+                    valid = false;
+                    value = null;
+                    raw = "x\"y\"z";
+                    critical = 2;
+                    message = "Unexpected quote in unquoted field";
+                }
+            }
+            int n = ++id + 1;
+            String prefix = n + ",";
+            int padding = (int) (boundary - text.length()) - critical - prefix.length()
+                - (id + ",,0").length() - eol.length();
+            record(id + "," + "p".repeat(padding) + ",0" + eol, id, "p".repeat(padding), 0);
+            id = n;
+            String quoted = prefix + raw + ",1" + eol;
+            if (valid) {
+                record(quoted, n, value, 1);
+            } else {
+                errors.add(line + ": " + message);
+                append(quoted);
+            }
+            assertThat(text.length() - quoted.length() + prefix.length() + critical).isEqualTo(boundary);
+        }
+
+        private void record(String raw, int n, String value, int count) {
+            records.add(Map.of("id", String.valueOf(n), "text", value, "n", String.valueOf(count)));
+            append(raw);
+        }
+
+        private void append(String raw) {
+            text.append(raw);
+            line += raw.chars().filter(c -> c == '\n').count();
+        }
+    }
+}
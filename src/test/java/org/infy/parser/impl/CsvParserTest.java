@@ -0,0 +1,36 @@
+package org.infy.parser.impl;
+
+import org.infy.model.ParserConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvParserTest {
+
+    private final CsvParser parser = new CsvParser(
+        new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of()));
+
+    @Test
+    void streamWithoutHeaderClosesItsInput() {
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayInputStream input = new ByteArrayInputStream(new byte[0]) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        assertThatThrownBy(() -> parser.parseStream(input, null))
+            .hasMessage("Failed to read CSV headers")
+            .hasRootCauseMessage("CSV file is empty");
+        assertThat(closed).isTrue();
+    }
+}
@@ -0,0 +1,130 @@
+package org.infy.parser.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.infy.model.ParseResult;
+import org.infy.model.ParserConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonParserParallelTest {
+
+    private static final int ELEMENTS = 100_000;
+
+    record Person(String name, int age) {}
+
+    private final JsonParser<Person> parser =
+        new JsonParser<>(new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of()));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexedParseMatchesSequentialParse() throws IOException {
+        assertThat(ForkJoinPool.getCommonPoolParallelism()).isGreaterThan(1);
+        Path file = Files.writeString(dir.resolve("people.json"), document(), StandardCharsets.UTF_8);
+
+        JsonArrayIndex index = JsonArrayIndex.build(file);
+        assertThat(index.elementCount()).isEqualTo(ELEMENTS);
+        assertThat(index.runCount()).isBetween(2, (int) (Files.size(file) >> 20) + 1);
+        Path indexFile = dir.resolve("people.json.idx");
+        index.save(indexFile);
+        // Three numbers per run, rather than two per element
+        assertThat(Files.size(indexFile)).isLessThan(1024);
+        JsonArrayIndex loaded = JsonArrayIndex.load(indexFile, file);
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.runCount()).isEqualTo(index.runCount());
+        for (int run = 0; run < index.runCount(); run++) {
+            assertThat(loaded.firstElement(run)).isEqualTo(index.firstElement(run));
+            assertThat(loaded.start(run)).isEqualTo(index.start(run));
+            assertThat(loaded.end(run)).isEqualTo(index.end(run));
+        }
+
+        ParseResult<Person> sequential;
+        try (InputStream input = Files.newInputStream(file)) {
+            sequential = parser.parse(input, Person.class);
+        }
+        ParseResult<Person> indexed = parser.parse(file, loaded, Person.class);
+        List<Person> streamed;
+        try (Stream<Person> people = parser.parseStream(file, Person.class)) {
+            streamed = people.parallel().collect(Collectors.toList());
+        }
+
+        assertThat(sequential.parsedData()).hasSize(ELEMENTS - ELEMENTS / 97);
+        assertThat(sequential.errors()).hasSize(ELEMENTS / 97);
+        assertThat(indexed.parsedData()).isEqualTo(sequential.parsedData());
+        assertThat(errors(indexed)).isEqualTo(errors(sequential));
+        assertThat(streamed).isEqualTo(sequential.parsedData());
+    }
+
+    @Test
+    void splitAfterReadingStartedKeepsEveryElementOnce() throws IOException {
+        Path file = Files.writeString(dir.resolve("people.json"), document(), StandardCharsets.UTF_8);
+        JsonArrayIndex index = JsonArrayIndex.build(file);
+
+        List<Person> expected;
+        try (Stream<Person> people = parser.parseStream(file, index, Person.class)) {
+            expected = people.collect(Collectors.toList());
+        }
+        List<Person> actual = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ObjectMapper mapper = new ObjectMapper();
+            Spliterator<Person> suffix = new JsonSpliterator<>(channel, index, mapper.getFactory(), mapper,
+                Person.class);
+            // Into the third run, past the middle one, so the prefix takes over the open parser
+            for (int i = 0; i < index.firstElement(2) + 10; i++) {
+                assertThat(suffix.tryAdvance(actual::add)).isTrue();
+            }
+            Spliterator<Person> prefix = suffix.trySplit();
+            assertThat(prefix).isNotNull();
+            prefix.forEachRemaining(actual::add);
+            suffix.forEachRemaining(actual::add);
+        }
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    /**
+     * A pretty-printed array of several megabytes whose strings hold brackets, commas and
+     * escapes. Every 97th element has an age that does not bind.
+     */
+    private static String document() {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < ELEMENTS; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            String name = switch (i % 4) {
+                case 0 -> "name " + i;
+                case 1 -> "name ], " + i;
+                case 2 -> "name \\\"[{" + i + "}]\\\"";
+                default -> "name \\\\" + "x".repeat(i % 50);
+            };
+            String age = i % 97 == 96 ? "\"old\"" : String.valueOf(i % 100);
+            json.append("  {\"name\": \"").append(name).append("\", \"age\": ").append(age).append('}');
+        }
+        return json.append("\n]\n").toString();
+    }
+
+    private static List<String> errors(ParseResult<?> result) {
+        return result.errors().stream()
+            .map(error -> error.lineNumber() + ": " + error.message())
+            .collect(Collectors.toList());
+    }
+}
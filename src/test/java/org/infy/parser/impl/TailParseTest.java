@@ -0,0 +1,176 @@
+package org.infy.parser.impl;
+
+import org.infy.model.ParserConfig;
+import org.infy.model.TailParseResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailParseTest {
+
+    record Event(int id, String name) {}
+
+    private final ParserConfig config = new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of());
+    private final CsvParser csv = new CsvParser(config);
+    private final JsonParser<Event> json = new JsonParser<>(config);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvPartialTrailingRecordIsLeftForNextCall() throws IOException {
+        Path file = write("events.csv", "id,name\n1,a\n2,b");
+        Path checkpoint = dir.resolve("events.checkpoint");
+
+        TailParseResult<Map<String, String>> first = csv.parseTail(file, checkpoint);
+        assertThat(first.delta().parsedData()).containsExactly(Map.of("id", "1", "name", "a"));
+        assertThat(first.offset()).isEqualTo("id,name\n1,a\n".length());
+
+        append(file, "b\n3,c\"d\"e\n4,d\n");
+        TailParseResult<Map<String, String>> second = csv.parseTail(file, checkpoint);
+        assertThat(second.delta().parsedData())
+            .containsExactly(Map.of("id", "2", "name", "bb"), Map.of("id", "4", "name", "d"));
+        assertThat(errors(second)).containsExactly("4: Unexpected quote in unquoted field");
+        assertThat(second.cumulative().validRecords()).isEqualTo(3);
+        assertThat(second.cumulative().invalidRecords()).isEqualTo(1);
+        assertThat(second.offset()).isEqualTo(Files.size(file));
+
+        TailParseResult<Map<String, String>> unchanged = csv.parseTail(file, checkpoint);
+        assertThat(unchanged.delta().parsedData()).isEmpty();
+        assertThat(unchanged.cumulative().validRecords()).isEqualTo(3);
+        assertThat(unchanged.csvStats().totalRows()).isEqualTo(second.csvStats().totalRows());
+    }
+
+    @Test
+    void csvOpenQuotedFieldIsCompletedByLaterAppend() throws IOException {
+        Path file = write("events.csv", "id,name\n1,\"first\n");
+        Path checkpoint = dir.resolve("events.checkpoint");
+
+        TailParseResult<Map<String, String>> first = csv.parseTail(file, checkpoint);
+        assertThat(first.delta().parsedData()).isEmpty();
+        assertThat(first.delta().errors()).isEmpty();
+        assertThat(first.offset()).isEqualTo("id,name\n".length());
+
+        append(file, "second\"\n2,b\n");
+        TailParseResult<Map<String, String>> second = csv.parseTail(file, checkpoint);
+        assertThat(second.delta().parsedData())
+            .containsExactly(Map.of("id", "1", "name", "first\nsecond"), Map.of("id", "2", "name", "b"));
+        assertThat(second.delta().errors()).isEmpty();
+
+        append(file, "3,\"x\"y\n");
+        TailParseResult<Map<String, String>> third = csv.parseTail(file, checkpoint);
+        assertThat(errors(third)).containsExactly("5: Unexpected character after closing quote");
+    }
+
+    @Test
+    void csvHeaderOnlyFileKeepsItsHeader() throws IOException {
+        Path file = write("events.csv", "id,na");
+        Path checkpoint = dir.resolve("events.checkpoint");
+
+        TailParseResult<Map<String, String>> partialHeader = csv.parseTail(file, checkpoint);
+        assertThat(partialHeader.delta().parsedData()).isEmpty();
+        assertThat(partialHeader.offset()).isZero();
+
+        append(file, "me\n");
+        TailParseResult<Map<String, String>> header = csv.parseTail(file, checkpoint);
+        assertThat(header.delta().parsedData()).isEmpty();
+        assertThat(header.offset()).isEqualTo("id,name\n".length());
+
+        append(file, "1,a\n");
+        TailParseResult<Map<String, String>> records = csv.parseTail(file, checkpoint);
+        assertThat(records.delta().parsedData()).containsExactly(Map.of("id", "1", "name", "a"));
+        assertThat(records.csvStats().totalRows()).isEqualTo(1);
+    }
+
+    @Test
+    void csvTruncatedOrReplacedFileIsParsedAgain() throws IOException {
+        Path file = write("events.csv", "id,name\n1,a\n2,b\n");
+        Path checkpoint = dir.resolve("events.checkpoint");
+        assertThat(csv.parseTail(file, checkpoint).cumulative().validRecords()).isEqualTo(2);
+
+        write("events.csv", "id,name\n9,z\n");
+        TailParseResult<Map<String, String>> truncated = csv.parseTail(file, checkpoint);
+        assertThat(truncated.delta().parsedData()).containsExactly(Map.of("id", "9", "name", "z"));
+        assertThat(truncated.cumulative().validRecords()).isEqualTo(1);
+
+        // Same length, different content
+        write("events.csv", "id,name\n8,y\n");
+        TailParseResult<Map<String, String>> replaced = csv.parseTail(file, checkpoint);
+        assertThat(replaced.delta().parsedData()).containsExactly(Map.of("id", "8", "name", "y"));
+        assertThat(replaced.cumulative().validRecords()).isEqualTo(1);
+        assertThat(replaced.csvStats().totalRows()).isEqualTo(1);
+    }
+
+    @Test
+    void jsonLinesPartialTrailingLineIsLeftForNextCall() throws IOException {
+        Path file = write("events.ndjson", "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,");
+        Path checkpoint = dir.resolve("events.checkpoint");
+
+        TailParseResult<Event> first = json.parseLinesTail(file, checkpoint, Event.class);
+        assertThat(first.delta().parsedData()).containsExactly(new Event(1, "a"));
+        assertThat(first.offset()).isEqualTo("{\"id\":1,\"name\":\"a\"}\n".length());
+
+        append(file, "\"name\":\"b\"}\n{bad\n{\"id\":3,\"name\":\"c\"}\n");
+        TailParseResult<Event> second = json.parseLinesTail(file, checkpoint, Event.class);
+        assertThat(second.delta().parsedData()).containsExactly(new Event(2, "b"), new Event(3, "c"));
+        assertThat(second.delta().errors()).extracting(error -> error.lineNumber()).containsExactly(3);
+        assertThat(second.cumulative().validRecords()).isEqualTo(3);
+        assertThat(second.cumulative().invalidRecords()).isEqualTo(1);
+        assertThat(second.offset()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void jsonLinesEmptyFileWaitsForData() throws IOException {
+        Path file = write("events.ndjson", "");
+        Path checkpoint = dir.resolve("events.checkpoint");
+
+        TailParseResult<Event> empty = json.parseLinesTail(file, checkpoint, Event.class);
+        assertThat(empty.delta().parsedData()).isEmpty();
+        assertThat(empty.offset()).isZero();
+
+        append(file, "{\"id\":1,\"name\":\"a\"}\n");
+        assertThat(json.parseLinesTail(file, checkpoint, Event.class).delta().parsedData())
+            .containsExactly(new Event(1, "a"));
+    }
+
+    @Test
+    void jsonLinesTruncatedOrReplacedFileIsParsedAgain() throws IOException {
+        Path file = write("events.ndjson", "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"name\":\"b\"}\n");
+        Path checkpoint = dir.resolve("events.checkpoint");
+        assertThat(json.parseLinesTail(file, checkpoint, Event.class).cumulative().validRecords()).isEqualTo(2);
+
+        write("events.ndjson", "{\"id\":9,\"name\":\"z\"}\n");
+        TailParseResult<Event> truncated = json.parseLinesTail(file, checkpoint, Event.class);
+        assertThat(truncated.delta().parsedData()).containsExactly(new Event(9, "z"));
+        assertThat(truncated.cumulative().validRecords()).isEqualTo(1);
+
+        write("events.ndjson", "{\"id\":8,\"name\":\"y\"}\n");
+        TailParseResult<Event> replaced = json.parseLinesTail(file, checkpoint, Event.class);
+        assertThat(replaced.delta().parsedData()).containsExactly(new Event(8, "y"));
+        assertThat(replaced.cumulative().validRecords()).isEqualTo(1);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static List<String> errors(TailParseResult<?> result) {
+        return result.delta().errors().stream()
+            .map(error -> error.lineNumber() + ": " + error.message())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,201 @@
+package org.infy.parser.impl;
+
+import org.infy.model.ParseError;
+import org.infy.model.ParseResult;
+import org.infy.model.ParserConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlParserParallelTest {
+
+    private static final int RECORDS = 200;
+
+    record Person(String name, int age) {}
+
+    private final XmlParser<Person> parser = new XmlParser<>(
+        new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of()),
+        new RecordXmlMapper<>(Person.class, "person"));
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @CsvSource({"false, ''", "true, ''", "false, 'p:'"})
+    void indexedParseMatchesSequentialParse(boolean bom, String prefix) throws IOException {
+        Path file = write("people.xml", document(prefix), bom);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            XmlRecordIndex index = XmlRecordIndex.build(channel, "person");
+            assertThat(index).isNotNull();
+            assertThat(index.recordCount()).isEqualTo(RECORDS);
+        }
+        ParseResult<Person> sequential = parseStream(file);
+        ParseResult<Person> indexed = parser.parse(file, Person.class);
+
+        assertThat(sequential.parsedData()).hasSize(RECORDS - (RECORDS + 12) / 13);
+        assertThat(sequential.parsedData()).contains(new Person("name 5 </" + prefix + "person> <x>", 5));
+        assertThat(sequential.errors()).hasSize((RECORDS + 12) / 13)
+            .extracting(ParseError::lineNumber).doesNotHaveDuplicates();
+        assertThat(indexed.parsedData()).isEqualTo(sequential.parsedData());
+        assertThat(errors(indexed)).isEqualTo(errors(sequential));
+    }
+
+    @Test
+    void mapModeErrorLinesMatchSequentialParse() throws IOException {
+        XmlMapper<Person> mapper = new XmlMapper<>() {
+            @Override
+            public Person mapToObject(Map<String, String> elements, Class<Person> targetClass) {
+                if (!elements.containsKey("age")) {
+                    throw new IllegalArgumentException("Missing value for age");
+                }
+                return new Person(elements.get("name"), Integer.parseInt(elements.get("age")));
+            }
+
+            @Override
+            public String getRootElement() {
+                return "person";
+            }
+        };
+        XmlParser<Person> mapParser = new XmlParser<>(
+            new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of()), mapper);
+        Path file = write("people.xml", document(""), false);
+
+        ParseResult<Person> sequential;
+        try (InputStream input = Files.newInputStream(file)) {
+            sequential = mapParser.parse(input, Person.class);
+        }
+        ParseResult<Person> indexed = mapParser.parse(file, Person.class);
+
+        assertThat(sequential.parsedData()).hasSize(RECORDS - (RECORDS + 12) / 13);
+        assertThat(sequential.errors()).hasSize((RECORDS + 12) / 13)
+            .extracting(ParseError::lineNumber).doesNotHaveDuplicates();
+        assertThat(indexed.parsedData()).isEqualTo(sequential.parsedData());
+        assertThat(errors(indexed)).isEqualTo(errors(sequential));
+        // Both modes report the line of the record's start tag
+        assertThat(errors(sequential)).isEqualTo(errors(parseStream(file)));
+    }
+
+    @Test
+    void doctypeIsParsedSequentially() throws IOException {
+        String xml = "<?xml version=\"1.0\"?>\n<!DOCTYPE people [\n  <!ELEMENT people (person*)>\n]>\n<people>\n"
+            + people(0, 40) + "</people>\n";
+        assertSequential(write("doctype.xml", xml, false));
+    }
+
+    @Test
+    void nestedRecordsAreParsedSequentially() throws IOException {
+        String xml = "<people>\n" + people(0, 20) + "  <group>\n" + people(20, 40) + "  </group>\n" + people(40, 60)
+            + "</people>\n";
+        assertSequential(write("nested.xml", xml, false));
+    }
+
+    @Test
+    void textBetweenRecordsIsParsedSequentially() throws IOException {
+        String xml = "<people>\n" + people(0, 20) + "  stray text\n" + people(20, 40) + "</people>\n";
+        assertSequential(write("text.xml", xml, false));
+    }
+
+    private void assertSequential(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThat(XmlRecordIndex.build(channel, "person")).isNull();
+        }
+        ParseResult<Person> sequential = parseStream(file);
+        ParseResult<Person> indexed = parser.parse(file, Person.class);
+
+        assertThat(indexed.parsedData()).isEqualTo(sequential.parsedData());
+        assertThat(errors(indexed)).isEqualTo(errors(sequential));
+    }
+
+    /**
+     * A flat list of records whose end tag also appears inside CDATA, comments, processing
+     * instructions and attribute values. Every thirteenth record has no age.
+     */
+    private static String document(String prefix) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<?xml-stylesheet href=\"people.xsl\"?>\n")
+            .append("<!-- records follow; </person> -->\n")
+            .append('<').append(prefix).append("people")
+            .append(prefix.isEmpty() ? "" : " xmlns:p=\"urn:people\"").append(">\n");
+        for (int i = 0; i < RECORDS; i++) {
+            String person = prefix + "person";
+            String name = prefix + "name";
+            String age = prefix + "age";
+            xml.append("  <").append(person);
+            if (i % 7 == 0) {
+                // A '<' is not allowed in attribute values, but '>' is
+                xml.append(" note='a > b /").append(person).append(">'");
+            }
+            xml.append(">\n");
+            if (i % 5 == 0) {
+                xml.append("    <").append(name).append("><![CDATA[name ").append(i).append(" </")
+                    .append(person).append("> <x>]]></").append(name).append(">\n");
+            } else {
+                xml.append("    <").append(name).append(">name ").append(i).append("</").append(name).append(">\n");
+            }
+            if (i % 3 == 0) {
+                xml.append("    <!-- </").append(person).append("> -->\n");
+            }
+            if (i % 11 == 0) {
+                xml.append("    <?audit </").append(person).append(">?>\n");
+            }
+            if (i % 13 != 0) {
+                xml.append("    <").append(age).append('>').append(i).append("</").append(age).append(">\n");
+            }
+            xml.append("  </").append(person).append(">\n");
+            if (i % 17 == 0) {
+                xml.append("  <!-- between -->\n  <?between?>\n");
+            }
+        }
+        xml.append("</").append(prefix).append("people>\n");
+        return xml.toString();
+    }
+
+    private static String people(int from, int to) {
+        StringBuilder xml = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            xml.append("  <person>\n    <name>name ").append(i).append("</name>\n");
+            if (i % 9 != 0) {
+                xml.append("    <age>").append(i).append("</age>\n");
+            }
+            xml.append("  </person>\n");
+        }
+        return xml.toString();
+    }
+
+    private ParseResult<Person> parseStream(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return parser.parse(input, Person.class);
+        }
+    }
+
+    private Path write(String name, String xml, boolean bom) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (bom) {
+            bytes.write(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        }
+        bytes.write(xml.getBytes(StandardCharsets.UTF_8));
+        return Files.write(dir.resolve(name), bytes.toByteArray());
+    }
+
+    private static List<String> errors(ParseResult<?> result) {
+        return result.errors().stream()
+            .map(error -> error.lineNumber() + ": " + error.message())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,53 @@
+package org.infy.util;
+
+import org.infy.model.ParserConfig;
+import org.infy.parser.impl.CsvParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectoryIngesterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resultsWaitingForSlowConsumerCountAgainstBudget() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // 4 KB each, so three fit the budget
+            files.add(Files.writeString(dir.resolve(i + ".csv"), "id,text\n" + (i + ",x\n").repeat(1024)));
+        }
+        CsvParser parser = new CsvParser(new ParserConfig(1000, false, StandardCharsets.UTF_8, true, Map.of()));
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger mostOutstanding = new AtomicInteger();
+
+        new DirectoryIngester<>(new IngestOptions(16, 3 * 4 * 1024 + 1023), file -> {
+            started.incrementAndGet();
+            return parser.parse(file);
+        }).run(files, result -> {
+            assertThat(result.succeeded()).isTrue();
+            mostOutstanding.accumulateAndGet(started.get() - consumed.get(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumed.incrementAndGet();
+        });
+
+        assertThat(consumed).hasValue(files.size());
+        assertThat(mostOutstanding.get()).isBetween(1, 3);
+    }
+}
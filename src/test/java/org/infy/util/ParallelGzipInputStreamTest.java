@@ -0,0 +1,197 @@
+package org.infy.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelGzipInputStreamTest {
+
+    // A plausible member header: deflate, no flags, no time, XFL 0, OS 255
+    private static final byte[] FAKE_HEADER = {0x1F, (byte) 0x8B, 8, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void requireParallelism() {
+        assertThat(ForkJoinPool.getCommonPoolParallelism()).isGreaterThan(1);
+    }
+
+    @Test
+    void manyMembersMatchGzipInputStream() throws IOException {
+        Gzip gzip = new Gzip(Deflater.DEFAULT_COMPRESSION);
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            gzip.member(randomBytes(random, 40 * 1024 + random.nextInt(40 * 1024)));
+        }
+        Path file = gzip.write(dir.resolve("members.gz"));
+
+        assertRoundTrip(file);
+    }
+
+    @Test
+    void headerLookalikesInsideMembersAreSkipped() throws IOException {
+        // Stored blocks copy the content as is, so every lookalike is a header candidate
+        Gzip gzip = new Gzip(Deflater.NO_COMPRESSION);
+        Random random = new Random(2);
+        for (int i = 0; i < 20; i++) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            while (content.size() < 300 * 1024) {
+                content.write(randomBytes(random, random.nextInt(4096)));
+                content.write(FAKE_HEADER);
+                if (random.nextBoolean()) {
+                    // Reserved block type, rejected as soon as it is inflated
+                    content.write(0xFF);
+                } else {
+                    // An empty stored block that inflates, followed by a wrong trailer
+                    content.write(new byte[] {1, 0, 0, (byte) 0xFF, (byte) 0xFF});
+                    content.write(randomBytes(random, 8));
+                }
+            }
+            gzip.member(content.toByteArray());
+        }
+        Path file = gzip.write(dir.resolve("lookalikes.gz"));
+
+        assertRoundTrip(file);
+    }
+
+    @Test
+    void memberLargerThanSegmentOutputCapMatchesGzipInputStream() throws IOException {
+        Gzip gzip = new Gzip(Deflater.DEFAULT_COMPRESSION);
+        gzip.member(randomBytes(new Random(3), 20 * 1024 * 1024));
+        gzip.member(randomBytes(new Random(4), 100 * 1024));
+        Path file = gzip.write(dir.resolve("large.gz"));
+
+        assertRoundTrip(file);
+    }
+
+    @Test
+    void corruptCrcIsReported() throws IOException {
+        Gzip gzip = manyMembers();
+        int member = 40;
+        byte[] bytes = gzip.bytes();
+        bytes[gzip.ends.get(member) - 8] ^= 1;
+        Path file = Files.write(dir.resolve("crc.gz"), bytes);
+
+        assertCorrupt(file, "Corrupt gzip member at offset " + gzip.starts.get(member) + ": CRC-32 mismatch");
+    }
+
+    @Test
+    void corruptLengthIsReported() throws IOException {
+        Gzip gzip = manyMembers();
+        int member = 70;
+        byte[] bytes = gzip.bytes();
+        bytes[gzip.ends.get(member) - 4] ^= 1;
+        Path file = Files.write(dir.resolve("length.gz"), bytes);
+
+        assertCorrupt(file, "Corrupt gzip member at offset " + gzip.starts.get(member) + ": length mismatch");
+    }
+
+    @Test
+    void truncatedTrailerIsReported() throws IOException {
+        Gzip gzip = manyMembers();
+        byte[] bytes = gzip.bytes();
+        Path file = Files.write(dir.resolve("truncated.gz"), Arrays.copyOf(bytes, bytes.length - 3));
+
+        try (InputStream input = CompressedInput.open(file)) {
+            assertThat(input).isInstanceOf(ParallelGzipInputStream.class);
+            assertThatThrownBy(() -> input.readAllBytes()).isInstanceOf(EOFException.class);
+        }
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            assertThatThrownBy(() -> input.readAllBytes()).isInstanceOf(EOFException.class);
+        }
+    }
+
+    private static Gzip manyMembers() throws IOException {
+        Gzip gzip = new Gzip(Deflater.DEFAULT_COMPRESSION);
+        Random random = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            gzip.member(randomBytes(random, 50 * 1024));
+        }
+        return gzip;
+    }
+
+    private static void assertRoundTrip(Path file) throws IOException {
+        byte[] expected;
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            expected = input.readAllBytes();
+        }
+        try (InputStream input = CompressedInput.open(file)) {
+            assertThat(input).isInstanceOf(ParallelGzipInputStream.class);
+            assertThat(input.readAllBytes()).isEqualTo(expected);
+        }
+    }
+
+    private static void assertCorrupt(Path file, String message) throws IOException {
+        try (InputStream input = CompressedInput.open(file)) {
+            assertThat(input).isInstanceOf(ParallelGzipInputStream.class);
+            assertThatThrownBy(() -> input.readAllBytes()).isInstanceOf(ZipException.class).hasMessage(message);
+        }
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            assertThatThrownBy(() -> input.readAllBytes()).isInstanceOf(ZipException.class);
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Concatenated gzip members, with the offsets at which each one starts and ends.
+     */
+    private static final class Gzip {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final List<Integer> starts = new ArrayList<>();
+        final List<Integer> ends = new ArrayList<>();
+        private final int level;
+
+        Gzip(int level) {
+            this.level = level;
+        }
+
+        void member(byte[] content) throws IOException {
+            starts.add(out.size());
+            try (OutputStream gzip = new LevelGzipOutputStream(out, level)) {
+                gzip.write(content);
+            }
+            ends.add(out.size());
+        }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+
+        Path write(Path file) throws IOException {
+            return Files.write(file, bytes());
+        }
+    }
+
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+        LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
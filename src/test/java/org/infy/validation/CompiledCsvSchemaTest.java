@@ -0,0 +1,37 @@
+package org.infy.validation;
+
+import org.infy.model.CsvHeader;
+import org.infy.model.CsvRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledCsvSchemaTest {
+
+    private final CsvSchema schema = new CsvSchema.Builder()
+        .addField("name", SchemaConstraint.required(String.class))
+        .addField("age", SchemaConstraint.required(Integer.class))
+        .build();
+    private final CompiledCsvSchema compiled = schema.compile(CsvHeader.of("name", "age", "city"));
+
+    @Test
+    void recordsOfAnotherHeaderGetTheSameAnswers() {
+        CsvHeader projected = CsvHeader.of("age", "name");
+        CsvHeader original = compiled.header();
+
+        for (String age : List.of("30", "", "thirty")) {
+            List<String> expected = compiled.errors(new CsvRecord(original, new String[] {"Ada", age, "London"}));
+            assertThat(compiled.errors(new CsvRecord(projected, new String[] {age, "Ada"}))).isEqualTo(expected);
+        }
+        assertThat(compiled.errors(new CsvRecord(projected, new String[] {"30", "Ada"}))).isEmpty();
+        assertThat(compiled.errors(new CsvRecord(projected, new String[] {"", "Ada"}))).hasSize(1);
+    }
+
+    @Test
+    void requiredColumnMissingFromAnotherHeaderIsReported() {
+        List<String> errors = compiled.errors(new CsvRecord(CsvHeader.of("name"), new String[] {"Ada"}));
+        assertThat(errors).containsExactly("Required field missing: age");
+    }
+}